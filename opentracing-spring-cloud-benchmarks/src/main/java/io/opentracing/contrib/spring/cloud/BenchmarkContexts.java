@@ -0,0 +1,40 @@
+package io.opentracing.contrib.spring.cloud;
+
+import io.opentracing.Tracer;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+
+/**
+ * Creates minimal application contexts for benchmarks, containing only the fixture and, unless the tracer is
+ * {@link BenchmarkTracer#NONE}, the auto-configuration under test.
+ */
+public final class BenchmarkContexts {
+
+  private BenchmarkContexts() {}
+
+  @Configuration
+  @EnableAspectJAutoProxy(proxyTargetClass = true)
+  static class AopConfiguration {
+  }
+
+  /**
+   * @param benchmarkTracer tracer to register as a bean
+   * @param autoConfiguration auto-configuration under test
+   * @param fixtures configurations of the instrumented beans
+   * @return refreshed application context
+   */
+  public static AnnotationConfigApplicationContext create(BenchmarkTracer benchmarkTracer, Class<?> autoConfiguration,
+      Class<?>... fixtures) {
+    AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+    context.register(AopConfiguration.class);
+    context.register(fixtures);
+    if (benchmarkTracer.isInstrumented()) {
+      Tracer tracer = benchmarkTracer.create();
+      context.getBeanFactory().registerSingleton("tracer", tracer);
+      context.register(autoConfiguration);
+    }
+    context.refresh();
+    return context;
+  }
+}
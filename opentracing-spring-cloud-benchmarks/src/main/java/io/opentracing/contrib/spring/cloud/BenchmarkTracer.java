@@ -0,0 +1,64 @@
+package io.opentracing.contrib.spring.cloud;
+
+import io.opentracing.NoopTracerFactory;
+import io.opentracing.Tracer;
+import io.opentracing.mock.MockSpan;
+import io.opentracing.mock.MockTracer;
+import io.opentracing.mock.MockTracer.Propagator;
+import io.opentracing.util.ThreadLocalActiveSpanSource;
+
+/**
+ * Tracer the benchmarked integration runs against.
+ */
+public enum BenchmarkTracer {
+  /**
+   * Integration is not loaded at all, measures the uninstrumented baseline
+   */
+  NONE,
+  /**
+   * Integration is loaded with {@link io.opentracing.NoopTracer}, measures the cost of the instrumentation itself
+   */
+  NOOP,
+  /**
+   * Integration is loaded with {@link MockTracer}, measures the cost of a tracer which records spans
+   */
+  MOCK;
+
+  public boolean isInstrumented() {
+    return this != NONE;
+  }
+
+  public Tracer create() {
+    switch (this) {
+      case NOOP:
+        return NoopTracerFactory.create();
+      case MOCK:
+        return new DiscardingMockTracer();
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * Mock tracer which does not keep more than {@link #MAX_FINISHED_SPANS} spans, so that long running benchmarks do not
+   * run out of memory.
+   */
+  static class DiscardingMockTracer extends MockTracer {
+    private static final int MAX_FINISHED_SPANS = 1024;
+
+    private int finishedSpans;
+
+    DiscardingMockTracer() {
+      super(new ThreadLocalActiveSpanSource(), Propagator.TEXT_MAP);
+    }
+
+    @Override
+    protected void onSpanFinished(MockSpan mockSpan) {
+      // called while holding the tracer's monitor
+      if (++finishedSpans == MAX_FINISHED_SPANS) {
+        finishedSpans = 0;
+        reset();
+      }
+    }
+  }
+}
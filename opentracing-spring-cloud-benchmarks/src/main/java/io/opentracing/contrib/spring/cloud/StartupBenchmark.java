@@ -0,0 +1,133 @@
+package io.opentracing.contrib.spring.cloud;
+
+import feign.Client;
+import io.opentracing.NoopTracerFactory;
+import io.opentracing.Tracer;
+import io.opentracing.contrib.spring.cloud.feign.StubClient;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.support.SpringFactoriesLoader;
+import org.springframework.util.StringUtils;
+
+/**
+ * Context refresh time of an application with a data source, a Feign client and a number of plain beans, with and
+ * without the auto-configurations of this starter. Each iteration starts and closes one application.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(1)
+public class StartupBenchmark {
+
+  private static final String AUTO_CONFIGURATION_PACKAGE = "io.opentracing.contrib.";
+
+  @Configuration
+  @EnableAutoConfiguration
+  static class Application {
+    @Bean
+    public Tracer tracer() {
+      return NoopTracerFactory.create();
+    }
+
+    @Bean
+    public DataSource dataSource() {
+      JdbcDataSource dataSource = new JdbcDataSource();
+      dataSource.setURL("jdbc:h2:mem:startup");
+      return dataSource;
+    }
+
+    @Bean
+    public Client client() {
+      return new StubClient();
+    }
+  }
+
+  /**
+   * Plain application bean, matched against the pointcuts of all aspects when they are applied to every bean.
+   */
+  public static class Service {
+    public String get(String key) {
+      return key;
+    }
+
+    public void put(String key, String value) {
+    }
+
+    public void remove(String key) {
+    }
+  }
+
+  @Param({"false", "true"})
+  public boolean starter;
+
+  @Param({"100", "2000"})
+  public int beans;
+
+  private String excludedAutoConfigurations;
+
+  @Setup
+  public void setup() {
+    List<String> excluded = new ArrayList<>();
+    if (!starter) {
+      for (String name : SpringFactoriesLoader.loadFactoryNames(EnableAutoConfiguration.class,
+          StartupBenchmark.class.getClassLoader())) {
+        if (name.startsWith(AUTO_CONFIGURATION_PACKAGE)) {
+          excluded.add(name);
+        }
+      }
+    }
+    excludedAutoConfigurations = StringUtils.collectionToCommaDelimitedString(excluded);
+  }
+
+  @Benchmark
+  public ConfigurableApplicationContext refresh() {
+    ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+        .web(false)
+        .logStartupInfo(false)
+        .properties("spring.main.banner-mode=off", "spring.autoconfigure.exclude=" + excludedAutoConfigurations)
+        .initializers(new ServiceBeans(beans))
+        .run();
+    context.close();
+    return context;
+  }
+
+  private static class ServiceBeans implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+    private final int count;
+
+    ServiceBeans(int count) {
+      this.count = count;
+    }
+
+    @Override
+    public void initialize(ConfigurableApplicationContext context) {
+      BeanDefinitionRegistry registry = (BeanDefinitionRegistry) context;
+      for (int i = 0; i < count; i++) {
+        registry.registerBeanDefinition("service" + i, new RootBeanDefinition(Service.class));
+      }
+    }
+  }
+}
@@ -0,0 +1,115 @@
+package io.opentracing.contrib.spring.cloud.concurrent;
+
+import io.opentracing.ActiveSpan;
+import io.opentracing.Tracer;
+import io.opentracing.contrib.spring.cloud.BenchmarkTracer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Requests per second fanning out {@link #FAN_OUT} {@link CompletableFuture}s to an executor and joining them, the
+ * way a service calls many Feign clients in parallel. The executor continues the span of the request with
+ * {@link TracedExecutorService} or {@link TracingTaskDecorator}, {@code NONE} uses the plain executors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class ExecutorFanOutBenchmark {
+
+  private static final int FAN_OUT = 32;
+  private static final int POOL_SIZE = 8;
+
+  public enum ExecutorType {
+    EXECUTOR_SERVICE,
+    THREAD_POOL_TASK_EXECUTOR
+  }
+
+  @Param({"NONE", "NOOP", "MOCK"})
+  public BenchmarkTracer tracer;
+
+  @Param({"EXECUTOR_SERVICE", "THREAD_POOL_TASK_EXECUTOR"})
+  public ExecutorType executorType;
+
+  private Tracer benchmarkTracer;
+  private ExecutorService executorService;
+  private ThreadPoolTaskExecutor taskExecutor;
+  private Executor executor;
+
+  private final Supplier<Integer> task = new Supplier<Integer>() {
+    @Override
+    public Integer get() {
+      Blackhole.consumeCPU(100);
+      return FAN_OUT;
+    }
+  };
+
+  @Setup
+  public void setup() {
+    benchmarkTracer = tracer.create();
+    if (executorType == ExecutorType.EXECUTOR_SERVICE) {
+      executorService = Executors.newFixedThreadPool(POOL_SIZE);
+      executor = tracer.isInstrumented() ? new TracedExecutorService(executorService, benchmarkTracer)
+          : executorService;
+    } else {
+      taskExecutor = new ThreadPoolTaskExecutor();
+      taskExecutor.setCorePoolSize(POOL_SIZE);
+      if (tracer.isInstrumented()) {
+        taskExecutor.setTaskDecorator(new TracingTaskDecorator(benchmarkTracer));
+      }
+      taskExecutor.initialize();
+      executor = taskExecutor;
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    if (executorService != null) {
+      executorService.shutdown();
+    }
+    if (taskExecutor != null) {
+      taskExecutor.shutdown();
+    }
+  }
+
+  @Benchmark
+  public void fanOut(Blackhole blackhole) {
+    if (benchmarkTracer == null) {
+      join(blackhole);
+      return;
+    }
+    try (ActiveSpan span = benchmarkTracer.buildSpan("request").startActive()) {
+      join(blackhole);
+    }
+  }
+
+  private void join(Blackhole blackhole) {
+    CompletableFuture<?>[] futures = new CompletableFuture<?>[FAN_OUT];
+    for (int i = 0; i < FAN_OUT; i++) {
+      futures[i] = CompletableFuture.supplyAsync(task, executor);
+    }
+    blackhole.consume(CompletableFuture.allOf(futures).join());
+  }
+}
@@ -0,0 +1,70 @@
+package io.opentracing.contrib.spring.cloud.feign;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.opentracing.contrib.spring.cloud.BenchmarkContexts;
+import io.opentracing.contrib.spring.cloud.BenchmarkTracer;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cost of {@link FeignClientBeanPostProcessor} tracing a manually created client bean.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FeignTracingAspectBenchmark {
+
+  @Configuration
+  static class ClientConfiguration {
+    @Bean
+    public Client client() {
+      return new StubClient();
+    }
+  }
+
+  @Param({"NONE", "NOOP", "MOCK"})
+  public BenchmarkTracer tracer;
+
+  private ConfigurableApplicationContext context;
+  private Client client;
+  private Request request;
+  private Request.Options options;
+
+  @Setup
+  public void setup() {
+    context = BenchmarkContexts.create(tracer, FeignTracingAutoConfiguration.class, ClientConfiguration.class);
+    client = context.getBean(Client.class);
+    request = StubClient.request();
+    options = new Request.Options();
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public Response execute() throws IOException {
+    return client.execute(request, options);
+  }
+}
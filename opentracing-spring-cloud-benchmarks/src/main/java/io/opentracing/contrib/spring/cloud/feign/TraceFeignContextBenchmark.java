@@ -0,0 +1,86 @@
+package io.opentracing.contrib.spring.cloud.feign;
+
+import feign.Client;
+import io.opentracing.contrib.spring.cloud.BenchmarkTracer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cloud.netflix.feign.FeignContext;
+import org.springframework.cloud.netflix.feign.ribbon.CachingSpringLoadBalancerFactory;
+import org.springframework.cloud.netflix.feign.ribbon.LoadBalancerFeignClient;
+import org.springframework.cloud.netflix.ribbon.SpringClientFactory;
+
+/**
+ * Cost of {@link TraceFeignContext#getInstance} looking up the client of a Feign client specification.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TraceFeignContextBenchmark {
+
+  public enum ClientType {
+    DEFAULT,
+    LOAD_BALANCED
+  }
+
+  /**
+   * Feign context with a single client shared by all specifications
+   */
+  static class SingleClientFeignContext extends FeignContext {
+    private final Client client;
+
+    SingleClientFeignContext(Client client) {
+      this.client = client;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getInstance(String name, Class<T> type) {
+      return type.isInstance(client) ? (T) client : null;
+    }
+  }
+
+  @Param({"NONE", "NOOP", "MOCK"})
+  public BenchmarkTracer tracer;
+
+  @Param({"DEFAULT", "LOAD_BALANCED"})
+  public ClientType clientType;
+
+  private FeignContext feignContext;
+
+  @Setup
+  public void setup() {
+    SpringClientFactory springClientFactory = new SpringClientFactory();
+    CachingSpringLoadBalancerFactory loadBalancerFactory = new CachingSpringLoadBalancerFactory(springClientFactory);
+    DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+    beanFactory.registerSingleton("springClientFactory", springClientFactory);
+    beanFactory.registerSingleton("loadBalancerFactory", loadBalancerFactory);
+
+    Client client = new StubClient();
+    if (clientType == ClientType.LOAD_BALANCED) {
+      client = new LoadBalancerFeignClient(client, loadBalancerFactory, springClientFactory);
+    }
+    feignContext = new SingleClientFeignContext(client);
+    if (tracer.isInstrumented()) {
+      feignContext = new TraceFeignContext(tracer.create(), feignContext, beanFactory);
+    }
+  }
+
+  @Benchmark
+  public Client getInstance() {
+    return feignContext.getInstance("localService", Client.class);
+  }
+}
@@ -0,0 +1,74 @@
+package io.opentracing.contrib.spring.cloud.jdbc;
+
+import io.opentracing.contrib.spring.cloud.BenchmarkContexts;
+import io.opentracing.contrib.spring.cloud.BenchmarkTracer;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cost of {@link JdbcAspect#getConnection} on a pooled connection checkout, or of {@link TracingDataSource} with
+ * {@code opentracing.spring.cloud.jdbc.wrap-data-sources}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JdbcAspectBenchmark {
+
+  @Configuration
+  static class DataSourceConfiguration {
+    @Bean(destroyMethod = "dispose")
+    public JdbcConnectionPool dataSource() {
+      return JdbcConnectionPool.create("jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1", "sa", "");
+    }
+  }
+
+  @Param({"NONE", "NOOP", "MOCK"})
+  public BenchmarkTracer tracer;
+
+  @Param({"false", "true"})
+  public boolean wrapDataSources;
+
+  private ConfigurableApplicationContext context;
+  private DataSource dataSource;
+
+  @Setup
+  public void setup() {
+    // every parameter combination runs in its own fork
+    System.setProperty("opentracing.spring.cloud.jdbc.wrap-data-sources", String.valueOf(wrapDataSources));
+    context = BenchmarkContexts.create(tracer, JdbcAutoConfiguration.class, DataSourceConfiguration.class);
+    dataSource = context.getBean(DataSource.class);
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public Connection getConnection() throws SQLException {
+    Connection connection = dataSource.getConnection();
+    connection.close();
+    return connection;
+  }
+}
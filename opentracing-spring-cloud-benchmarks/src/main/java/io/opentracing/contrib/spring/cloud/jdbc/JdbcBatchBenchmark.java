@@ -0,0 +1,103 @@
+package io.opentracing.contrib.spring.cloud.jdbc;
+
+import io.opentracing.contrib.jdbc.TracingConnection;
+import io.opentracing.contrib.spring.cloud.BenchmarkTracer;
+import io.opentracing.contrib.spring.cloud.metrics.InstrumentationMetrics;
+import io.opentracing.util.GlobalTracer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of a statement batch of {@link #batchSize} updates, through a plain connection, {@link TracingConnection} and
+ * a connection with {@code opentracing.spring.cloud.jdbc.aggregate-batches}, and one with
+ * {@code opentracing.spring.cloud.jdbc.root-spans=false} outside of an active span. Spans are reported to a mock
+ * tracer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JdbcBatchBenchmark {
+
+  public enum ConnectionType {
+    NONE,
+    TRACING_CONNECTION,
+    AGGREGATED,
+    NO_ROOT_SPANS
+  }
+
+  @Param({"NONE", "TRACING_CONNECTION", "AGGREGATED", "NO_ROOT_SPANS"})
+  public ConnectionType connectionType;
+
+  @Param({"100", "10000"})
+  public int batchSize;
+
+  private Connection rawConnection;
+  private Connection connection;
+  private String[] updates;
+
+  @Setup
+  public void setup() throws SQLException {
+    // every parameter combination runs in its own fork
+    GlobalTracer.register(BenchmarkTracer.MOCK.create());
+    rawConnection = DriverManager.getConnection("jdbc:h2:mem:batch", "sa", "");
+    updates = new String[batchSize];
+    try (Statement statement = rawConnection.createStatement()) {
+      statement.execute("create table batch_test (id int primary key, name varchar(16))");
+      for (int i = 0; i < batchSize; i++) {
+        statement.addBatch("insert into batch_test values (" + i + ", 'name')");
+        updates[i] = "update batch_test set name = 'name" + i + "' where id = " + i;
+      }
+      statement.executeBatch();
+    }
+
+    ConnectionInfo connectionInfo = ConnectionInfo.of(rawConnection.getMetaData());
+    switch (connectionType) {
+      case TRACING_CONNECTION:
+        connection = new TracingConnection(rawConnection, connectionInfo.getDbType(), connectionInfo.getDbUser());
+        break;
+      case AGGREGATED:
+        connection = TracingConnectionHandler.wrap(rawConnection, connectionInfo,
+            new StatementTracer(GlobalTracer.get(), 0, true));
+        break;
+      case NO_ROOT_SPANS:
+        connection = TracingConnectionHandler.wrap(rawConnection, connectionInfo,
+            new StatementTracer(GlobalTracer.get(), 0, false, null, InstrumentationMetrics.disabled(), false));
+        break;
+      default:
+        connection = rawConnection;
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws SQLException {
+    rawConnection.close();
+  }
+
+  @Benchmark
+  public int[] executeBatch() throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      for (String update : updates) {
+        statement.addBatch(update);
+      }
+      return statement.executeBatch();
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package io.opentracing.contrib.spring.cloud.jms;
+
+import io.opentracing.contrib.spring.cloud.BenchmarkTracer;
+import io.opentracing.contrib.spring.cloud.sampling.SpanSampler;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.Session;
+import org.apache.activemq.artemis.api.core.TransportConfiguration;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.remoting.impl.invm.InVMAcceptorFactory;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.core.server.impl.ActiveMQServerImpl;
+import org.apache.activemq.artemis.jms.client.ActiveMQJMSConnectionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jms.connection.CachingConnectionFactory;
+import org.springframework.jms.core.MessageCreator;
+
+/**
+ * Messages sent per second by {@link SamplingJmsTemplate}, one {@code send} per message compared to
+ * {@link SamplingJmsTemplate#sendBatch} of {@link #BATCH_SIZE} messages. Messages are sent to a topic without
+ * subscribers of an in-vm Artemis server, through a {@link CachingConnectionFactory}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JmsBatchSendBenchmark {
+
+  static final int BATCH_SIZE = 100;
+
+  @Param({"NOOP", "MOCK"})
+  public BenchmarkTracer tracer;
+
+  private ActiveMQServer server;
+  private CachingConnectionFactory connectionFactory;
+  private SamplingJmsTemplate jmsTemplate;
+  private List<MessageCreator> messageCreators;
+
+  @Setup
+  public void setup() throws Exception {
+    org.apache.activemq.artemis.core.config.Configuration configuration = new ConfigurationImpl();
+    configuration.setAcceptorConfigurations(
+        Collections.singleton(new TransportConfiguration(InVMAcceptorFactory.class.getName())));
+    configuration.setSecurityEnabled(false);
+    configuration.setPersistenceEnabled(false);
+    configuration.setBrokerInstance(Files.createTempDirectory("artemis").toFile());
+    server = new ActiveMQServerImpl(configuration);
+    server.start();
+
+    connectionFactory = new CachingConnectionFactory(new ActiveMQJMSConnectionFactory("vm://0"));
+    jmsTemplate = new SamplingJmsTemplate(connectionFactory, tracer.create(), SpanSampler.always());
+    jmsTemplate.setPubSubDomain(true);
+    jmsTemplate.setDeliveryPersistent(false);
+
+    messageCreators = new ArrayList<>(BATCH_SIZE);
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      messageCreators.add(new MessageCreator() {
+        @Override
+        public Message createMessage(Session session) throws JMSException {
+          return session.createTextMessage("hello");
+        }
+      });
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    connectionFactory.destroy();
+    server.stop();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH_SIZE)
+  public void send() {
+    for (MessageCreator messageCreator : messageCreators) {
+      jmsTemplate.send("benchmark", messageCreator);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH_SIZE)
+  public void sendBatch() {
+    jmsTemplate.sendBatch("benchmark", messageCreators);
+  }
+}
@@ -0,0 +1,70 @@
+package io.opentracing.contrib.spring.cloud.jms;
+
+import io.opentracing.Span;
+import io.opentracing.SpanContext;
+import io.opentracing.contrib.jms.common.JmsTextMapExtractAdapter;
+import io.opentracing.contrib.jms.common.JmsTextMapInjectAdapter;
+import io.opentracing.mock.MockTracer;
+import io.opentracing.propagation.Format;
+import io.opentracing.util.ThreadLocalActiveSpanSource;
+import java.util.concurrent.TimeUnit;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import org.apache.activemq.artemis.core.client.impl.ClientMessageImpl;
+import org.apache.activemq.artemis.jms.client.ActiveMQMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of injecting a span context with a dashed baggage key into message properties and extracting it, through the
+ * adapters of the JMS instrumentation and through {@link ContextHeaders} and {@link MessageExtractAdapter}, which
+ * encode property names with {@link JmsPropertyNames}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JmsHeaderBenchmark {
+
+  private final MockTracer tracer = new MockTracer(new ThreadLocalActiveSpanSource(), MockTracer.Propagator.TEXT_MAP);
+  private final MessageExtractAdapter extractAdapter = new MessageExtractAdapter();
+  private SpanContext context;
+  private Message message;
+
+  @Setup
+  public void setup() throws JMSException {
+    Span span = tracer.buildSpan("jms-send").startManual();
+    span.setBaggageItem("tenant-id", "tenant");
+    context = span.context();
+    message = new ActiveMQMessage(new ClientMessageImpl(ActiveMQMessage.TYPE, false, 0, System.currentTimeMillis(),
+        (byte) 4, 1024), null);
+    message.clearProperties();
+  }
+
+  @Benchmark
+  public SpanContext adapters() {
+    tracer.inject(context, Format.Builtin.TEXT_MAP, new JmsTextMapInjectAdapter(message));
+    return tracer.extract(Format.Builtin.TEXT_MAP, new JmsTextMapExtractAdapter(message));
+  }
+
+  @Benchmark
+  public SpanContext propertyNames() throws JMSException {
+    ContextHeaders.inject(tracer, context).setProperties(message);
+    extractAdapter.setMessage(message);
+    try {
+      return tracer.extract(Format.Builtin.TEXT_MAP, extractAdapter);
+    } finally {
+      extractAdapter.setMessage(null);
+    }
+  }
+}
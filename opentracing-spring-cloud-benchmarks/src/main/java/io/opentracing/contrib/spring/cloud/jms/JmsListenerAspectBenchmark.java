@@ -0,0 +1,143 @@
+package io.opentracing.contrib.spring.cloud.jms;
+
+import io.opentracing.ActiveSpan;
+import io.opentracing.Tracer;
+import io.opentracing.contrib.jms.common.JmsTextMapInjectAdapter;
+import io.opentracing.contrib.spring.cloud.BenchmarkContexts;
+import io.opentracing.contrib.spring.cloud.BenchmarkTracer;
+import io.opentracing.propagation.Format;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import org.apache.activemq.artemis.core.client.impl.ClientMessageImpl;
+import org.apache.activemq.artemis.jms.client.ActiveMQMessage;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jms.annotation.JmsListener;
+
+/**
+ * Cost of {@link JmsListenerAspect#aroundListenerMethod} on a listener receiving a message sent from a traced producer.
+ * {@link #proceedOnly()} measures an aspect which only proceeds, the difference to {@link #onMessage()} is the cost of
+ * the tracing itself rather than of Spring AOP.
+ * <p>
+ * The producer did not sample its trace, which the listener follows only with
+ * {@code opentracing.spring.cloud.jms.propagated-sampling}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JmsListenerAspectBenchmark {
+
+  @Configuration
+  static class ListenerConfiguration {
+    @Bean
+    public MsgListener msgListener() {
+      return new MsgListener();
+    }
+
+    @Bean
+    public ProceedingAspect proceedingAspect() {
+      return new ProceedingAspect();
+    }
+  }
+
+  @Retention(RetentionPolicy.RUNTIME)
+  @Target(ElementType.METHOD)
+  public @interface ProceedOnly {
+  }
+
+  /**
+   * Same pointcut shape as {@link JmsListenerAspect}
+   */
+  @Aspect
+  public static class ProceedingAspect {
+    @Around("@annotation(io.opentracing.contrib.spring.cloud.jms.JmsListenerAspectBenchmark.ProceedOnly) && args(msg)")
+    public Object aroundProceedOnly(ProceedingJoinPoint pjp, Message msg) throws Throwable {
+      return pjp.proceed();
+    }
+  }
+
+  public static class MsgListener {
+    private Message lastMessage;
+
+    @JmsListener(destination = "benchmark")
+    public void onMessage(Message message) {
+      lastMessage = message;
+    }
+
+    @ProceedOnly
+    public void proceedOnly(Message message) {
+      lastMessage = message;
+    }
+  }
+
+  @Param({"NONE", "NOOP", "MOCK"})
+  public BenchmarkTracer tracer;
+
+  @Param({"false", "true"})
+  public boolean propagatedSampling;
+
+  private ConfigurableApplicationContext context;
+  private MsgListener listener;
+  private Message message;
+
+  @Setup
+  public void setup() throws JMSException {
+    // every parameter combination runs in its own fork
+    System.setProperty("opentracing.spring.cloud.jms.propagated-sampling", String.valueOf(propagatedSampling));
+    context = BenchmarkContexts.create(tracer, JmsAutoConfiguration.class, ListenerConfiguration.class);
+    listener = context.getBean(MsgListener.class);
+    message = new ActiveMQMessage(new ClientMessageImpl(ActiveMQMessage.TYPE, false, 0, System.currentTimeMillis(),
+        (byte) 4, 1024), null);
+    // makes the properties of the "received" message writable
+    message.clearProperties();
+    if (tracer.isInstrumented()) {
+      Tracer producerTracer = context.getBean(Tracer.class);
+      try (ActiveSpan span = producerTracer.buildSpan("jms-send").startActive()) {
+        producerTracer.inject(span.context(), Format.Builtin.TEXT_MAP, new JmsTextMapInjectAdapter(message));
+      }
+      // sampling decision of a Jaeger producer, not used by the benchmark tracers themselves
+      message.setStringProperty(JmsPropertyNames.encode("uber-trace-id"), "4bf92f3577b34da6:a3ce929d0e0e4736:0:0");
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public Message onMessage() {
+    listener.onMessage(message);
+    return listener.lastMessage;
+  }
+
+  @Benchmark
+  public Message proceedOnly() {
+    listener.proceedOnly(message);
+    return listener.lastMessage;
+  }
+}
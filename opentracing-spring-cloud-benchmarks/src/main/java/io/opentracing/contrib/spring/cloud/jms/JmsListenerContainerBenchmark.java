@@ -0,0 +1,172 @@
+package io.opentracing.contrib.spring.cloud.jms;
+
+import io.opentracing.ActiveSpan;
+import io.opentracing.Tracer;
+import io.opentracing.contrib.spring.cloud.BenchmarkContexts;
+import io.opentracing.contrib.spring.cloud.BenchmarkTracer;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.jms.ConnectionFactory;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.Session;
+import org.apache.activemq.artemis.api.core.TransportConfiguration;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.remoting.impl.invm.InVMAcceptorFactory;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.core.server.impl.ActiveMQServerImpl;
+import org.apache.activemq.artemis.jms.client.ActiveMQJMSConnectionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jms.annotation.EnableJms;
+import org.springframework.jms.annotation.JmsListener;
+import org.springframework.jms.config.DefaultJmsListenerContainerFactory;
+import org.springframework.jms.connection.CachingConnectionFactory;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.core.MessageCreator;
+
+/**
+ * Messages per second received by a {@link JmsListener} method with {@link #concurrency} consumers, traced by
+ * {@link JmsListenerAspect} or, with {@code opentracing.spring.cloud.jms.wrap-listener-containers}, by
+ * {@link TracedMessageListener}s. Messages carrying a span context are sent to a queue of an in-vm Artemis server by an
+ * untraced template, each invocation sends {@link #MESSAGES} messages and waits until all of them are received.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JmsListenerContainerBenchmark {
+
+  static final int MESSAGES = 1000;
+
+  @Configuration
+  @EnableJms
+  static class ListenerConfiguration {
+    @Bean
+    public ConnectionFactory connectionFactory() {
+      return new ActiveMQJMSConnectionFactory("vm://0");
+    }
+
+    @Bean
+    public DefaultJmsListenerContainerFactory jmsListenerContainerFactory(ConnectionFactory connectionFactory) {
+      DefaultJmsListenerContainerFactory factory = new DefaultJmsListenerContainerFactory();
+      factory.setConnectionFactory(connectionFactory);
+      factory.setConcurrency(System.getProperty("benchmark.concurrency"));
+      return factory;
+    }
+
+    @Bean
+    public MsgListener msgListener() {
+      return new MsgListener();
+    }
+  }
+
+  public static class MsgListener {
+    private volatile CountDownLatch received;
+
+    /**
+     * Not a field access, the listener is proxied by the aspect
+     */
+    public void setReceived(CountDownLatch received) {
+      this.received = received;
+    }
+
+    @JmsListener(destination = "benchmark")
+    public void onMessage(Message message) {
+      received.countDown();
+    }
+  }
+
+  @Param({"NONE", "NOOP", "MOCK"})
+  public BenchmarkTracer tracer;
+
+  @Param({"false", "true"})
+  public boolean wrapListenerContainers;
+
+  @Param({"4", "32"})
+  public String concurrency;
+
+  private ActiveMQServer server;
+  private ConfigurableApplicationContext context;
+  private CachingConnectionFactory producerConnectionFactory;
+  private JmsTemplate jmsTemplate;
+  private MsgListener listener;
+  private MessageCreator messageCreator;
+
+  @Setup
+  public void setup() throws Exception {
+    org.apache.activemq.artemis.core.config.Configuration configuration = new ConfigurationImpl();
+    configuration.setAcceptorConfigurations(
+        Collections.singleton(new TransportConfiguration(InVMAcceptorFactory.class.getName())));
+    configuration.setSecurityEnabled(false);
+    configuration.setPersistenceEnabled(false);
+    configuration.setBrokerInstance(Files.createTempDirectory("artemis").toFile());
+    server = new ActiveMQServerImpl(configuration);
+    server.start();
+
+    // every parameter combination runs in its own fork
+    System.setProperty("opentracing.spring.cloud.jms.wrap-listener-containers", String.valueOf(wrapListenerContainers));
+    System.setProperty("benchmark.concurrency", concurrency);
+    context = BenchmarkContexts.create(tracer, JmsAutoConfiguration.class, ListenerConfiguration.class);
+    listener = context.getBean(MsgListener.class);
+
+    producerConnectionFactory = new CachingConnectionFactory(new ActiveMQJMSConnectionFactory("vm://0"));
+    jmsTemplate = new JmsTemplate(producerConnectionFactory);
+    jmsTemplate.setDeliveryPersistent(false);
+    final ContextHeaders contextHeaders;
+    if (tracer.isInstrumented()) {
+      Tracer producerTracer = context.getBean(Tracer.class);
+      try (ActiveSpan span = producerTracer.buildSpan("jms-send").startActive()) {
+        contextHeaders = ContextHeaders.inject(producerTracer, span.context());
+      }
+    } else {
+      contextHeaders = null;
+    }
+    messageCreator = new MessageCreator() {
+      @Override
+      public Message createMessage(Session session) throws JMSException {
+        Message message = session.createTextMessage("hello");
+        if (contextHeaders != null) {
+          contextHeaders.setProperties(message);
+        }
+        return message;
+      }
+    };
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    context.close();
+    producerConnectionFactory.destroy();
+    server.stop();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(MESSAGES)
+  public void receive() throws InterruptedException {
+    CountDownLatch received = new CountDownLatch(MESSAGES);
+    listener.setReceived(received);
+    for (int i = 0; i < MESSAGES; i++) {
+      jmsTemplate.send("benchmark", messageCreator);
+    }
+    received.await();
+  }
+}
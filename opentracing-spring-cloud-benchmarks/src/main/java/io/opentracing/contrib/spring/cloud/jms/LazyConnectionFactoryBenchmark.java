@@ -0,0 +1,120 @@
+package io.opentracing.contrib.spring.cloud.jms;
+
+import io.opentracing.NoopTracerFactory;
+import io.opentracing.contrib.jms.spring.TracingJmsTemplate;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.JMSException;
+import org.apache.activemq.artemis.api.core.TransportConfiguration;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.remoting.impl.invm.InVMAcceptorFactory;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.core.server.impl.ActiveMQServerImpl;
+import org.apache.activemq.artemis.jms.client.ActiveMQJMSConnectionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.target.AbstractLazyCreationTargetSource;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.jms.connection.CachingConnectionFactory;
+
+/**
+ * Sends per second through the lazily resolved {@link ConnectionFactory} of the auto-configured
+ * {@link TracingJmsTemplate}, compared to the Spring AOP lazy target source proxy used before. Messages are sent to
+ * a topic without subscribers of an in-vm Artemis server, through a {@link CachingConnectionFactory}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class LazyConnectionFactoryBenchmark {
+
+  public enum ConnectionFactoryType {
+    /**
+     * Previous proxy based on {@link AbstractLazyCreationTargetSource}
+     */
+    AOP_PROXY,
+    /**
+     * {@link LazyConnectionFactory}
+     */
+    LAZY
+  }
+
+  @Param({"AOP_PROXY", "LAZY"})
+  public ConnectionFactoryType connectionFactory;
+
+  private ActiveMQServer server;
+  private CachingConnectionFactory cachingConnectionFactory;
+  private TracingJmsTemplate jmsTemplate;
+
+  @Setup
+  public void setup() throws Exception {
+    org.apache.activemq.artemis.core.config.Configuration configuration = new ConfigurationImpl();
+    configuration.setAcceptorConfigurations(
+        Collections.singleton(new TransportConfiguration(InVMAcceptorFactory.class.getName())));
+    configuration.setSecurityEnabled(false);
+    configuration.setPersistenceEnabled(false);
+    configuration.setBrokerInstance(Files.createTempDirectory("artemis").toFile());
+    server = new ActiveMQServerImpl(configuration);
+    server.start();
+
+    cachingConnectionFactory = new CachingConnectionFactory(new ActiveMQJMSConnectionFactory("vm://0"));
+    cachingConnectionFactory.setSessionCacheSize(Runtime.getRuntime().availableProcessors());
+    DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+    beanFactory.registerSingleton("connectionFactory", cachingConnectionFactory);
+
+    ConnectionFactory lazyConnectionFactory = connectionFactory == ConnectionFactoryType.AOP_PROXY
+        ? createAopProxy(beanFactory) : new LazyConnectionFactory(beanFactory);
+    jmsTemplate = new TracingJmsTemplate(lazyConnectionFactory, NoopTracerFactory.create());
+    jmsTemplate.setPubSubDomain(true);
+    jmsTemplate.setDeliveryPersistent(false);
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    cachingConnectionFactory.destroy();
+    server.stop();
+  }
+
+  @Benchmark
+  public void convertAndSend() {
+    jmsTemplate.convertAndSend("benchmark", "hello");
+  }
+
+  @Benchmark
+  public Connection createConnection() throws JMSException {
+    return jmsTemplate.getConnectionFactory().createConnection();
+  }
+
+  private static ConnectionFactory createAopProxy(final BeanFactory beanFactory) {
+    return (ConnectionFactory) ProxyFactory.getProxy(new AbstractLazyCreationTargetSource() {
+      @Override
+      public synchronized Class<?> getTargetClass() {
+        return ConnectionFactory.class;
+      }
+
+      @Override
+      protected Object createObject() throws Exception {
+        return beanFactory.getBean(ConnectionFactory.class);
+      }
+    });
+  }
+}
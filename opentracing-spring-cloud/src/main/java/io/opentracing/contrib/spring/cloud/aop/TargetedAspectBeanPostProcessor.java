@@ -0,0 +1,112 @@
+package io.opentracing.contrib.spring.cloud.aop;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.aop.config.AopConfigUtils;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.AopInfrastructureBean;
+import org.springframework.aop.framework.ProxyConfig;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.framework.ProxyProcessorSupport;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+
+/**
+ * Applies an aspect only to the beans accepted by {@link #isEligible(Class)}, instead of registering the aspect as a
+ * bean, where the auto proxy creator would match its pointcut against every method of every bean. The pointcut is
+ * matched only against eligible beans. Beans which are already proxies get the advisors of the aspect added, other
+ * beans are proxied with the proxy-target-class setting of the auto proxy creator, if there is one.
+ * <p>
+ * The aspect is created when the first eligible bean is post processed, post processors are created before the
+ * beans the aspect depends on. Post processors run before the ones of the default order, so that e.g.
+ * {@link org.springframework.jms.annotation.JmsListenerAnnotationBeanPostProcessor} registers the proxies.
+ */
+public abstract class TargetedAspectBeanPostProcessor extends ProxyProcessorSupport
+    implements BeanPostProcessor, BeanFactoryAware {
+
+  private BeanFactory beanFactory;
+  private volatile Object aspect;
+
+  protected TargetedAspectBeanPostProcessor() {
+    setOrder(Ordered.LOWEST_PRECEDENCE - 1);
+  }
+
+  @Override
+  public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+    this.beanFactory = beanFactory;
+  }
+
+  protected BeanFactory getBeanFactory() {
+    return beanFactory;
+  }
+
+  /**
+   * @return whether the aspect may apply to beans of the given class, must be cheap
+   */
+  protected abstract boolean isEligible(Class<?> targetClass);
+
+  /**
+   * @return aspect instance, called once
+   */
+  protected abstract Object createAspect();
+
+  @Override
+  public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+    return bean;
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+    if (bean instanceof AopInfrastructureBean || !isEligible(AopUtils.getTargetClass(bean))) {
+      return bean;
+    }
+    // matches the pointcut against the class of the bean only
+    AspectJProxyFactory aspectProxyFactory = new AspectJProxyFactory(bean);
+    aspectProxyFactory.addAspect(getAspect());
+    Advisor[] advisors = aspectProxyFactory.getAdvisors();
+    if (bean instanceof Advised && !((Advised) bean).isFrozen()) {
+      Advised advised = (Advised) bean;
+      for (Advisor advisor : advisors) {
+        if (advised.indexOf(advisor) < 0) {
+          advised.addAdvisor(advisor);
+        }
+      }
+      return bean;
+    }
+    if (advisors.length == 0) {
+      return bean;
+    }
+    ProxyFactory proxyFactory = new ProxyFactory();
+    proxyFactory.copyFrom(this);
+    proxyFactory.setTarget(bean);
+    proxyFactory.addAdvisors(advisors);
+    if (!proxyFactory.isProxyTargetClass()) {
+      evaluateProxyInterfaces(bean.getClass(), proxyFactory);
+    }
+    return proxyFactory.getProxy(getProxyClassLoader());
+  }
+
+  private Object getAspect() {
+    Object result = aspect;
+    if (result == null) {
+      synchronized (this) {
+        result = aspect;
+        if (result == null) {
+          if (beanFactory.containsBean(AopConfigUtils.AUTO_PROXY_CREATOR_BEAN_NAME)) {
+            Object autoProxyCreator = beanFactory.getBean(AopConfigUtils.AUTO_PROXY_CREATOR_BEAN_NAME);
+            if (autoProxyCreator instanceof ProxyConfig) {
+              copyFrom((ProxyConfig) autoProxyCreator);
+            }
+          }
+          result = createAspect();
+          aspect = result;
+        }
+      }
+    }
+    return result;
+  }
+}
@@ -0,0 +1,20 @@
+package io.opentracing.contrib.spring.cloud.concurrent;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Continues the active span in tasks of {@link java.util.concurrent.ExecutorService} and Spring task executor beans,
+ * if enabled.
+ */
+@Configuration
+@ConditionalOnProperty(name = "opentracing.spring.cloud.executor.enabled", havingValue = "true")
+public class ExecutorTracingAutoConfiguration {
+
+  @Bean
+  public static TracedExecutorBeanPostProcessor tracedExecutorBeanPostProcessor(BeanFactory beanFactory) {
+    return new TracedExecutorBeanPostProcessor(beanFactory);
+  }
+}
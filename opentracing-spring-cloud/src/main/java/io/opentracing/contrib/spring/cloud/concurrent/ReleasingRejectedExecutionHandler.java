@@ -0,0 +1,29 @@
+package io.opentracing.contrib.spring.cloud.concurrent;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Releases continuations of rejected tasks decorated by {@link TracingTaskDecorator}, so that their spans finish.
+ * Tasks run by the caller, e.g. by {@link ThreadPoolExecutor.CallerRunsPolicy}, have already used their
+ * continuations.
+ */
+final class ReleasingRejectedExecutionHandler implements RejectedExecutionHandler {
+
+  private final RejectedExecutionHandler delegate;
+
+  ReleasingRejectedExecutionHandler(RejectedExecutionHandler delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+    try {
+      delegate.rejectedExecution(runnable, executor);
+    } finally {
+      if (runnable instanceof TracedRunnable) {
+        ((TracedRunnable) runnable).release();
+      }
+    }
+  }
+}
@@ -0,0 +1,39 @@
+package io.opentracing.contrib.spring.cloud.concurrent;
+
+import io.opentracing.ActiveSpan;
+import io.opentracing.ActiveSpan.Continuation;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link Callable} variant of {@link TracedRunnable}.
+ */
+final class TracedCallable<T> extends AtomicBoolean implements Callable<T> {
+
+  private final Callable<T> delegate;
+  private final Continuation continuation;
+
+  TracedCallable(Callable<T> delegate, Continuation continuation) {
+    this.delegate = delegate;
+    this.continuation = continuation;
+  }
+
+  @Override
+  public T call() throws Exception {
+    if (!compareAndSet(false, true)) {
+      return delegate.call();
+    }
+    try (ActiveSpan activeSpan = continuation.activate()) {
+      return delegate.call();
+    }
+  }
+
+  /**
+   * Releases the continuation if the task did not run yet
+   */
+  void release() {
+    if (compareAndSet(false, true)) {
+      continuation.activate().deactivate();
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package io.opentracing.contrib.spring.cloud.concurrent;
+
+import io.opentracing.Tracer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Decorates {@link ExecutorService} beans with {@link TracedExecutorService}, and sets a {@link TracingTaskDecorator}
+ * on {@link ThreadPoolTaskExecutor} and {@link SimpleAsyncTaskExecutor} beans. The tracer is looked up when the first
+ * executor is decorated. {@link ScheduledExecutorService}s are left as they are, the decorator would hide their
+ * interface.
+ * <p>
+ * Task decorators are set before the executors are initialized, {@link ThreadPoolTaskExecutor}s initialized in their
+ * bean methods are left as they are. A decorator set in the bean method is replaced, it cannot be read to be wrapped.
+ * The rejected execution handler of the initialized thread pool is wrapped to release the spans of rejected tasks.
+ */
+public class TracedExecutorBeanPostProcessor implements BeanPostProcessor {
+
+  private final BeanFactory beanFactory;
+
+  TracedExecutorBeanPostProcessor(BeanFactory beanFactory) {
+    this.beanFactory = beanFactory;
+  }
+
+  @Override
+  public Object postProcessBeforeInitialization(Object bean, String name) throws BeansException {
+    if (bean instanceof ThreadPoolTaskExecutor) {
+      ThreadPoolTaskExecutor executor = (ThreadPoolTaskExecutor) bean;
+      if (threadPool(executor) == null) {
+        executor.setTaskDecorator(new TracingTaskDecorator(beanFactory.getBean(Tracer.class)));
+      }
+    } else if (bean instanceof SimpleAsyncTaskExecutor) {
+      ((SimpleAsyncTaskExecutor) bean).setTaskDecorator(new TracingTaskDecorator(beanFactory.getBean(Tracer.class)));
+    }
+    return bean;
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String name) throws BeansException {
+    if (bean instanceof ThreadPoolTaskExecutor) {
+      ThreadPoolExecutor threadPool = threadPool((ThreadPoolTaskExecutor) bean);
+      RejectedExecutionHandler handler = threadPool != null ? threadPool.getRejectedExecutionHandler() : null;
+      if (handler != null && !(handler instanceof ReleasingRejectedExecutionHandler)) {
+        threadPool.setRejectedExecutionHandler(new ReleasingRejectedExecutionHandler(handler));
+      }
+    } else if (bean instanceof ExecutorService && !(bean instanceof ScheduledExecutorService)
+        && !(bean instanceof TracedExecutorService)) {
+      return new TracedExecutorService((ExecutorService) bean, beanFactory.getBean(Tracer.class));
+    }
+    return bean;
+  }
+
+  /**
+   * @return thread pool of the executor, null if not initialized
+   */
+  private static ThreadPoolExecutor threadPool(ThreadPoolTaskExecutor executor) {
+    try {
+      return executor.getThreadPoolExecutor();
+    } catch (IllegalStateException ex) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,211 @@
+package io.opentracing.contrib.spring.cloud.concurrent;
+
+import io.opentracing.ActiveSpan;
+import io.opentracing.ActiveSpan.Continuation;
+import io.opentracing.Tracer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link ExecutorService} continuing the active span of the submitting thread in its tasks. The span is captured as a
+ * {@link Continuation}, so that it is not finished before the tasks are done, and activated only for the duration of
+ * the task. Nothing is kept per worker thread, which makes it suitable for executors creating a virtual thread per
+ * task. Tasks submitted without an active span are passed to the delegate as they are.
+ * <p>
+ * Continuations of tasks which will not run are released, so that their spans finish: of rejected tasks, of tasks
+ * cancelled before they started and of tasks returned by {@link #shutdownNow()}. Submitted tasks are therefore
+ * executed by the delegate as futures created here, not by its own {@code submit}.
+ */
+public class TracedExecutorService implements ExecutorService {
+
+  private final ExecutorService delegate;
+  private final Tracer tracer;
+
+  public TracedExecutorService(ExecutorService delegate, Tracer tracer) {
+    this.delegate = delegate;
+    this.tracer = tracer;
+  }
+
+  public ExecutorService getDelegate() {
+    return delegate;
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    Continuation continuation = capture();
+    if (continuation == null) {
+      delegate.execute(command);
+      return;
+    }
+    TracedRunnable task = new TracedRunnable(command, continuation);
+    try {
+      delegate.execute(task);
+    } catch (RejectedExecutionException ex) {
+      task.release();
+      throw ex;
+    }
+  }
+
+  @Override
+  public Future<?> submit(Runnable task) {
+    Continuation continuation = capture();
+    if (continuation == null) {
+      return delegate.submit(task);
+    }
+    return submit(new TracedCallable<>(Executors.callable(task), continuation));
+  }
+
+  @Override
+  public <T> Future<T> submit(Runnable task, T result) {
+    Continuation continuation = capture();
+    if (continuation == null) {
+      return delegate.submit(task, result);
+    }
+    return submit(new TracedCallable<>(Executors.callable(task, result), continuation));
+  }
+
+  @Override
+  public <T> Future<T> submit(Callable<T> task) {
+    Continuation continuation = capture();
+    if (continuation == null) {
+      return delegate.submit(task);
+    }
+    return submit(new TracedCallable<>(task, continuation));
+  }
+
+  @Override
+  public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
+    List<TracedCallable<T>> wrapped = wrap(tasks);
+    try {
+      return delegate.invokeAll(wrapped != null ? wrapped : tasks);
+    } finally {
+      release(wrapped);
+    }
+  }
+
+  @Override
+  public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+      throws InterruptedException {
+    List<TracedCallable<T>> wrapped = wrap(tasks);
+    try {
+      return delegate.invokeAll(wrapped != null ? wrapped : tasks, timeout, unit);
+    } finally {
+      release(wrapped);
+    }
+  }
+
+  @Override
+  public <T> T invokeAny(Collection<? extends Callable<T>> tasks) throws InterruptedException, ExecutionException {
+    List<TracedCallable<T>> wrapped = wrap(tasks);
+    try {
+      return delegate.invokeAny(wrapped != null ? wrapped : tasks);
+    } finally {
+      release(wrapped);
+    }
+  }
+
+  @Override
+  public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+      throws InterruptedException, ExecutionException, TimeoutException {
+    List<TracedCallable<T>> wrapped = wrap(tasks);
+    try {
+      return delegate.invokeAny(wrapped != null ? wrapped : tasks, timeout, unit);
+    } finally {
+      release(wrapped);
+    }
+  }
+
+  @Override
+  public void shutdown() {
+    delegate.shutdown();
+  }
+
+  /**
+   * Releases the continuations of the tasks which never ran
+   */
+  @Override
+  public List<Runnable> shutdownNow() {
+    List<Runnable> tasks = delegate.shutdownNow();
+    for (Runnable task : tasks) {
+      if (task instanceof TracedRunnable) {
+        ((TracedRunnable) task).release();
+      } else if (task instanceof TracedFutureTask) {
+        ((TracedFutureTask<?>) task).release();
+      }
+    }
+    return tasks;
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return delegate.isShutdown();
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return delegate.isTerminated();
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    return delegate.awaitTermination(timeout, unit);
+  }
+
+  /**
+   * Executes the task as a future created here, whose cancellation releases the continuation
+   */
+  private <T> Future<T> submit(TracedCallable<T> task) {
+    TracedFutureTask<T> future = new TracedFutureTask<>(task);
+    try {
+      delegate.execute(future);
+    } catch (RejectedExecutionException ex) {
+      task.release();
+      throw ex;
+    }
+    return future;
+  }
+
+  /**
+   * @return continuation of the active span, null if there is none
+   */
+  private Continuation capture() {
+    ActiveSpan activeSpan = tracer.activeSpan();
+    return activeSpan != null ? activeSpan.capture() : null;
+  }
+
+  /**
+   * @return tasks continuing the active span, null if there is none
+   */
+  private <T> List<TracedCallable<T>> wrap(Collection<? extends Callable<T>> tasks) {
+    ActiveSpan activeSpan = tracer.activeSpan();
+    if (activeSpan == null) {
+      return null;
+    }
+    List<TracedCallable<T>> wrapped = new ArrayList<>(tasks.size());
+    for (Callable<T> task : tasks) {
+      wrapped.add(new TracedCallable<>(task, activeSpan.capture()));
+    }
+    return wrapped;
+  }
+
+  /**
+   * Invoked tasks cancelled before they started never activate their continuations, so they are released when the
+   * invocation returns
+   */
+  private static <T> void release(List<TracedCallable<T>> tasks) {
+    if (tasks != null) {
+      for (TracedCallable<T> task : tasks) {
+        task.release();
+      }
+    }
+  }
+}
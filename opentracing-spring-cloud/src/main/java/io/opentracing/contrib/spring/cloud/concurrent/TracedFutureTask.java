@@ -0,0 +1,30 @@
+package io.opentracing.contrib.spring.cloud.concurrent;
+
+import java.util.concurrent.FutureTask;
+
+/**
+ * Future of a task submitted to {@link TracedExecutorService}. It is passed to the delegate instead of letting it
+ * create its own future, so that a task cancelled before it runs releases its continuation, and so that tasks drained
+ * by {@link TracedExecutorService#shutdownNow()} can be released.
+ */
+final class TracedFutureTask<T> extends FutureTask<T> {
+
+  private final TracedCallable<T> task;
+
+  TracedFutureTask(TracedCallable<T> task) {
+    super(task);
+    this.task = task;
+  }
+
+  /**
+   * Invoked when the task completes or is cancelled, the continuation is released only if the task did not run
+   */
+  @Override
+  protected void done() {
+    task.release();
+  }
+
+  void release() {
+    task.release();
+  }
+}
@@ -0,0 +1,41 @@
+package io.opentracing.contrib.spring.cloud.concurrent;
+
+import io.opentracing.ActiveSpan;
+import io.opentracing.ActiveSpan.Continuation;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Task activating a captured continuation while it runs. Either the task or {@link #release()} claims the
+ * continuation, so that a task which will not run does not keep its span unfinished. It extends the flag to avoid
+ * allocating it per task.
+ */
+final class TracedRunnable extends AtomicBoolean implements Runnable {
+
+  private final Runnable delegate;
+  private final Continuation continuation;
+
+  TracedRunnable(Runnable delegate, Continuation continuation) {
+    this.delegate = delegate;
+    this.continuation = continuation;
+  }
+
+  @Override
+  public void run() {
+    if (!compareAndSet(false, true)) {
+      delegate.run();
+      return;
+    }
+    try (ActiveSpan activeSpan = continuation.activate()) {
+      delegate.run();
+    }
+  }
+
+  /**
+   * Releases the continuation if the task did not run yet
+   */
+  void release() {
+    if (compareAndSet(false, true)) {
+      continuation.activate().deactivate();
+    }
+  }
+}
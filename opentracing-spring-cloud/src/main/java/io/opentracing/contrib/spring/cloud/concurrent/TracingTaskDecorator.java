@@ -0,0 +1,36 @@
+package io.opentracing.contrib.spring.cloud.concurrent;
+
+import io.opentracing.ActiveSpan;
+import io.opentracing.Tracer;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * {@link TaskDecorator} continuing the active span of the submitting thread in the task, e.g. for
+ * {@link org.springframework.scheduling.annotation.Async} methods run by a
+ * {@link org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor}. Each task is wrapped by a single object
+ * holding the captured continuation, tasks submitted without an active span are returned as they are.
+ */
+public class TracingTaskDecorator implements TaskDecorator {
+
+  private final Tracer tracer;
+  private final TaskDecorator delegate;
+
+  public TracingTaskDecorator(Tracer tracer) {
+    this(tracer, null);
+  }
+
+  /**
+   * @param delegate decorator applied before continuing the span, null if none
+   */
+  public TracingTaskDecorator(Tracer tracer, TaskDecorator delegate) {
+    this.tracer = tracer;
+    this.delegate = delegate;
+  }
+
+  @Override
+  public Runnable decorate(Runnable runnable) {
+    Runnable decorated = delegate != null ? delegate.decorate(runnable) : runnable;
+    ActiveSpan activeSpan = tracer.activeSpan();
+    return activeSpan != null ? new TracedRunnable(decorated, activeSpan.capture()) : decorated;
+  }
+}
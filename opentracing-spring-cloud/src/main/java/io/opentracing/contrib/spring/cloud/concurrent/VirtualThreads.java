@@ -0,0 +1,55 @@
+package io.opentracing.contrib.spring.cloud.concurrent;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Detects virtual threads on Java versions which have them, the method is looked up reflectively so that the module
+ * still runs on Java 8. Integrations use it to avoid caching state per thread, which does not pay off for threads
+ * created per task.
+ */
+public final class VirtualThreads {
+
+  /**
+   * {@code Thread.isVirtual()}, null if not available
+   */
+  private static final MethodHandle IS_VIRTUAL = isVirtualHandle();
+
+  private VirtualThreads() {
+  }
+
+  /**
+   * @return whether virtual threads are supported by the running JVM
+   */
+  public static boolean isSupported() {
+    return IS_VIRTUAL != null;
+  }
+
+  /**
+   * @return whether the current thread is a virtual thread
+   */
+  public static boolean isCurrentThreadVirtual() {
+    return isVirtual(Thread.currentThread());
+  }
+
+  public static boolean isVirtual(Thread thread) {
+    if (IS_VIRTUAL == null) {
+      return false;
+    }
+    try {
+      return (boolean) IS_VIRTUAL.invokeExact(thread);
+    } catch (Throwable ex) {
+      return false;
+    }
+  }
+
+  private static MethodHandle isVirtualHandle() {
+    try {
+      return MethodHandles.publicLookup()
+          .findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+    } catch (NoSuchMethodException | IllegalAccessException ex) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,33 @@
+package io.opentracing.contrib.spring.cloud.feign;
+
+import feign.Client;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Traces {@link Client} beans, e.g. injected into manually built Feign clients. Load balancing clients are replaced by
+ * traced load balancing clients, so that they keep their type. Other clients are replaced by a
+ * {@link feign.opentracing.TracingClient} or {@link SamplingClient} wrapping them, which hides their class: inject them
+ * as {@link Client}, injection by a concrete type such as {@link Client.Default} or {@code ApacheHttpClient} fails.
+ */
+public class FeignClientBeanPostProcessor implements BeanPostProcessor {
+
+  private final FeignClientTracer clientTracer;
+
+  FeignClientBeanPostProcessor(FeignClientTracer clientTracer) {
+    this.clientTracer = clientTracer;
+  }
+
+  @Override
+  public Object postProcessBeforeInitialization(Object bean, String name) throws BeansException {
+    return bean;
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String name) throws BeansException {
+    if (bean instanceof Client) {
+      return clientTracer.trace(bean);
+    }
+    return bean;
+  }
+}
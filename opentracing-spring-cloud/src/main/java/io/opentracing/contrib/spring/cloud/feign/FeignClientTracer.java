@@ -0,0 +1,50 @@
+package io.opentracing.contrib.spring.cloud.feign;
+
+import io.opentracing.Tracer;
+import io.opentracing.contrib.spring.cloud.metrics.InstrumentationMetrics;
+import io.opentracing.contrib.spring.cloud.sampling.SpanSampler;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.cloud.netflix.feign.FeignContext;
+
+/**
+ * Wraps Feign contexts and clients for {@link FeignContextBeanPostProcessor} and {@link FeignClientBeanPostProcessor},
+ * with one sampler, so that the rate limit applies to all Feign requests. The tracer, settings and metrics are looked
+ * up when the first bean is wrapped, post processors are created before configuration properties can be bound.
+ */
+final class FeignClientTracer {
+
+  private final BeanFactory beanFactory;
+  private volatile Tracer tracer;
+  private SpanSampler sampler;
+  private InstrumentationMetrics metrics;
+
+  FeignClientTracer(BeanFactory beanFactory) {
+    this.beanFactory = beanFactory;
+  }
+
+  TraceFeignContext trace(FeignContext feignContext) {
+    init();
+    return new TraceFeignContext(tracer, feignContext, beanFactory, sampler, metrics);
+  }
+
+  /**
+   * @return tracing client, or the given one if it is already traced
+   */
+  Object trace(Object client) {
+    init();
+    return TraceFeignContext.addTracingClient(client, tracer, beanFactory, sampler, metrics);
+  }
+
+  private void init() {
+    if (tracer == null) {
+      synchronized (this) {
+        if (tracer == null) {
+          FeignTracingProperties feignTracingProperties = beanFactory.getBean(FeignTracingProperties.class);
+          sampler = feignTracingProperties.createSampler();
+          metrics = beanFactory.getBean("feignInstrumentationMetrics", InstrumentationMetrics.class);
+          tracer = beanFactory.getBean(Tracer.class);
+        }
+      }
+    }
+  }
+}
@@ -1,40 +1,61 @@
 package io.opentracing.contrib.spring.cloud.feign;
 
 import feign.Client;
-import feign.Request;
 import feign.opentracing.TracingClient;
 import feign.opentracing.hystrix.TracingConcurrencyStrategy;
 import io.opentracing.Tracer;
-import org.aspectj.lang.ProceedingJoinPoint;
-import org.aspectj.lang.annotation.Around;
-import org.aspectj.lang.annotation.Aspect;
+import io.opentracing.contrib.spring.cloud.metrics.InstrumentationMetrics;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.boot.autoconfigure.AutoConfigureBefore;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.netflix.feign.FeignAutoConfiguration;
+import org.springframework.cloud.netflix.feign.FeignContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
 
 /**
+ * Traces the clients of the Feign context, and client beans, e.g. injected into manually built Feign clients, by post
+ * processors instead of an aspect matched against every bean.
+ *
  * @author Pavol Loffay
  * @author Eddú Meléndez
  */
 @Configuration
-@ConditionalOnClass(Client.class)
+@ConditionalOnClass({Client.class, TracingClient.class, FeignContext.class})
 @ConditionalOnBean(Tracer.class)
 @AutoConfigureBefore(FeignAutoConfiguration.class)
 @ConditionalOnProperty(name = "opentracing.spring.cloud.feign.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(FeignTracingProperties.class)
 public class FeignTracingAutoConfiguration {
 
-  @Autowired
-  private Tracer tracer;
+  @Bean
+  @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+  static FeignClientTracer feignClientTracer(BeanFactory beanFactory) {
+    return new FeignClientTracer(beanFactory);
+  }
+
+  @Bean
+  static FeignContextBeanPostProcessor feignContextBeanPostProcessor(FeignClientTracer feignClientTracer) {
+    return new FeignContextBeanPostProcessor(feignClientTracer);
+  }
+
+  /**
+   * Trace feign clients created manually
+   */
+  @Bean
+  static FeignClientBeanPostProcessor feignClientBeanPostProcessor(FeignClientTracer feignClientTracer) {
+    return new FeignClientBeanPostProcessor(feignClientTracer);
+  }
 
   @Bean
-  FeignContextBeanPostProcessor feignContextBeanPostProcessor(BeanFactory beanFactory) {
-    return new FeignContextBeanPostProcessor(tracer, beanFactory);
+  public InstrumentationMetrics feignInstrumentationMetrics(FeignTracingProperties feignTracingProperties) {
+    return feignTracingProperties.createMetrics("feign");
   }
 
   @Configuration
@@ -46,25 +67,4 @@ public class FeignTracingAutoConfiguration {
       TracingConcurrencyStrategy.register(tracer);
     }
   }
-
-  @Bean
-  public TracingAspect tracingAspect() {
-    return new TracingAspect();
-  }
-
-  /**
-   * Trace feign clients created manually
-   */
-  @Aspect
-  class TracingAspect {
-    @Around("execution (* feign.Client.*(..)) && !within(is(FinalType))")
-    public Object feignClientWasCalled(final ProceedingJoinPoint pjp) throws Throwable {
-      Object bean = pjp.getTarget();
-      if (!(bean instanceof TracingClient)) {
-        Object[] args = pjp.getArgs();
-        return new TracingClient((Client) bean, tracer).execute((Request) args[0], (Request.Options) args[1]);
-      }
-      return pjp.proceed();
-    }
-  }
 }
@@ -0,0 +1,11 @@
+package io.opentracing.contrib.spring.cloud.feign;
+
+import io.opentracing.contrib.spring.cloud.sampling.SamplingProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the Feign integration.
+ */
+@ConfigurationProperties("opentracing.spring.cloud.feign")
+public class FeignTracingProperties extends SamplingProperties {
+}
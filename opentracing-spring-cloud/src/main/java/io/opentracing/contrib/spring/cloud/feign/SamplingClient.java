@@ -0,0 +1,91 @@
+package io.opentracing.contrib.spring.cloud.feign;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.opentracing.TracingClient;
+import io.opentracing.ActiveSpan;
+import io.opentracing.Tracer;
+import io.opentracing.contrib.spring.cloud.metrics.InstrumentationMetrics;
+import io.opentracing.contrib.spring.cloud.sampling.SpanSampler;
+import io.opentracing.propagation.Format;
+import io.opentracing.propagation.TextMap;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Client which traces only sampled requests, others are executed directly by the delegate. Unsampled requests still
+ * carry the context of the active span, so that the called service continues the trace instead of starting a new one.
+ */
+final class SamplingClient implements Client {
+
+  private final Client delegate;
+  private final Tracer tracer;
+  private final TracingClient tracingClient;
+  private final SpanSampler sampler;
+  private final InstrumentationMetrics metrics;
+
+  private SamplingClient(Client delegate, Tracer tracer, SpanSampler sampler, InstrumentationMetrics metrics) {
+    this.delegate = delegate;
+    this.tracer = tracer;
+    this.tracingClient = new TracingClient(delegate, tracer);
+    this.sampler = sampler;
+    this.metrics = metrics;
+  }
+
+  /**
+   * @return {@link TracingClient} if every request is sampled, otherwise {@link SamplingClient}
+   */
+  static Client wrap(Client delegate, Tracer tracer, SpanSampler sampler, InstrumentationMetrics metrics) {
+    if (sampler.isAlwaysSampled()) {
+      return new TracingClient(delegate, tracer);
+    }
+    return new SamplingClient(delegate, tracer, sampler, metrics);
+  }
+
+  @Override
+  public Response execute(Request request, Request.Options options) throws IOException {
+    if (sampler.isSampled()) {
+      return tracingClient.execute(request, options);
+    }
+    metrics.spanUnsampled();
+    ActiveSpan activeSpan = tracer.activeSpan();
+    if (activeSpan == null) {
+      return delegate.execute(request, options);
+    }
+    return delegate.execute(inject(activeSpan, request), options);
+  }
+
+  /**
+   * @return copy of the request with the context of the given span in its headers, like {@link TracingClient} does
+   */
+  private Request inject(ActiveSpan activeSpan, Request request) {
+    Map<String, Collection<String>> headers = new HashMap<>(request.headers());
+    tracer.inject(activeSpan.context(), Format.Builtin.HTTP_HEADERS, new HeadersInjectAdapter(headers));
+    return Request.create(request.method(), request.url(), headers, request.body(), request.charset());
+  }
+
+  private static final class HeadersInjectAdapter implements TextMap {
+    private final Map<String, Collection<String>> headers;
+
+    HeadersInjectAdapter(Map<String, Collection<String>> headers) {
+      this.headers = headers;
+    }
+
+    @Override
+    public void put(String key, String value) {
+      Collection<String> values = new ArrayList<>(1);
+      values.add(value);
+      headers.put(key, values);
+    }
+
+    @Override
+    public Iterator<Map.Entry<String, String>> iterator() {
+      throw new UnsupportedOperationException("HeadersInjectAdapter should only be used with Tracer.inject()");
+    }
+  }
+}
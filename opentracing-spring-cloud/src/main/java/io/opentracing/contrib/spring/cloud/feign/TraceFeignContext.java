@@ -3,59 +3,154 @@ package io.opentracing.contrib.spring.cloud.feign;
 import feign.Client;
 import feign.opentracing.TracingClient;
 import io.opentracing.Tracer;
+import io.opentracing.contrib.spring.cloud.metrics.InstrumentationMetrics;
+import io.opentracing.contrib.spring.cloud.sampling.SpanSampler;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.cloud.netflix.feign.FeignContext;
 import org.springframework.cloud.netflix.feign.ribbon.CachingSpringLoadBalancerFactory;
 import org.springframework.cloud.netflix.feign.ribbon.LoadBalancerFeignClient;
 import org.springframework.cloud.netflix.ribbon.SpringClientFactory;
+import org.springframework.context.ApplicationContext;
 
 /**
  * @author Pavol Loffay
  */
 public class TraceFeignContext extends FeignContext {
 
-  private FeignContext delegate;
-  private Tracer tracer;
-  private BeanFactory beanFactory;
+  private final FeignContext delegate;
+  private final Tracer tracer;
+  private final BeanFactory beanFactory;
+  private final SpanSampler sampler;
+  private final InstrumentationMetrics metrics;
+
+  /**
+   * Results of lookups which returned clients, per context name and type. Other beans, e.g. prototype scoped
+   * {@link feign.Feign.Builder}, are not memoized and always come from the delegate.
+   */
+  private final ConcurrentMap<String, ConcurrentMap<Class<?>, Object>> tracedInstances = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, ConcurrentMap<Class<?>, Map<String, ?>>> tracedInstanceMaps =
+      new ConcurrentHashMap<>();
 
   TraceFeignContext(Tracer tracer, FeignContext delegate, BeanFactory beanFactory) {
+    this(tracer, delegate, beanFactory, SpanSampler.always());
+  }
+
+  TraceFeignContext(Tracer tracer, FeignContext delegate, BeanFactory beanFactory, SpanSampler sampler) {
+    this(tracer, delegate, beanFactory, sampler, InstrumentationMetrics.disabled());
+  }
+
+  TraceFeignContext(Tracer tracer, FeignContext delegate, BeanFactory beanFactory, SpanSampler sampler,
+      InstrumentationMetrics metrics) {
     this.delegate = delegate;
     this.tracer = tracer;
     this.beanFactory = beanFactory;
+    this.sampler = sampler;
+    this.metrics = metrics;
   }
 
   @Override
   public <T> T getInstance(String name, Class<T> type) {
-    T object = this.delegate.getInstance(name, type);
-    return (T) this.addTracingClient(object);
+    Object tracedObject = get(tracedInstances, name, type);
+    if (tracedObject == null) {
+      T object = this.delegate.getInstance(name, type);
+      tracedObject = this.addTracingClient(object);
+      if (object instanceof Client) {
+        put(tracedInstances, name, type, tracedObject);
+      }
+    } else {
+      metrics.wrapperAvoided();
+    }
+    return (T) tracedObject;
   }
 
   @Override
   public <T> Map<String, T> getInstances(String name, Class<T> type) {
+    Map<String, ?> memoized = get(tracedInstanceMaps, name, type);
+    if (memoized != null) {
+      metrics.wrapperAvoided();
+      return (Map<String, T>) memoized;
+    }
+
     Map<String, T> instances = this.delegate.getInstances(name, type);
     if (instances == null) {
       return null;
     }
-    Map<String, T> tracedInstances = new HashMap<>();
+    Map<String, T> tracedInstances = null;
     for (Map.Entry<String, T> instanceEntry : instances.entrySet()) {
-      tracedInstances.put(instanceEntry.getKey(), (T) this.addTracingClient(instanceEntry.getValue()));
+      if (instanceEntry.getValue() instanceof Client) {
+        if (tracedInstances == null) {
+          tracedInstances = new HashMap<>(instances);
+        }
+        tracedInstances.put(instanceEntry.getKey(), (T) this.addTracingClient(instanceEntry.getValue()));
+      }
     }
+    if (tracedInstances == null) {
+      return instances;
+    }
+    tracedInstances = Collections.unmodifiableMap(tracedInstances);
+    put(tracedInstanceMaps, name, type, tracedInstances);
     return tracedInstances;
   }
 
+  @Override
+  public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
+    this.delegate.setApplicationContext(applicationContext);
+    clearTracedInstances();
+  }
+
+  @Override
+  public void destroy() {
+    clearTracedInstances();
+    this.delegate.destroy();
+  }
+
+  private void clearTracedInstances() {
+    this.tracedInstances.clear();
+    this.tracedInstanceMaps.clear();
+  }
+
+  private static <V> V get(ConcurrentMap<String, ConcurrentMap<Class<?>, V>> instances, String name, Class<?> type) {
+    ConcurrentMap<Class<?>, V> instancesByType = instances.get(name);
+    return instancesByType == null ? null : instancesByType.get(type);
+  }
+
+  private static <V> void put(ConcurrentMap<String, ConcurrentMap<Class<?>, V>> instances, String name, Class<?> type,
+      V instance) {
+    ConcurrentMap<Class<?>, V> instancesByType = instances.get(name);
+    if (instancesByType == null) {
+      ConcurrentMap<Class<?>, V> newInstancesByType = new ConcurrentHashMap<>();
+      instancesByType = instances.putIfAbsent(name, newInstancesByType);
+      if (instancesByType == null) {
+        instancesByType = newInstancesByType;
+      }
+    }
+    instancesByType.put(type, instance);
+  }
+
   private Object addTracingClient(Object bean) {
-    if (bean instanceof TracingClient || bean instanceof LoadBalancedTracedFeign) {
+    return addTracingClient(bean, tracer, beanFactory, sampler, metrics);
+  }
+
+  static Object addTracingClient(Object bean, Tracer tracer, BeanFactory beanFactory, SpanSampler sampler,
+      InstrumentationMetrics metrics) {
+    if (bean instanceof TracingClient || bean instanceof SamplingClient || bean instanceof LoadBalancedTracedFeign) {
       return bean;
     }
 
     if (bean instanceof Client) {
+      metrics.wrapperCreated();
       if (bean instanceof LoadBalancerFeignClient && !(bean instanceof LoadBalancedTracedFeign)) {
-        return new LoadBalancedTracedFeign(new TracingClient(((LoadBalancerFeignClient)bean).getDelegate(), tracer),
+        return new LoadBalancedTracedFeign(
+            SamplingClient.wrap(((LoadBalancerFeignClient)bean).getDelegate(), tracer, sampler, metrics),
             beanFactory.getBean(CachingSpringLoadBalancerFactory.class), beanFactory.getBean(SpringClientFactory.class));
       }
-      return new TracingClient((Client) bean, tracer);
+      return SamplingClient.wrap((Client) bean, tracer, sampler, metrics);
     }
 
     return bean;
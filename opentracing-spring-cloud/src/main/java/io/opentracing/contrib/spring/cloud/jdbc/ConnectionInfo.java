@@ -0,0 +1,73 @@
+package io.opentracing.contrib.spring.cloud.jdbc;
+
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+
+/**
+ * Database type, user and instance of the connections handed out by a {@link javax.sql.DataSource}, parsed once from
+ * the connection metadata.
+ */
+final class ConnectionInfo {
+
+  private final String dbType;
+  private final String dbUser;
+  private final String dbInstance;
+
+  ConnectionInfo(String dbType, String dbUser, String dbInstance) {
+    this.dbType = dbType;
+    this.dbUser = dbUser;
+    this.dbInstance = dbInstance;
+  }
+
+  /**
+   * @param metaData metadata of a connection
+   * @return the parsed connection info
+   * @throws IllegalArgumentException if the JDBC URL doesn't contain the database type
+   */
+  static ConnectionInfo of(DatabaseMetaData metaData) throws SQLException {
+    String url = metaData.getURL();
+    return new ConnectionInfo(parseDbType(url), metaData.getUserName(), parseDbInstance(url));
+  }
+
+  private static String parseDbType(String url) {
+    int start = url == null ? -1 : url.indexOf(':');
+    if (start < 0 || start == url.length() - 1) {
+      throw new IllegalArgumentException("Invalid JDBC URL. Expected to find the database type after the first ':'. URL: " + url);
+    }
+    int end = url.indexOf(':', start + 1);
+    return end < 0 ? url.substring(start + 1) : url.substring(start + 1, end);
+  }
+
+  /**
+   * Best effort guess of the database name, e.g. {@code test} for {@code jdbc:mysql://localhost:3306/test?useSSL=false}
+   * or {@code testdb} for {@code jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1}.
+   */
+  private static String parseDbInstance(String url) {
+    int end = url.length();
+    for (int i = 0; i < url.length(); i++) {
+      char c = url.charAt(i);
+      if (c == '?' || c == ';') {
+        end = i;
+        break;
+      }
+    }
+    int start = Math.max(url.lastIndexOf('/', end - 1), url.lastIndexOf(':', end - 1)) + 1;
+    return start < end ? url.substring(start, end) : null;
+  }
+
+  String getDbType() {
+    return dbType;
+  }
+
+  String getDbUser() {
+    return dbUser;
+  }
+
+  /**
+   * Tagged by {@link StatementTracer} only, {@link io.opentracing.contrib.jdbc.TracingConnection} takes the database
+   * type and user.
+   */
+  String getDbInstance() {
+    return dbInstance;
+  }
+}
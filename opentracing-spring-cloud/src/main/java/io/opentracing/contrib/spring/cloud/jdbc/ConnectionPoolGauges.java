@@ -0,0 +1,117 @@
+package io.opentracing.contrib.spring.cloud.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import javax.sql.DataSource;
+import org.apache.tomcat.jdbc.pool.ConnectionPool;
+import org.apache.tomcat.jdbc.pool.DataSourceProxy;
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Active, idle and waiting connections of HikariCP and Tomcat JDBC pools. Pool classes are referenced only by the
+ * nested implementations, so that neither pool is required in the classpath.
+ */
+abstract class ConnectionPoolGauges {
+
+  private static final boolean HIKARI_PRESENT = ClassUtils.isPresent("com.zaxxer.hikari.HikariDataSource",
+      ConnectionPoolGauges.class.getClassLoader());
+  private static final boolean TOMCAT_PRESENT = ClassUtils.isPresent("org.apache.tomcat.jdbc.pool.DataSourceProxy",
+      ConnectionPoolGauges.class.getClassLoader());
+
+  /**
+   * @return gauges of the given pool, null if it is not supported
+   */
+  static ConnectionPoolGauges of(DataSource dataSource) {
+    ConnectionPoolGauges gauges = HIKARI_PRESENT ? Hikari.of(dataSource) : null;
+    if (gauges == null && TOMCAT_PRESENT) {
+      gauges = Tomcat.of(dataSource);
+    }
+    return gauges;
+  }
+
+  abstract int getActive();
+
+  abstract int getIdle();
+
+  /**
+   * @return number of threads waiting for a connection
+   */
+  abstract int getWaiting();
+
+  private static final class Hikari extends ConnectionPoolGauges {
+
+    private final HikariDataSource dataSource;
+
+    Hikari(HikariDataSource dataSource) {
+      this.dataSource = dataSource;
+    }
+
+    static ConnectionPoolGauges of(DataSource dataSource) {
+      return dataSource instanceof HikariDataSource ? new Hikari((HikariDataSource) dataSource) : null;
+    }
+
+    /**
+     * The pool is not exposed by the data source in HikariCP 2.4, it is created on the first connection
+     */
+    private HikariPoolMXBean getPool() {
+      return (HikariPoolMXBean) new DirectFieldAccessor(dataSource).getPropertyValue("pool");
+    }
+
+    @Override
+    int getActive() {
+      HikariPoolMXBean pool = getPool();
+      return pool != null ? pool.getActiveConnections() : 0;
+    }
+
+    @Override
+    int getIdle() {
+      HikariPoolMXBean pool = getPool();
+      return pool != null ? pool.getIdleConnections() : 0;
+    }
+
+    @Override
+    int getWaiting() {
+      HikariPoolMXBean pool = getPool();
+      return pool != null ? pool.getThreadsAwaitingConnection() : 0;
+    }
+  }
+
+  private static final class Tomcat extends ConnectionPoolGauges {
+
+    private final DataSourceProxy dataSource;
+
+    Tomcat(DataSourceProxy dataSource) {
+      this.dataSource = dataSource;
+    }
+
+    static ConnectionPoolGauges of(DataSource dataSource) {
+      return dataSource instanceof DataSourceProxy ? new Tomcat((DataSourceProxy) dataSource) : null;
+    }
+
+    /**
+     * The pool is created on the first connection, the gauges and {@link DataSourceProxy#getPool()} would create it
+     */
+    private ConnectionPool getPool() {
+      return (ConnectionPool) new DirectFieldAccessor(dataSource).getPropertyValue("pool");
+    }
+
+    @Override
+    int getActive() {
+      ConnectionPool pool = getPool();
+      return pool != null ? pool.getActive() : 0;
+    }
+
+    @Override
+    int getIdle() {
+      ConnectionPool pool = getPool();
+      return pool != null ? pool.getIdle() : 0;
+    }
+
+    @Override
+    int getWaiting() {
+      ConnectionPool pool = getPool();
+      return pool != null ? pool.getWaitCount() : 0;
+    }
+  }
+}
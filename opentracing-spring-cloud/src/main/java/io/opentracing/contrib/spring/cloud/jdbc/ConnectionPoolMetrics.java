@@ -0,0 +1,97 @@
+package io.opentracing.contrib.spring.cloud.jdbc;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.sql.DataSource;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Time waited for connections of each data source, including failed acquisitions, e.g. pool timeouts. Wait times are
+ * recorded in microseconds by HdrHistogram {@link Recorder}s and read as the histogram of the interval since the
+ * previous read.
+ */
+public final class ConnectionPoolMetrics {
+
+  private static final int SIGNIFICANT_DIGITS = 2;
+
+  /**
+   * Entries are softly referenced, so that a discarded data source can be garbage collected
+   */
+  private final ConcurrentMap<DataSource, PoolWaits> waits = new ConcurrentReferenceHashMap<>();
+  private final long maxWaitMicros;
+
+  /**
+   * @param maxWaitMillis longest recorded wait, longer ones are recorded as this one
+   */
+  public ConnectionPoolMetrics(long maxWaitMillis) {
+    this.maxWaitMicros = TimeUnit.MILLISECONDS.toMicros(maxWaitMillis);
+  }
+
+  /**
+   * @param waitNanos time spent in {@link DataSource#getConnection()}
+   * @param failed whether no connection was acquired
+   */
+  public void record(DataSource dataSource, long waitNanos, boolean failed) {
+    PoolWaits poolWaits = waits.get(dataSource);
+    if (poolWaits == null) {
+      poolWaits = new PoolWaits(maxWaitMicros);
+      PoolWaits existing = waits.putIfAbsent(dataSource, poolWaits);
+      if (existing != null) {
+        poolWaits = existing;
+      }
+    }
+    poolWaits.record(Math.min(TimeUnit.NANOSECONDS.toMicros(Math.max(waitNanos, 0)), maxWaitMicros), failed);
+  }
+
+  /**
+   * @return waits of the given data source, null if no connection was acquired yet
+   */
+  public PoolWaits getWaits(DataSource dataSource) {
+    return waits.get(dataSource);
+  }
+
+  /**
+   * Connection acquisitions of one data source.
+   */
+  public static final class PoolWaits {
+
+    private final Recorder waits;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    /**
+     * Recycled by {@link #getIntervalWaits()}
+     */
+    private Histogram intervalWaits;
+
+    PoolWaits(long maxWaitMicros) {
+      this.waits = new Recorder(maxWaitMicros, SIGNIFICANT_DIGITS);
+    }
+
+    void record(long waitMicros, boolean failed) {
+      waits.recordValue(waitMicros);
+      count.increment();
+      if (failed) {
+        failures.increment();
+      }
+    }
+
+    public long getCount() {
+      return count.sum();
+    }
+
+    public long getFailures() {
+      return failures.sum();
+    }
+
+    /**
+     * @return waits in microseconds recorded since the previous call, the histogram is reused by the next call
+     */
+    public synchronized Histogram getIntervalWaits() {
+      intervalWaits = waits.getIntervalHistogram(intervalWaits);
+      return intervalWaits;
+    }
+  }
+}
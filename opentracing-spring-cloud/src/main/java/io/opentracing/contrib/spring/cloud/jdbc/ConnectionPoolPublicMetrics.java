@@ -0,0 +1,80 @@
+package io.opentracing.contrib.spring.cloud.jdbc;
+
+import io.opentracing.contrib.spring.cloud.jdbc.ConnectionPoolMetrics.PoolWaits;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.HdrHistogram.Histogram;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+/**
+ * Exposes {@link ConnectionPoolMetrics} and the gauges of HikariCP and Tomcat JDBC pools per data source bean as
+ * actuator metrics, e.g. {@code opentracing.jdbc.pool.dataSource.wait.p99}. Wait times are in milliseconds and cover
+ * the acquisitions since the previous read.
+ */
+public class ConnectionPoolPublicMetrics implements PublicMetrics {
+
+  private static final String PREFIX = "opentracing.jdbc.pool.";
+  private static final double MICROS_PER_MILLI = 1000.0;
+
+  private final ListableBeanFactory beanFactory;
+  private final ConnectionPoolMetrics poolMetrics;
+
+  public ConnectionPoolPublicMetrics(ListableBeanFactory beanFactory, ConnectionPoolMetrics poolMetrics) {
+    this.beanFactory = beanFactory;
+    this.poolMetrics = poolMetrics;
+  }
+
+  @Override
+  public Collection<Metric<?>> metrics() {
+    List<Metric<?>> metrics = new ArrayList<>();
+    for (Map.Entry<String, DataSource> entry : beanFactory.getBeansOfType(DataSource.class, false, false).entrySet()) {
+      String prefix = PREFIX + entry.getKey();
+      DataSource dataSource = getTarget(entry.getValue());
+      ConnectionPoolGauges gauges = ConnectionPoolGauges.of(dataSource);
+      if (gauges != null) {
+        metrics.add(new Metric<>(prefix + ".active", gauges.getActive()));
+        metrics.add(new Metric<>(prefix + ".idle", gauges.getIdle()));
+        metrics.add(new Metric<>(prefix + ".waiting", gauges.getWaiting()));
+      }
+      PoolWaits waits = poolMetrics.getWaits(dataSource);
+      if (waits != null) {
+        metrics.add(new Metric<>(prefix + ".wait.count", waits.getCount()));
+        metrics.add(new Metric<>(prefix + ".wait.failures", waits.getFailures()));
+        Histogram intervalWaits = waits.getIntervalWaits();
+        metrics.add(new Metric<>(prefix + ".wait.p50", intervalWaits.getValueAtPercentile(50) / MICROS_PER_MILLI));
+        metrics.add(new Metric<>(prefix + ".wait.p95", intervalWaits.getValueAtPercentile(95) / MICROS_PER_MILLI));
+        metrics.add(new Metric<>(prefix + ".wait.p99", intervalWaits.getValueAtPercentile(99) / MICROS_PER_MILLI));
+        metrics.add(new Metric<>(prefix + ".wait.max", intervalWaits.getMaxValue() / MICROS_PER_MILLI));
+      }
+    }
+    return metrics;
+  }
+
+  /**
+   * Data source beans are proxied by {@link JdbcAspect} or wrapped in {@link TracingDataSource}, waits are recorded for
+   * the proxied data source
+   */
+  private static DataSource getTarget(DataSource dataSource) {
+    if (dataSource instanceof TracingDataSource) {
+      return ((TracingDataSource) dataSource).getDelegate();
+    }
+    while (dataSource instanceof Advised) {
+      try {
+        Object target = ((Advised) dataSource).getTargetSource().getTarget();
+        if (!(target instanceof DataSource)) {
+          break;
+        }
+        dataSource = (DataSource) target;
+      } catch (Exception ex) {
+        break;
+      }
+    }
+    return dataSource;
+  }
+}
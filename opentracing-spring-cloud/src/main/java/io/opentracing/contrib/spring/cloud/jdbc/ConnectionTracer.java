@@ -0,0 +1,135 @@
+package io.opentracing.contrib.spring.cloud.jdbc;
+
+import io.opentracing.contrib.jdbc.TracingConnection;
+import io.opentracing.contrib.spring.cloud.metrics.InstrumentationMetrics;
+import io.opentracing.contrib.spring.cloud.sampling.SpanSampler;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import javax.sql.DataSource;
+
+/**
+ * Wraps connections checked out of data sources, shared by {@link JdbcAspect} and {@link TracingDataSource}.
+ * Connections which are already traced, e.g. checked out through a data source delegating to another instrumented
+ * one, are not wrapped again.
+ */
+public final class ConnectionTracer {
+
+  /**
+   * Connection metadata per data source instance. Data sources may implement equals (e.g. by comparing their URLs), the
+   * cache must not mix up two instances configured alike. Copied on write, an application has a handful of data
+   * sources and reads must not lock. Entries are kept until invalidated, data sources are context singletons.
+   */
+  private volatile Map<DataSource, ConnectionInfo> connectionInfoCache = new IdentityHashMap<>();
+  private final SpanSampler sampler;
+  /**
+   * Traces statements of connections which are not wrapped in {@link TracingConnection}, null if they are
+   */
+  private final StatementTracer statementTracer;
+  private final InstrumentationMetrics metrics;
+  /**
+   * Times connection acquisitions, null if they are not timed
+   */
+  private final PoolWaitTracer poolWaitTracer;
+
+  ConnectionTracer(SpanSampler sampler, StatementTracer statementTracer, InstrumentationMetrics metrics,
+      PoolWaitTracer poolWaitTracer) {
+    this.sampler = sampler;
+    this.statementTracer = statementTracer;
+    this.metrics = metrics;
+    this.poolWaitTracer = poolWaitTracer;
+  }
+
+  /**
+   * Checks out a connection, timing the checkout if acquisitions are timed, and traces it
+   *
+   * @param checkout gets the connection from the data source
+   * @return the connection traced like by {@link #trace}
+   */
+  <E extends Throwable> Connection acquire(DataSource dataSource, Checkout<E> checkout) throws E, SQLException {
+    if (poolWaitTracer == null) {
+      return trace(dataSource, checkout.getConnection());
+    }
+    long start = System.nanoTime();
+    Connection conn;
+    try {
+      conn = checkout.getConnection();
+    } catch (Throwable ex) {
+      poolWaitTracer.acquired(dataSource, System.nanoTime() - start, ex, sampler);
+      throw ex;
+    }
+    poolWaitTracer.acquired(dataSource, System.nanoTime() - start, null, sampler);
+    return trace(dataSource, conn);
+  }
+
+  /**
+   * @return the connection wrapped in a {@link TracingConnection} (or a proxy with equivalent tracing, if the
+   * configured features require it), or the connection itself if it is not sampled or already traced
+   */
+  Connection trace(DataSource dataSource, Connection conn) throws SQLException {
+    long start = metrics.nanoTime();
+    try {
+      if (TracingConnectionHandler.isTraced(conn)) {
+        metrics.wrapperAvoided();
+        return conn;
+      }
+      if (!sampler.isSampled()) {
+        metrics.spanUnsampled();
+        metrics.wrapperAvoided();
+        return conn;
+      }
+      ConnectionInfo connectionInfo = getConnectionInfo(dataSource, conn);
+      metrics.wrapperCreated();
+      if (statementTracer != null) {
+        return TracingConnectionHandler.wrap(conn, connectionInfo, statementTracer);
+      }
+      return new TracingConnection(conn, connectionInfo.getDbType(), connectionInfo.getDbUser());
+    } finally {
+      metrics.overhead(metrics.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Discards the cached connection metadata of the given data source, it will be read again from the next connection.
+   * @param dataSource the data source which has been reconfigured
+   */
+  public synchronized void invalidate(DataSource dataSource) {
+    if (connectionInfoCache.containsKey(dataSource)) {
+      Map<DataSource, ConnectionInfo> cache = new IdentityHashMap<>(connectionInfoCache);
+      cache.remove(dataSource);
+      connectionInfoCache = cache;
+    }
+  }
+
+  /**
+   * Discards the cached connection metadata of all data sources.
+   */
+  public synchronized void invalidateAll() {
+    connectionInfoCache = new IdentityHashMap<>();
+  }
+
+  ConnectionInfo getConnectionInfo(DataSource dataSource, Connection conn) throws SQLException {
+    ConnectionInfo connectionInfo = connectionInfoCache.get(dataSource);
+    if (connectionInfo == null) {
+      connectionInfo = ConnectionInfo.of(conn.getMetaData());
+      cache(dataSource, connectionInfo);
+    }
+    return connectionInfo;
+  }
+
+  private synchronized void cache(DataSource dataSource, ConnectionInfo connectionInfo) {
+    Map<DataSource, ConnectionInfo> cache = new IdentityHashMap<>(connectionInfoCache);
+    cache.put(dataSource, connectionInfo);
+    connectionInfoCache = cache;
+  }
+
+  /**
+   * Call checking out a connection, e.g. a join point or the delegate data source
+   *
+   * @param <E> exception thrown by the checkout
+   */
+  interface Checkout<E extends Throwable> {
+    Connection getConnection() throws E;
+  }
+}
@@ -1,12 +1,15 @@
 package io.opentracing.contrib.spring.cloud.jdbc;
 
 import io.opentracing.contrib.jdbc.TracingConnection;
+import io.opentracing.contrib.spring.cloud.metrics.InstrumentationMetrics;
+import io.opentracing.contrib.spring.cloud.sampling.SpanSampler;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
+import java.sql.SQLException;
 
 /**
  * Spring AOP Aspect wrapping JDBC-related calls, delegating as much as possible to the official OpenTracing Java JDBC
@@ -17,22 +20,68 @@ import java.sql.Connection;
 @Aspect
 public class JdbcAspect {
 
+  private final ConnectionTracer connectionTracer;
+
+  public JdbcAspect() {
+    this(SpanSampler.always());
+  }
+
+  /**
+   * @param sampler decides which connections are traced, statements of an unsampled connection are not traced
+   */
+  public JdbcAspect(SpanSampler sampler) {
+    this(sampler, null);
+  }
+
+  JdbcAspect(SpanSampler sampler, StatementTracer statementTracer) {
+    this(sampler, statementTracer, InstrumentationMetrics.disabled());
+  }
+
+  JdbcAspect(SpanSampler sampler, StatementTracer statementTracer, InstrumentationMetrics metrics) {
+    this(sampler, statementTracer, metrics, null);
+  }
+
+  JdbcAspect(SpanSampler sampler, StatementTracer statementTracer, InstrumentationMetrics metrics,
+      PoolWaitTracer poolWaitTracer) {
+    this(new ConnectionTracer(sampler, statementTracer, metrics, poolWaitTracer));
+  }
+
+  JdbcAspect(ConnectionTracer connectionTracer) {
+    this.connectionTracer = connectionTracer;
+  }
+
   /**
    * Intercepts calls to {@link DataSource#getConnection()} (and related), wrapping the outcome in a {@link TracingConnection}
    * @param pjp the intercepted join point
-   * @return  a new {@link TracingConnection} wrapping the result of the joint point
+   * @return  a new {@link TracingConnection} (or a proxy with equivalent tracing, if the configured features require
+   * it) wrapping the result of the joint point, or the connection itself if it is not sampled
    */
   @Around("execution(java.sql.Connection *.getConnection(..)) && target(javax.sql.DataSource)")
   public Object getConnection(final ProceedingJoinPoint pjp) throws Throwable {
-    Connection conn = (Connection) pjp.proceed();
-    String url = conn.getMetaData().getURL();
-    String user = conn.getMetaData().getUserName();
-    String dbType;
-    try {
-      dbType = url.split(":")[1];
-    } catch (Throwable t) {
-      throw new IllegalArgumentException("Invalid JDBC URL. Expected to find the database type after the first ':'. URL: " + url);
-    }
-    return new TracingConnection(conn, dbType, user);
+    return connectionTracer.acquire((DataSource) pjp.getTarget(), new ConnectionTracer.Checkout<Throwable>() {
+      @Override
+      public Connection getConnection() throws Throwable {
+        return (Connection) pjp.proceed();
+      }
+    });
+  }
+
+  /**
+   * Discards the cached connection metadata of the given data source, it will be read again from the next connection.
+   * @param dataSource the data source which has been reconfigured
+   */
+  public void invalidate(DataSource dataSource) {
+    connectionTracer.invalidate(dataSource);
+  }
+
+  /**
+   * Discards the cached connection metadata of all data sources.
+   */
+  public void invalidateAll() {
+    connectionTracer.invalidateAll();
+  }
+
+  ConnectionInfo getConnectionInfo(DataSource dataSource, Connection conn) throws SQLException {
+    return connectionTracer.getConnectionInfo(dataSource, conn);
   }
 }
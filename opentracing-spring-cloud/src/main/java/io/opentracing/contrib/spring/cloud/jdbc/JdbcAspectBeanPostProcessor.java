@@ -0,0 +1,24 @@
+package io.opentracing.contrib.spring.cloud.jdbc;
+
+import io.opentracing.contrib.spring.cloud.aop.TargetedAspectBeanPostProcessor;
+import javax.sql.DataSource;
+
+/**
+ * Applies {@link JdbcAspect} to {@link DataSource} beans only, other beans are not matched against its pointcut. The
+ * aspect is created with the {@link ConnectionTracer} bean when the first data source is post processed.
+ */
+public class JdbcAspectBeanPostProcessor extends TargetedAspectBeanPostProcessor {
+
+  JdbcAspectBeanPostProcessor() {
+  }
+
+  @Override
+  protected boolean isEligible(Class<?> targetClass) {
+    return DataSource.class.isAssignableFrom(targetClass) && !TracingDataSource.class.isAssignableFrom(targetClass);
+  }
+
+  @Override
+  protected Object createAspect() {
+    return new JdbcAspect(getBeanFactory().getBean(ConnectionTracer.class));
+  }
+}
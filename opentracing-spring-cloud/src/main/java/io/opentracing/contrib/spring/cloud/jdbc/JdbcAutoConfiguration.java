@@ -1,21 +1,119 @@
 package io.opentracing.contrib.spring.cloud.jdbc;
 
 
+import io.opentracing.Tracer;
+import io.opentracing.contrib.jdbc.TracingConnection;
+import io.opentracing.contrib.spring.cloud.metrics.InstrumentationMetrics;
+import io.opentracing.util.GlobalTracer;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
 
 /**
- * Loads the integration with OpenTracing JDBC if it's included in the classpath.
+ * Loads the integration with OpenTracing JDBC if it's included in the classpath and there is a data source.
  *
  * @author Juraci Paixão Kröhling
  */
 @Configuration
+@ConditionalOnClass({DataSource.class, TracingConnection.class})
+@ConditionalOnBean(DataSource.class)
+@AutoConfigureAfter(DataSourceAutoConfiguration.class)
 @ConditionalOnProperty(name = "opentracing.spring.cloud.jdbc.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(JdbcTracingProperties.class)
 public class JdbcAutoConfiguration {
 
+  /**
+   * Spans are reported to the {@link Tracer} bean, as decorated by the other auto-configurations. Connections wrapped
+   * in {@link TracingConnection} report to {@link GlobalTracer}, the bean is registered there if no tracer is.
+   */
   @Bean
-  public JdbcAspect jdbcAspect() {
-    return new JdbcAspect();
+  public ConnectionTracer connectionTracer(JdbcTracingProperties jdbcTracingProperties,
+      ObjectProvider<Tracer> tracerProvider, ObjectProvider<SqlFingerprintCache> sqlFingerprintCache,
+      ObjectProvider<ConnectionPoolMetrics> connectionPoolMetrics) {
+    Tracer tracer = tracerProvider.getIfAvailable();
+    if (tracer == null) {
+      tracer = GlobalTracer.get();
+    } else if (!GlobalTracer.isRegistered()) {
+      GlobalTracer.register(tracer);
+    }
+    InstrumentationMetrics metrics = jdbcInstrumentationMetrics(jdbcTracingProperties);
+    return new ConnectionTracer(jdbcTracingProperties.createSampler(),
+        StatementTracer.of(tracer, jdbcTracingProperties, sqlFingerprintCache.getIfAvailable(), metrics), metrics,
+        PoolWaitTracer.of(tracer, jdbcTracingProperties, connectionPoolMetrics.getIfAvailable()));
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "opentracing.spring.cloud.jdbc.wrap-data-sources", havingValue = "false",
+      matchIfMissing = true)
+  public static JdbcAspectBeanPostProcessor jdbcAspectBeanPostProcessor() {
+    return new JdbcAspectBeanPostProcessor();
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "opentracing.spring.cloud.jdbc.wrap-data-sources", havingValue = "true")
+  public static TracingDataSourceBeanPostProcessor tracingDataSourceBeanPostProcessor(BeanFactory beanFactory) {
+    return new TracingDataSourceBeanPostProcessor(beanFactory);
+  }
+
+  @Bean
+  public InstrumentationMetrics jdbcInstrumentationMetrics(JdbcTracingProperties jdbcTracingProperties) {
+    return jdbcTracingProperties.createMetrics("jdbc");
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "opentracing.spring.cloud.jdbc.normalize-statements", havingValue = "true")
+  public SqlFingerprintCache sqlFingerprintCache(JdbcTracingProperties jdbcTracingProperties) {
+    return new SqlFingerprintCache(jdbcTracingProperties.getStatementCacheSize(),
+        jdbcTracingProperties.getMaxStatementLength());
+  }
+
+  @Configuration
+  @ConditionalOnClass(name = "org.HdrHistogram.Recorder")
+  @ConditionalOnProperty(name = "opentracing.spring.cloud.jdbc.pool-metrics-enabled", havingValue = "true")
+  public static class PoolMetrics {
+    @Bean
+    public ConnectionPoolMetrics connectionPoolMetrics(JdbcTracingProperties jdbcTracingProperties) {
+      return new ConnectionPoolMetrics(jdbcTracingProperties.getMaxPoolWait());
+    }
+
+    @Configuration
+    @ConditionalOnClass(PublicMetrics.class)
+    public static class Actuator {
+      @Bean
+      public ConnectionPoolPublicMetrics connectionPoolPublicMetrics(ListableBeanFactory beanFactory,
+          ConnectionPoolMetrics connectionPoolMetrics) {
+        return new ConnectionPoolPublicMetrics(beanFactory, connectionPoolMetrics);
+      }
+    }
+  }
+
+  /**
+   * Data sources rebound or recreated on refresh might point to a different database
+   */
+  @Configuration
+  @ConditionalOnClass(name = {"org.springframework.cloud.context.environment.EnvironmentChangeEvent",
+      "org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent"})
+  public static class RefreshInvalidation {
+    @Autowired
+    private ConnectionTracer connectionTracer;
+
+    @EventListener({EnvironmentChangeEvent.class, RefreshScopeRefreshedEvent.class})
+    public void invalidateConnectionInfo() {
+      connectionTracer.invalidateAll();
+    }
   }
 }
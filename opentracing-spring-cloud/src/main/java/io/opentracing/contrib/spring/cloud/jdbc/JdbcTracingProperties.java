@@ -0,0 +1,173 @@
+package io.opentracing.contrib.spring.cloud.jdbc;
+
+import io.opentracing.contrib.spring.cloud.sampling.SamplingProperties;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the JDBC integration.
+ */
+@ConfigurationProperties("opentracing.spring.cloud.jdbc")
+public class JdbcTracingProperties extends SamplingProperties {
+
+  /**
+   * Minimum duration in milliseconds of a traced statement execution, faster executions are traced only if they
+   * fail. 0 traces all executions.
+   */
+  private long slowQueryThreshold;
+
+  /**
+   * Report each batch execution as one span tagged with the number of statements, the rows affected and a fingerprint
+   * of the SQL, instead of the concatenated statements.
+   */
+  private boolean aggregateBatches;
+
+  /**
+   * Report statements as fingerprints without literals instead of the raw SQL.
+   */
+  private boolean normalizeStatements;
+
+  /**
+   * Maximum number of cached statement fingerprints.
+   */
+  private int statementCacheSize = 1000;
+
+  /**
+   * Maximum length of a statement fingerprint, longer ones are truncated. 0 for no limit.
+   */
+  private int maxStatementLength = 1024;
+
+  /**
+   * Minimum time in milliseconds waited for a connection to report a db.pool.acquire span, failed acquisitions are
+   * reported whatever their wait. Spans are sampled like connections. -1 does not report them.
+   */
+  private long poolWaitThreshold = -1;
+
+  /**
+   * Record connection wait times and expose them with active, idle and waiting connections of HikariCP and Tomcat
+   * JDBC pools through the actuator. Requires HdrHistogram.
+   */
+  private boolean poolMetricsEnabled;
+
+  /**
+   * Longest recorded connection wait in milliseconds, longer ones are recorded as this one.
+   */
+  private long maxPoolWait = 60000;
+
+  /**
+   * Trace statements executed without an active span as root spans. If disabled, they are executed without tracing.
+   */
+  private boolean rootSpans = true;
+
+  /**
+   * Wrap data source beans instead of intercepting getConnection calls of every data source with an aspect.
+   */
+  private boolean wrapDataSources;
+
+  /**
+   * Names of the data source beans to wrap, all if empty.
+   */
+  private List<String> includeDataSources = new ArrayList<>();
+
+  /**
+   * Names of the data source beans not to wrap, e.g. routing data sources delegating to wrapped ones.
+   */
+  private List<String> excludeDataSources = new ArrayList<>();
+
+  public long getSlowQueryThreshold() {
+    return slowQueryThreshold;
+  }
+
+  public void setSlowQueryThreshold(long slowQueryThreshold) {
+    this.slowQueryThreshold = slowQueryThreshold;
+  }
+
+  public boolean isAggregateBatches() {
+    return aggregateBatches;
+  }
+
+  public void setAggregateBatches(boolean aggregateBatches) {
+    this.aggregateBatches = aggregateBatches;
+  }
+
+  public boolean isNormalizeStatements() {
+    return normalizeStatements;
+  }
+
+  public void setNormalizeStatements(boolean normalizeStatements) {
+    this.normalizeStatements = normalizeStatements;
+  }
+
+  public int getStatementCacheSize() {
+    return statementCacheSize;
+  }
+
+  public void setStatementCacheSize(int statementCacheSize) {
+    this.statementCacheSize = statementCacheSize;
+  }
+
+  public int getMaxStatementLength() {
+    return maxStatementLength;
+  }
+
+  public void setMaxStatementLength(int maxStatementLength) {
+    this.maxStatementLength = maxStatementLength;
+  }
+
+  public long getPoolWaitThreshold() {
+    return poolWaitThreshold;
+  }
+
+  public void setPoolWaitThreshold(long poolWaitThreshold) {
+    this.poolWaitThreshold = poolWaitThreshold;
+  }
+
+  public boolean isPoolMetricsEnabled() {
+    return poolMetricsEnabled;
+  }
+
+  public void setPoolMetricsEnabled(boolean poolMetricsEnabled) {
+    this.poolMetricsEnabled = poolMetricsEnabled;
+  }
+
+  public long getMaxPoolWait() {
+    return maxPoolWait;
+  }
+
+  public void setMaxPoolWait(long maxPoolWait) {
+    this.maxPoolWait = maxPoolWait;
+  }
+
+  public boolean isRootSpans() {
+    return rootSpans;
+  }
+
+  public void setRootSpans(boolean rootSpans) {
+    this.rootSpans = rootSpans;
+  }
+
+  public boolean isWrapDataSources() {
+    return wrapDataSources;
+  }
+
+  public void setWrapDataSources(boolean wrapDataSources) {
+    this.wrapDataSources = wrapDataSources;
+  }
+
+  public List<String> getIncludeDataSources() {
+    return includeDataSources;
+  }
+
+  public void setIncludeDataSources(List<String> includeDataSources) {
+    this.includeDataSources = includeDataSources;
+  }
+
+  public List<String> getExcludeDataSources() {
+    return excludeDataSources;
+  }
+
+  public void setExcludeDataSources(List<String> excludeDataSources) {
+    this.excludeDataSources = excludeDataSources;
+  }
+}
@@ -0,0 +1,68 @@
+package io.opentracing.contrib.spring.cloud.jdbc;
+
+import io.opentracing.Span;
+import io.opentracing.Tracer;
+import io.opentracing.contrib.spring.cloud.sampling.SpanSampler;
+import io.opentracing.tag.Tags;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+
+/**
+ * Records the time {@link DataSource#getConnection()} blocked, into {@link ConnectionPoolMetrics} and as a back-dated
+ * {@value #OPERATION_NAME} span if it took at least the threshold or failed. Fast acquisitions create no span, the
+ * sampler is asked only for acquisitions which would be reported.
+ */
+final class PoolWaitTracer {
+
+  static final String OPERATION_NAME = "db.pool.acquire";
+
+  private final Tracer tracer;
+  /**
+   * Minimum wait reported as a span, -1 to not report spans
+   */
+  private final long thresholdNanos;
+  /**
+   * Null if waits are not recorded
+   */
+  private final ConnectionPoolMetrics poolMetrics;
+
+  PoolWaitTracer(Tracer tracer, long thresholdMillis, ConnectionPoolMetrics poolMetrics) {
+    this.tracer = tracer;
+    this.thresholdNanos = thresholdMillis < 0 ? -1 : TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    this.poolMetrics = poolMetrics;
+  }
+
+  /**
+   * @return pool wait tracer reporting to the given tracer, or null if the settings do not require one
+   */
+  static PoolWaitTracer of(Tracer tracer, JdbcTracingProperties jdbcTracingProperties,
+      ConnectionPoolMetrics poolMetrics) {
+    if (jdbcTracingProperties.getPoolWaitThreshold() < 0 && poolMetrics == null) {
+      return null;
+    }
+    return new PoolWaitTracer(tracer, jdbcTracingProperties.getPoolWaitThreshold(), poolMetrics);
+  }
+
+  /**
+   * @param waitNanos time spent acquiring the connection
+   * @param error failure to acquire a connection, null if acquired
+   * @param sampler decides whether the span is reported, the waits are recorded anyway
+   */
+  void acquired(DataSource dataSource, long waitNanos, Throwable error, SpanSampler sampler) {
+    if (poolMetrics != null) {
+      poolMetrics.record(dataSource, waitNanos, error != null);
+    }
+    if (thresholdNanos < 0 || (waitNanos < thresholdNanos && error == null) || !sampler.isSampled()) {
+      return;
+    }
+    long finishMicros = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+    Span span = tracer.buildSpan(OPERATION_NAME)
+        .withTag(Tags.COMPONENT.getKey(), StatementTracer.COMPONENT_NAME)
+        .withStartTimestamp(finishMicros - TimeUnit.NANOSECONDS.toMicros(waitNanos))
+        .startManual();
+    if (error != null) {
+      StatementTracer.onError(span, error);
+    }
+    span.finish(finishMicros);
+  }
+}
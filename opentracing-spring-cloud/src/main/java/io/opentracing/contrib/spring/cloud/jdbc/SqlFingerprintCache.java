@@ -0,0 +1,157 @@
+package io.opentracing.contrib.spring.cloud.jdbc;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Size-bounded cache of SQL fingerprints reported as {@code db.statement}, keyed by the original SQL. Fingerprints are
+ * computed by {@link SqlNormalizer} and capped to a maximum length, so that repeated statements are normalized once and
+ * span payloads do not grow with inlined literals.
+ * <p>
+ * Hits do not lock, they only mark the entry as used. When the cache grows over its size, entries not used since the
+ * previous eviction pass are evicted (second chance, an approximation of LRU). Eviction is done by one thread at a time
+ * with a {@link ReentrantLock} instead of a monitor, so that it does not pin the carrier of a virtual thread, other
+ * threads do not wait for it.
+ * <p>
+ * Hits and misses are counted to help with sizing the cache.
+ */
+public final class SqlFingerprintCache {
+
+  /**
+   * Appended to fingerprints longer than the maximum length
+   */
+  static final String TRUNCATED = "...";
+
+  private final int maxSize;
+  private final int maxLength;
+  /**
+   * Longest SQL which is cached, longer statements usually inline data and are not repeated
+   */
+  private final int maxKeyLength;
+  private final ConcurrentMap<String, Entry> fingerprints = new ConcurrentHashMap<>();
+  private final Lock evictionLock = new ReentrantLock();
+  /**
+   * Position of the eviction pass, guarded by the eviction lock
+   */
+  private Iterator<Map.Entry<String, Entry>> evictionHand;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * @param maxSize maximum number of cached fingerprints
+   * @param maxLength maximum length of a fingerprint, 0 for no limit
+   */
+  public SqlFingerprintCache(final int maxSize, int maxLength) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("Cache size must be positive: " + maxSize);
+    }
+    if (maxLength < 0) {
+      throw new IllegalArgumentException("Maximum length must not be negative: " + maxLength);
+    }
+    this.maxSize = maxSize;
+    this.maxLength = maxLength;
+    this.maxKeyLength = maxLength == 0 ? Integer.MAX_VALUE : Math.max(maxLength * 4, 4096);
+  }
+
+  /**
+   * @return normalized and length-capped fingerprint of the given SQL
+   */
+  public String fingerprint(String sql) {
+    Entry entry = fingerprints.get(sql);
+    if (entry != null) {
+      if (!entry.used) {
+        entry.used = true;
+      }
+      hits.increment();
+      return entry.fingerprint;
+    }
+
+    misses.increment();
+    // concurrent misses of the same statement compute equal fingerprints
+    String fingerprint = truncate(SqlNormalizer.normalize(sql));
+    if (sql.length() <= maxKeyLength) {
+      fingerprints.put(sql, new Entry(fingerprint));
+      if (fingerprints.size() > maxSize) {
+        evict(sql);
+      }
+    }
+    return fingerprint;
+  }
+
+  /**
+   * Evicts entries until the cache fits its size, skipped if another thread is evicting
+   *
+   * @param added the statement just added, which is not evicted
+   */
+  private void evict(String added) {
+    if (!evictionLock.tryLock()) {
+      return;
+    }
+    try {
+      // every entry is visited at most twice, the first visit clears its used mark
+      int remainingVisits = 2 * fingerprints.size();
+      while (fingerprints.size() > maxSize && remainingVisits-- > 0) {
+        if (evictionHand == null || !evictionHand.hasNext()) {
+          evictionHand = fingerprints.entrySet().iterator();
+        }
+        Map.Entry<String, Entry> candidate = evictionHand.next();
+        if (candidate.getValue().used) {
+          candidate.getValue().used = false;
+        } else if (!candidate.getKey().equals(added)) {
+          evictionHand.remove();
+        }
+      }
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  private String truncate(String fingerprint) {
+    if (maxLength == 0 || fingerprint.length() <= maxLength) {
+      return fingerprint;
+    }
+    int end = maxLength;
+    // do not split a surrogate pair
+    if (Character.isHighSurrogate(fingerprint.charAt(end - 1))) {
+      end--;
+    }
+    return fingerprint.substring(0, end) + TRUNCATED;
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  public int size() {
+    return fingerprints.size();
+  }
+
+  public void clear() {
+    fingerprints.clear();
+  }
+
+  private static final class Entry {
+    final String fingerprint;
+    /**
+     * Whether the entry was used since the eviction pass last visited it
+     */
+    volatile boolean used;
+
+    Entry(String fingerprint) {
+      this.fingerprint = fingerprint;
+    }
+  }
+}
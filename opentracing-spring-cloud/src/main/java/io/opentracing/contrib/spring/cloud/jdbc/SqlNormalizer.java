@@ -0,0 +1,137 @@
+package io.opentracing.contrib.spring.cloud.jdbc;
+
+/**
+ * Turns SQL into a fingerprint without literal values, so that statements differing only in their parameters are
+ * reported the same way. String and numeric literals are replaced with {@code ?}, {@code IN} lists such as
+ * {@code IN (?, ?, ?)} are collapsed into {@code IN (?)} and whitespace is collapsed into single spaces. Other lists,
+ * e.g. of {@code VALUES} or function arguments, keep their arity.
+ */
+final class SqlNormalizer {
+
+  private SqlNormalizer() {}
+
+  static String normalize(String sql) {
+    StringBuilder normalized = new StringBuilder(sql.length());
+    int length = sql.length();
+    int i = 0;
+    while (i < length) {
+      char c = sql.charAt(i);
+      if (c == '\'') {
+        i = skipString(sql, i);
+        appendPlaceholder(normalized);
+      } else if (isNumberStart(sql, i) && !isIdentifierPart(last(normalized))) {
+        i = skipNumber(sql, i);
+        appendPlaceholder(normalized);
+      } else if (Character.isWhitespace(c)) {
+        while (i < length && Character.isWhitespace(sql.charAt(i))) {
+          i++;
+        }
+        if (normalized.length() > 0 && last(normalized) != ' ') {
+          normalized.append(' ');
+        }
+      } else if (c == '?') {
+        appendPlaceholder(normalized);
+        i++;
+      } else {
+        normalized.append(c);
+        i++;
+      }
+    }
+    int end = normalized.length();
+    if (end > 0 && normalized.charAt(end - 1) == ' ') {
+      normalized.setLength(end - 1);
+    }
+    return normalized.toString();
+  }
+
+  /**
+   * Appends a placeholder, dropping it if it continues an {@code IN} list
+   */
+  private static void appendPlaceholder(StringBuilder normalized) {
+    int end = normalized.length();
+    // "?, ?" and "?,?"
+    int comma = end >= 1 && normalized.charAt(end - 1) == ' ' ? end - 2 : end - 1;
+    if (comma >= 1 && normalized.charAt(comma) == ',' && normalized.charAt(comma - 1) == '?'
+        && isInListStart(normalized, comma - 1)) {
+      normalized.setLength(comma);
+      return;
+    }
+    normalized.append('?');
+  }
+
+  /**
+   * @return whether the placeholder at the given index is the first element of an {@code IN} list, lists are
+   * collapsed as they are read so the following elements continue the first one
+   */
+  private static boolean isInListStart(StringBuilder normalized, int placeholder) {
+    int i = skipSpace(normalized, placeholder - 1);
+    if (i < 0 || normalized.charAt(i) != '(') {
+      return false;
+    }
+    i = skipSpace(normalized, i - 1);
+    return i >= 1 && Character.toLowerCase(normalized.charAt(i)) == 'n'
+        && Character.toLowerCase(normalized.charAt(i - 1)) == 'i'
+        && (i < 2 || !isIdentifierPart(normalized.charAt(i - 2)));
+  }
+
+  private static int skipSpace(StringBuilder normalized, int i) {
+    return i >= 0 && normalized.charAt(i) == ' ' ? i - 1 : i;
+  }
+
+  private static int skipString(String sql, int start) {
+    int i = start + 1;
+    while (i < sql.length()) {
+      if (sql.charAt(i) == '\'') {
+        // '' is an escaped quote
+        if (i + 1 < sql.length() && sql.charAt(i + 1) == '\'') {
+          i += 2;
+          continue;
+        }
+        return i + 1;
+      }
+      i++;
+    }
+    return i;
+  }
+
+  private static boolean isNumberStart(String sql, int i) {
+    char c = sql.charAt(i);
+    if (c >= '0' && c <= '9') {
+      return true;
+    }
+    return (c == '-' || c == '.') && i + 1 < sql.length() && Character.isDigit(sql.charAt(i + 1))
+        && (c == '.' || !isIdentifierPart(previousNonWhitespace(sql, i)));
+  }
+
+  private static int skipNumber(String sql, int start) {
+    int i = start + 1;
+    while (i < sql.length()) {
+      char c = sql.charAt(i);
+      if (Character.isLetterOrDigit(c) || c == '.') {
+        i++;
+      } else if ((c == '+' || c == '-') && (sql.charAt(i - 1) == 'e' || sql.charAt(i - 1) == 'E')) {
+        i++;
+      } else {
+        break;
+      }
+    }
+    return i;
+  }
+
+  private static char previousNonWhitespace(String sql, int i) {
+    for (int j = i - 1; j >= 0; j--) {
+      if (!Character.isWhitespace(sql.charAt(j))) {
+        return sql.charAt(j);
+      }
+    }
+    return 0;
+  }
+
+  private static char last(StringBuilder normalized) {
+    return normalized.length() == 0 ? 0 : normalized.charAt(normalized.length() - 1);
+  }
+
+  private static boolean isIdentifierPart(char c) {
+    return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '"' || c == '`' || c == ')' || c == '?';
+  }
+}
@@ -0,0 +1,255 @@
+package io.opentracing.contrib.spring.cloud.jdbc;
+
+import io.opentracing.ActiveSpan;
+import io.opentracing.BaseSpan;
+import io.opentracing.Span;
+import io.opentracing.Tracer;
+import io.opentracing.contrib.spring.cloud.metrics.InstrumentationMetrics;
+import io.opentracing.tag.Tags;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Traces statement executions of connections wrapped by {@link TracingConnectionHandler}. Spans carry the same tags as
+ * the ones of {@link io.opentracing.contrib.jdbc.TracingConnection}.
+ * <p>
+ * With a slow query threshold, no span is started before the execution. Its start is recorded and the span is created
+ * back-dated only if the execution took at least the threshold or failed.
+ * <p>
+ * With a {@link SqlFingerprintCache}, statements are reported as normalized fingerprints instead of the raw SQL. They
+ * are fingerprinted only when a span is built, executions faster than the slow query threshold are not.
+ * <p>
+ * Without root spans, executions outside of an active span are invoked directly, without starting a span.
+ */
+final class StatementTracer {
+
+  static final String COMPONENT_NAME = "java-jdbc";
+  /**
+   * Number of statements of an aggregated batch
+   */
+  static final String DB_BATCH_SIZE = "db.batch.size";
+  /**
+   * Total number of rows affected by an aggregated batch, if reported by the driver
+   */
+  static final String DB_ROWS_AFFECTED = "db.rows_affected";
+
+  private static final int NO_BATCH = -1;
+
+  /**
+   * Statements of an aggregated batch
+   */
+  interface Batch {
+    /**
+     * @return fingerprint reported as the statement of the batch, called only if a span is built
+     */
+    String fingerprint();
+  }
+
+  private final Tracer tracer;
+  private final long slowQueryThresholdNanos;
+  private final boolean aggregateBatches;
+  /**
+   * Fingerprints reported instead of the raw SQL, null to report the SQL as is
+   */
+  private final SqlFingerprintCache fingerprintCache;
+  private final InstrumentationMetrics metrics;
+  /**
+   * Whether executions without an active span are traced as root spans
+   */
+  private final boolean rootSpans;
+
+  StatementTracer(Tracer tracer, long slowQueryThresholdMillis) {
+    this(tracer, slowQueryThresholdMillis, false);
+  }
+
+  StatementTracer(Tracer tracer, long slowQueryThresholdMillis, boolean aggregateBatches) {
+    this(tracer, slowQueryThresholdMillis, aggregateBatches, null);
+  }
+
+  StatementTracer(Tracer tracer, long slowQueryThresholdMillis, boolean aggregateBatches,
+      SqlFingerprintCache fingerprintCache) {
+    this(tracer, slowQueryThresholdMillis, aggregateBatches, fingerprintCache, InstrumentationMetrics.disabled());
+  }
+
+  StatementTracer(Tracer tracer, long slowQueryThresholdMillis, boolean aggregateBatches,
+      SqlFingerprintCache fingerprintCache, InstrumentationMetrics metrics) {
+    this(tracer, slowQueryThresholdMillis, aggregateBatches, fingerprintCache, metrics, true);
+  }
+
+  StatementTracer(Tracer tracer, long slowQueryThresholdMillis, boolean aggregateBatches,
+      SqlFingerprintCache fingerprintCache, InstrumentationMetrics metrics, boolean rootSpans) {
+    this.tracer = tracer;
+    this.slowQueryThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryThresholdMillis);
+    this.aggregateBatches = aggregateBatches;
+    this.fingerprintCache = fingerprintCache;
+    this.metrics = metrics;
+    this.rootSpans = rootSpans;
+  }
+
+  /**
+   * @return statement tracer reporting to the given tracer, or null if the settings do not require one
+   */
+  static StatementTracer of(Tracer tracer, JdbcTracingProperties jdbcTracingProperties,
+      SqlFingerprintCache fingerprintCache, InstrumentationMetrics metrics) {
+    if (jdbcTracingProperties.getSlowQueryThreshold() <= 0 && !jdbcTracingProperties.isAggregateBatches()
+        && fingerprintCache == null && jdbcTracingProperties.isRootSpans()) {
+      return null;
+    }
+    return new StatementTracer(tracer, jdbcTracingProperties.getSlowQueryThreshold(),
+        jdbcTracingProperties.isAggregateBatches(), fingerprintCache, metrics, jdbcTracingProperties.isRootSpans());
+  }
+
+  /**
+   * @return whether an execution starting now would be traced, false if root spans are disabled and no span is active
+   */
+  boolean isTracing() {
+    return rootSpans || tracer.activeSpan() != null;
+  }
+
+  /**
+   * @return whether batches are reported as one span with a fingerprint instead of the concatenated statements
+   */
+  boolean isAggregateBatches() {
+    return aggregateBatches;
+  }
+
+  /**
+   * @return normalized fingerprint of the given SQL, cached if statements are reported as fingerprints
+   */
+  String fingerprint(String sql) {
+    return fingerprintCache != null ? fingerprintCache.fingerprint(sql) : SqlNormalizer.normalize(sql);
+  }
+
+  Object execute(String operationName, String sql, ConnectionInfo connectionInfo, Object statement, Method method,
+      Object[] args) throws Throwable {
+    return execute(operationName, sql, null, NO_BATCH, connectionInfo, statement, method, args);
+  }
+
+  /**
+   * @param batch statements of the batch, fingerprinted if the batch is reported
+   * @param batchSize number of statements of an aggregated batch
+   */
+  Object executeBatch(Batch batch, int batchSize, ConnectionInfo connectionInfo, Object statement, Method method,
+      Object[] args) throws Throwable {
+    return execute("Batch", null, batch, batchSize, connectionInfo, statement, method, args);
+  }
+
+  private Object execute(String operationName, String sql, Batch batch, int batchSize, ConnectionInfo connectionInfo,
+      Object statement, Method method, Object[] args) throws Throwable {
+    if (slowQueryThresholdNanos == 0) {
+      try (ActiveSpan span = buildSpan(operationName, statementTag(sql, batch), connectionInfo).startActive()) {
+        metrics.spanStarted();
+        try {
+          Object result = invoke(statement, method, args);
+          if (batchSize != NO_BATCH) {
+            onBatch(span, batchSize, result);
+          }
+          return result;
+        } catch (Throwable ex) {
+          onError(span, ex);
+          throw ex;
+        } finally {
+          metrics.spanFinished();
+        }
+      }
+    }
+
+    long startMicros = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+    long startNanos = System.nanoTime();
+    Object result = null;
+    Throwable error = null;
+    try {
+      result = invoke(statement, method, args);
+      return result;
+    } catch (Throwable ex) {
+      error = ex;
+      throw ex;
+    } finally {
+      long durationNanos = System.nanoTime() - startNanos;
+      if (error != null || durationNanos >= slowQueryThresholdNanos) {
+        Span span = buildSpan(operationName, statementTag(sql, batch), connectionInfo)
+            .withStartTimestamp(startMicros)
+            .startManual();
+        metrics.spanStarted();
+        if (batchSize != NO_BATCH) {
+          onBatch(span, batchSize, result);
+        }
+        if (error != null) {
+          onError(span, error);
+        }
+        span.finish(startMicros + TimeUnit.NANOSECONDS.toMicros(durationNanos));
+        metrics.spanFinished();
+      }
+    }
+  }
+
+  static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException ex) {
+      throw ex.getCause();
+    }
+  }
+
+  private String statementTag(String sql, Batch batch) {
+    if (batch != null) {
+      return batch.fingerprint();
+    }
+    return fingerprintCache != null ? fingerprintCache.fingerprint(sql) : sql;
+  }
+
+  private Tracer.SpanBuilder buildSpan(String operationName, String sql, ConnectionInfo connectionInfo) {
+    Tracer.SpanBuilder spanBuilder = tracer.buildSpan(operationName)
+        .withTag(Tags.SPAN_KIND.getKey(), Tags.SPAN_KIND_CLIENT)
+        .withTag(Tags.COMPONENT.getKey(), COMPONENT_NAME)
+        .withTag(Tags.DB_STATEMENT.getKey(), sql)
+        .withTag(Tags.DB_TYPE.getKey(), connectionInfo.getDbType());
+    if (connectionInfo.getDbUser() != null) {
+      spanBuilder.withTag(Tags.DB_USER.getKey(), connectionInfo.getDbUser());
+    }
+    if (connectionInfo.getDbInstance() != null) {
+      spanBuilder.withTag(Tags.DB_INSTANCE.getKey(), connectionInfo.getDbInstance());
+    }
+    return spanBuilder;
+  }
+
+  private static void onBatch(BaseSpan<?> span, int batchSize, Object result) {
+    span.setTag(DB_BATCH_SIZE, batchSize);
+    long rowsAffected = rowsAffected(result);
+    if (rowsAffected >= 0) {
+      span.setTag(DB_ROWS_AFFECTED, rowsAffected);
+    }
+  }
+
+  /**
+   * @return sum of the update counts, -1 if the driver did not report any
+   */
+  private static long rowsAffected(Object updateCounts) {
+    long rowsAffected = -1;
+    if (updateCounts instanceof int[]) {
+      for (int updateCount : (int[]) updateCounts) {
+        if (updateCount >= 0) {
+          rowsAffected = Math.max(rowsAffected, 0) + updateCount;
+        }
+      }
+    } else if (updateCounts instanceof long[]) {
+      for (long updateCount : (long[]) updateCounts) {
+        if (updateCount >= 0) {
+          rowsAffected = Math.max(rowsAffected, 0) + updateCount;
+        }
+      }
+    }
+    return rowsAffected;
+  }
+
+  static void onError(BaseSpan<?> span, Throwable throwable) {
+    Tags.ERROR.set(span, Boolean.TRUE);
+    Map<String, Object> errorLogs = new HashMap<>(2);
+    errorLogs.put("event", Tags.ERROR.getKey());
+    errorLogs.put("error.object", throwable);
+    span.log(errorLogs);
+  }
+}
@@ -0,0 +1,101 @@
+package io.opentracing.contrib.spring.cloud.jdbc;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+/**
+ * Connection proxy handing out statements traced by {@link StatementTracer}. Used instead of
+ * {@link io.opentracing.contrib.jdbc.TracingConnection} when the configured tracing features are not supported by it.
+ */
+final class TracingConnectionHandler implements InvocationHandler {
+
+  private static final Constructor<?> CONNECTION_PROXY = proxyConstructor(Connection.class);
+  private static final Constructor<?> STATEMENT_PROXY = proxyConstructor(Statement.class);
+  private static final Constructor<?> PREPARED_STATEMENT_PROXY = proxyConstructor(PreparedStatement.class);
+  private static final Constructor<?> CALLABLE_STATEMENT_PROXY = proxyConstructor(CallableStatement.class);
+
+  private final Connection connection;
+  private final ConnectionInfo connectionInfo;
+  private final StatementTracer statementTracer;
+  private Connection proxy;
+
+  private TracingConnectionHandler(Connection connection, ConnectionInfo connectionInfo,
+      StatementTracer statementTracer) {
+    this.connection = connection;
+    this.connectionInfo = connectionInfo;
+    this.statementTracer = statementTracer;
+  }
+
+  static Connection wrap(Connection connection, ConnectionInfo connectionInfo, StatementTracer statementTracer) {
+    TracingConnectionHandler handler = new TracingConnectionHandler(connection, connectionInfo, statementTracer);
+    handler.proxy = (Connection) newProxy(CONNECTION_PROXY, handler);
+    return handler.proxy;
+  }
+
+  /**
+   * @return whether the connection is already traced by {@link io.opentracing.contrib.jdbc.TracingConnection} or this
+   * handler
+   */
+  static boolean isTraced(Connection connection) {
+    return connection instanceof io.opentracing.contrib.jdbc.TracingConnection
+        || connection.getClass() == CONNECTION_PROXY.getDeclaringClass();
+  }
+
+  @Override
+  public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+    switch (method.getName()) {
+      case "equals":
+        return proxy == args[0];
+      case "hashCode":
+        return System.identityHashCode(proxy);
+      case "unwrap":
+        if (((Class<?>) args[0]).isInstance(proxy)) {
+          return proxy;
+        }
+        break;
+      case "isWrapperFor":
+        if (((Class<?>) args[0]).isInstance(proxy)) {
+          return true;
+        }
+        break;
+      case "createStatement":
+        return wrapStatement(STATEMENT_PROXY, (Statement) StatementTracer.invoke(connection, method, args), null);
+      case "prepareStatement":
+        return wrapStatement(PREPARED_STATEMENT_PROXY, (Statement) StatementTracer.invoke(connection, method, args),
+            (String) args[0]);
+      case "prepareCall":
+        return wrapStatement(CALLABLE_STATEMENT_PROXY, (Statement) StatementTracer.invoke(connection, method, args),
+            (String) args[0]);
+      default:
+    }
+    return StatementTracer.invoke(connection, method, args);
+  }
+
+  private Object wrapStatement(Constructor<?> proxyConstructor, Statement statement, String sql) {
+    return newProxy(proxyConstructor, new TracingStatementHandler(statement, sql, proxy, connectionInfo,
+        statementTracer));
+  }
+
+  private static Constructor<?> proxyConstructor(Class<?> type) {
+    try {
+      return Proxy.getProxyClass(TracingConnectionHandler.class.getClassLoader(), type)
+          .getConstructor(InvocationHandler.class);
+    } catch (NoSuchMethodException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  private static Object newProxy(Constructor<?> proxyConstructor, InvocationHandler handler) {
+    try {
+      return proxyConstructor.newInstance(handler);
+    } catch (ReflectiveOperationException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+}
@@ -0,0 +1,97 @@
+package io.opentracing.contrib.spring.cloud.jdbc;
+
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+/**
+ * {@link DataSource} wrapping connections of the delegate with {@link ConnectionTracer}, used instead of
+ * {@link JdbcAspect} for data source beans of final classes, which {@link TracingDataSourceBeanPostProcessor} cannot
+ * proxy. Checkouts are plain method calls, without matching a pointcut or creating a join point. The wrapper hides the
+ * class of the delegate, inject it as {@link DataSource} and use {@link #unwrap} to reach the delegate.
+ */
+public class TracingDataSource implements DataSource {
+
+  private final DataSource delegate;
+  private final ConnectionTracer connectionTracer;
+  private final ConnectionTracer.Checkout<SQLException> checkout = new ConnectionTracer.Checkout<SQLException>() {
+    @Override
+    public Connection getConnection() throws SQLException {
+      return delegate.getConnection();
+    }
+  };
+
+  public TracingDataSource(DataSource delegate, ConnectionTracer connectionTracer) {
+    this.delegate = delegate;
+    this.connectionTracer = connectionTracer;
+  }
+
+  public DataSource getDelegate() {
+    return delegate;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return connectionTracer.acquire(delegate, checkout);
+  }
+
+  @Override
+  public Connection getConnection(final String username, final String password) throws SQLException {
+    return connectionTracer.acquire(delegate, new ConnectionTracer.Checkout<SQLException>() {
+      @Override
+      public Connection getConnection() throws SQLException {
+        return delegate.getConnection(username, password);
+      }
+    });
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T unwrap(Class<T> iface) throws SQLException {
+    if (iface.isInstance(this)) {
+      return (T) this;
+    }
+    if (iface.isInstance(delegate)) {
+      return (T) delegate;
+    }
+    return delegate.unwrap(iface);
+  }
+
+  @Override
+  public boolean isWrapperFor(Class<?> iface) throws SQLException {
+    return iface.isInstance(this) || iface.isInstance(delegate) || delegate.isWrapperFor(iface);
+  }
+
+  @Override
+  public PrintWriter getLogWriter() throws SQLException {
+    return delegate.getLogWriter();
+  }
+
+  @Override
+  public void setLogWriter(PrintWriter out) throws SQLException {
+    delegate.setLogWriter(out);
+  }
+
+  @Override
+  public void setLoginTimeout(int seconds) throws SQLException {
+    delegate.setLoginTimeout(seconds);
+  }
+
+  @Override
+  public int getLoginTimeout() throws SQLException {
+    return delegate.getLoginTimeout();
+  }
+
+  @Override
+  public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+    return delegate.getParentLogger();
+  }
+
+  @Override
+  public String toString() {
+    return "TracingDataSource[" + delegate + "]";
+  }
+}
@@ -0,0 +1,77 @@
+package io.opentracing.contrib.spring.cloud.jdbc;
+
+import java.lang.reflect.Modifier;
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Traces connections of {@link DataSource} beans, once per bean, if included by their names. Beans are proxied with a
+ * subclass of their class, so that they can still be injected by their concrete types, e.g. as pools whose metadata is
+ * read. Beans which are already proxies get the {@link TracingDataSourceInterceptor} added, beans of final classes are
+ * wrapped in {@link TracingDataSource}.
+ * <p>
+ * Settings and the {@link ConnectionTracer} are looked up when the first data source is post processed, a post
+ * processor is created before configuration properties can be bound.
+ */
+public class TracingDataSourceBeanPostProcessor implements BeanPostProcessor {
+
+  private final BeanFactory beanFactory;
+
+  TracingDataSourceBeanPostProcessor(BeanFactory beanFactory) {
+    this.beanFactory = beanFactory;
+  }
+
+  @Override
+  public Object postProcessBeforeInitialization(Object bean, String name) throws BeansException {
+    return bean;
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String name) throws BeansException {
+    if (!(bean instanceof DataSource) || isTraced(bean)
+        || !isIncluded(name, beanFactory.getBean(JdbcTracingProperties.class))) {
+      return bean;
+    }
+    ConnectionTracer connectionTracer = beanFactory.getBean(ConnectionTracer.class);
+    if (bean instanceof Advised && !((Advised) bean).isFrozen()) {
+      ((Advised) bean).addAdvice(0, new TracingDataSourceInterceptor(connectionTracer));
+      return bean;
+    }
+    if (Modifier.isFinal(bean.getClass().getModifiers())) {
+      return new TracingDataSource((DataSource) bean, connectionTracer);
+    }
+    ProxyFactory proxyFactory = new ProxyFactory(bean);
+    proxyFactory.setProxyTargetClass(true);
+    proxyFactory.addAdvice(new TracingDataSourceInterceptor(connectionTracer));
+    return proxyFactory.getProxy(bean.getClass().getClassLoader());
+  }
+
+  /**
+   * @return whether connections of the bean are already traced by this post processor
+   */
+  static boolean isTraced(Object bean) {
+    if (bean instanceof TracingDataSource) {
+      return true;
+    }
+    if (bean instanceof Advised) {
+      for (Advisor advisor : ((Advised) bean).getAdvisors()) {
+        if (advisor.getAdvice() instanceof TracingDataSourceInterceptor) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  static boolean isIncluded(String name, JdbcTracingProperties jdbcTracingProperties) {
+    List<String> include = jdbcTracingProperties.getIncludeDataSources();
+    return (include.isEmpty() || include.contains(name))
+        && !jdbcTracingProperties.getExcludeDataSources().contains(name);
+  }
+}
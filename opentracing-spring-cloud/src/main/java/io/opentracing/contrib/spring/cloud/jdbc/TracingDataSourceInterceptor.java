@@ -0,0 +1,37 @@
+package io.opentracing.contrib.spring.cloud.jdbc;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import javax.sql.DataSource;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Wraps connections checked out of a proxied data source with {@link ConnectionTracer}, the equivalent of
+ * {@link TracingDataSource} for proxies of the data source class. Other methods are passed to the data source.
+ */
+final class TracingDataSourceInterceptor implements MethodInterceptor {
+
+  private final ConnectionTracer connectionTracer;
+
+  TracingDataSourceInterceptor(ConnectionTracer connectionTracer) {
+    this.connectionTracer = connectionTracer;
+  }
+
+  @Override
+  public Object invoke(final MethodInvocation invocation) throws Throwable {
+    if (!isGetConnection(invocation.getMethod())) {
+      return invocation.proceed();
+    }
+    return connectionTracer.acquire((DataSource) invocation.getThis(), new ConnectionTracer.Checkout<Throwable>() {
+      @Override
+      public Connection getConnection() throws Throwable {
+        return (Connection) invocation.proceed();
+      }
+    });
+  }
+
+  private static boolean isGetConnection(Method method) {
+    return "getConnection".equals(method.getName()) && method.getReturnType() == Connection.class;
+  }
+}
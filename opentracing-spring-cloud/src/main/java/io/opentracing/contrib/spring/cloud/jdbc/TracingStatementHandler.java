@@ -0,0 +1,198 @@
+package io.opentracing.contrib.spring.cloud.jdbc;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Statement proxy tracing executions with {@link StatementTracer}. Operation names and the statement tag of batches
+ * are the same as of {@link io.opentracing.contrib.jdbc.TracingStatement}.
+ * <p>
+ * Executions which would not be traced are passed to the statement as they are, batch statements added meanwhile are
+ * not kept. Whether a batch is traced is decided when its first statement is added, so that its statements are either
+ * all recorded or not at all.
+ */
+final class TracingStatementHandler implements InvocationHandler, StatementTracer.Batch {
+
+  /**
+   * Maximum number of statements of an aggregated batch, from which its fingerprint is computed. Consecutive repeats of
+   * a statement count once, statements added after the limit is reached are not fingerprinted.
+   */
+  static final int MAX_BATCH_SAMPLES = 8;
+  /**
+   * Appended to the fingerprint of a batch whose later statements were not fingerprinted
+   */
+  static final String BATCH_TRUNCATED = "; ...";
+
+  private final Statement statement;
+  /**
+   * SQL of a prepared or callable statement, null for plain statements
+   */
+  private final String sql;
+  private final Connection connection;
+  private final ConnectionInfo connectionInfo;
+  private final StatementTracer statementTracer;
+  private List<String> batchCommands;
+  /**
+   * Number of statements of the current batch, only counted when batches are aggregated
+   */
+  private int batchSize;
+  /**
+   * Whether a statement distinct from the kept ones was added after the limit was reached
+   */
+  private boolean batchTruncated;
+  /**
+   * Whether the current batch is traced, null until its first statement is added
+   */
+  private Boolean batchTraced;
+
+  TracingStatementHandler(Statement statement, String sql, Connection connection, ConnectionInfo connectionInfo,
+      StatementTracer statementTracer) {
+    this.statement = statement;
+    this.sql = sql;
+    this.connection = connection;
+    this.connectionInfo = connectionInfo;
+    this.statementTracer = statementTracer;
+  }
+
+  @Override
+  public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+    switch (method.getName()) {
+      case "executeQuery":
+        return execute("Query", method, args);
+      case "executeUpdate":
+      case "executeLargeUpdate":
+        return execute("Update", method, args);
+      case "execute":
+        return execute("Execute", method, args);
+      case "executeBatch":
+      case "executeLargeBatch":
+        if (!(batchTraced != null ? batchTraced : statementTracer.isTracing())) {
+          clearBatch();
+          break;
+        }
+        try {
+          if (statementTracer.isAggregateBatches()) {
+            return statementTracer.executeBatch(this, batchSize, connectionInfo, statement, method, args);
+          }
+          return statementTracer.execute("Batch", batchSql(), connectionInfo, statement, method, args);
+        } finally {
+          // the batch is reset by the execution
+          clearBatch();
+        }
+      case "addBatch":
+        addBatch(args);
+        break;
+      case "clearBatch":
+        clearBatch();
+        break;
+      case "getConnection":
+        return connection;
+      case "equals":
+        return proxy == args[0];
+      case "hashCode":
+        return System.identityHashCode(proxy);
+      case "unwrap":
+        if (((Class<?>) args[0]).isInstance(proxy)) {
+          return proxy;
+        }
+        break;
+      case "isWrapperFor":
+        if (((Class<?>) args[0]).isInstance(proxy)) {
+          return true;
+        }
+        break;
+      default:
+    }
+    return StatementTracer.invoke(statement, method, args);
+  }
+
+  private Object execute(String operationName, Method method, Object[] args) throws Throwable {
+    if (!statementTracer.isTracing()) {
+      return StatementTracer.invoke(statement, method, args);
+    }
+    String executedSql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : sql;
+    return statementTracer.execute(operationName, executedSql, connectionInfo, statement, method, args);
+  }
+
+  private void addBatch(Object[] args) {
+    if (batchTraced == null) {
+      batchTraced = statementTracer.isTracing();
+    }
+    if (!batchTraced) {
+      return;
+    }
+    if (statementTracer.isAggregateBatches()) {
+      batchSize++;
+      // only a few statements are kept, so that large batches have constant overhead
+      if (args != null && !batchTruncated) {
+        String batchCommand = (String) args[0];
+        if (batchCommands == null || !batchCommand.equals(batchCommands.get(batchCommands.size() - 1))) {
+          if (batchCommands != null && batchCommands.size() == MAX_BATCH_SAMPLES) {
+            batchTruncated = true;
+          } else {
+            batchCommands().add(batchCommand);
+          }
+        }
+      }
+    } else if (args != null) {
+      batchCommands().add((String) args[0]);
+    }
+  }
+
+  private void clearBatch() {
+    batchCommands = null;
+    batchSize = 0;
+    batchTruncated = false;
+    batchTraced = null;
+  }
+
+  private List<String> batchCommands() {
+    if (batchCommands == null) {
+      batchCommands = new ArrayList<>();
+    }
+    return batchCommands;
+  }
+
+  /**
+   * @return distinct fingerprints of the first {@link #MAX_BATCH_SAMPLES} statements of the batch, followed by
+   * {@link #BATCH_TRUNCATED} if later statements were skipped, or the fingerprint of the prepared statement
+   */
+  @Override
+  public String fingerprint() {
+    if (batchCommands == null) {
+      return sql != null ? statementTracer.fingerprint(sql) : "";
+    }
+    Set<String> fingerprints = new LinkedHashSet<>();
+    for (String batchCommand : batchCommands) {
+      fingerprints.add(statementTracer.fingerprint(batchCommand));
+    }
+    StringBuilder batchFingerprint = new StringBuilder();
+    for (String fingerprint : fingerprints) {
+      if (batchFingerprint.length() > 0) {
+        batchFingerprint.append("; ");
+      }
+      batchFingerprint.append(fingerprint);
+    }
+    if (batchTruncated) {
+      batchFingerprint.append(BATCH_TRUNCATED);
+    }
+    return batchFingerprint.toString();
+  }
+
+  private String batchSql() {
+    if (batchCommands == null) {
+      return sql != null ? sql : "";
+    }
+    StringBuilder batchSql = new StringBuilder();
+    for (String batchCommand : batchCommands) {
+      batchSql.append(batchCommand);
+    }
+    return batchSql.toString();
+  }
+}
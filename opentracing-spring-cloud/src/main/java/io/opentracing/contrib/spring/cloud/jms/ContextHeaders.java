@@ -0,0 +1,50 @@
+package io.opentracing.contrib.spring.cloud.jms;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+
+import io.opentracing.SpanContext;
+import io.opentracing.Tracer;
+import io.opentracing.propagation.Format;
+import io.opentracing.propagation.TextMap;
+
+/**
+ * Span context injected once and set as properties of any number of messages. Keys are encoded by
+ * {@link JmsPropertyNames}.
+ */
+final class ContextHeaders implements TextMap {
+
+  private final List<String> keys = new ArrayList<>(4);
+  private final List<String> values = new ArrayList<>(4);
+
+  private ContextHeaders() {
+  }
+
+  static ContextHeaders inject(Tracer tracer, SpanContext context) {
+    ContextHeaders headers = new ContextHeaders();
+    tracer.inject(context, Format.Builtin.TEXT_MAP, headers);
+    return headers;
+  }
+
+  void setProperties(Message message) throws JMSException {
+    for (int i = 0; i < keys.size(); i++) {
+      message.setStringProperty(keys.get(i), values.get(i));
+    }
+  }
+
+  @Override
+  public void put(String key, String value) {
+    keys.add(JmsPropertyNames.encode(key));
+    values.add(value);
+  }
+
+  @Override
+  public Iterator<Map.Entry<String, String>> iterator() {
+    throw new UnsupportedOperationException("ContextHeaders should only be used with Tracer.inject()");
+  }
+}
@@ -1,16 +1,17 @@
 package io.opentracing.contrib.spring.cloud.jms;
 
-import javax.jms.ConnectionFactory;
 import javax.jms.Message;
 
 import io.opentracing.Tracer;
-import io.opentracing.contrib.jms.spring.TracingJmsTemplate;
-import org.springframework.aop.framework.ProxyFactory;
-import org.springframework.aop.target.AbstractLazyCreationTargetSource;
+import io.opentracing.contrib.jms.common.TracingMessageUtils;
+import io.opentracing.contrib.spring.cloud.metrics.InstrumentationMetrics;
+import io.opentracing.contrib.spring.cloud.sampling.SpanSampler;
 import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ListableBeanFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.jms.core.JmsTemplate;
@@ -20,36 +21,56 @@ import org.springframework.jms.core.JmsTemplate;
  * @author Eddú Meléndez
  */
 @Configuration
-@ConditionalOnClass({Message.class, JmsTemplate.class})
+@ConditionalOnClass({Message.class, JmsTemplate.class, TracingMessageUtils.class})
 @ConditionalOnBean(Tracer.class)
 @ConditionalOnProperty(name = "opentracing.spring.cloud.jms.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(JmsTracingProperties.class)
 public class JmsAutoConfiguration {
 
   @Bean
-  public JmsListenerAspect jmsListenerAspect() {
-    return new JmsListenerAspect();
+  @ConditionalOnProperty(name = "opentracing.spring.cloud.jms.wrap-listener-containers", havingValue = "false",
+      matchIfMissing = true)
+  public static JmsListenerAspectBeanPostProcessor jmsListenerAspectBeanPostProcessor() {
+    return new JmsListenerAspectBeanPostProcessor();
   }
 
   @Bean
-  public JmsTemplate jmsTemplate(BeanFactory beanFactory, Tracer tracer) {
+  @ConditionalOnProperty(name = "opentracing.spring.cloud.jms.wrap-listener-containers", havingValue = "true")
+  public TracingListenerContainerInitializer tracingListenerContainerInitializer(ListableBeanFactory beanFactory,
+      Tracer tracer, MessageListenerTracer jmsMessageListenerTracer) {
+    return new TracingListenerContainerInitializer(beanFactory, tracer, jmsMessageListenerTracer);
+  }
+
+  @Bean
+  public SamplingJmsTemplate jmsTemplate(BeanFactory beanFactory, Tracer tracer, SpanSampler jmsSpanSampler,
+      JmsTracingProperties jmsTracingProperties) {
     // we create lazy proxy, to avoid dependency and config order
     // if JMS is used, and ConnectionFactory bean is not present,
     // it will throw an error on first use, so imo, we should be all good
-    ConnectionFactory connectionFactory = createProxy(beanFactory);
-    return new TracingJmsTemplate(connectionFactory, tracer);
+    return new SamplingJmsTemplate(new LazyConnectionFactory(beanFactory), tracer, jmsSpanSampler,
+        jmsInstrumentationMetrics(jmsTracingProperties));
+  }
+
+  /**
+   * Traces received messages, for the listener aspect or the listener containers
+   */
+  @Bean
+  MessageListenerTracer jmsMessageListenerTracer(SpanSampler jmsSpanSampler,
+      JmsTracingProperties jmsTracingProperties) {
+    return new MessageListenerTracer(jmsSpanSampler, jmsInstrumentationMetrics(jmsTracingProperties),
+        jmsTracingProperties.isPropagatedSampling());
   }
 
-  private ConnectionFactory createProxy(final BeanFactory beanFactory) {
-    return (ConnectionFactory) ProxyFactory.getProxy(new AbstractLazyCreationTargetSource() {
-      @Override
-      public synchronized Class<?> getTargetClass() {
-        return ConnectionFactory.class;
-      }
-
-      @Override
-      protected Object createObject() throws Exception {
-        return beanFactory.getBean(ConnectionFactory.class);
-      }
-    });
+  @Bean
+  public InstrumentationMetrics jmsInstrumentationMetrics(JmsTracingProperties jmsTracingProperties) {
+    return jmsTracingProperties.createMetrics("jms");
+  }
+
+  /**
+   * Shared by producers and consumers, so that the rate limit applies to all JMS operations
+   */
+  @Bean
+  public SpanSampler jmsSpanSampler(JmsTracingProperties jmsTracingProperties) {
+    return jmsTracingProperties.createSampler();
   }
 }
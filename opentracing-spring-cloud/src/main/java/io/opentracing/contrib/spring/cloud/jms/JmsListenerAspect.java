@@ -1,16 +1,24 @@
 package io.opentracing.contrib.spring.cloud.jms;
 
 import javax.jms.Message;
-import javax.jms.MessageListener;
 
+import io.opentracing.ActiveSpan;
 import io.opentracing.Tracer;
-import io.opentracing.contrib.jms.common.TracingMessageListener;
+import io.opentracing.contrib.spring.cloud.metrics.InstrumentationMetrics;
+import io.opentracing.contrib.spring.cloud.sampling.SpanSampler;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /**
+ * Traces {@link org.springframework.jms.annotation.JmsListener} methods the same way as
+ * {@link io.opentracing.contrib.jms.common.TracingMessageListener}, but without allocating a listener chain per
+ * message. Exceptions thrown by the listener method are propagated as they are.
+ * <p>
+ * Only listener methods with a {@link Message} argument are traced, {@link TracedMessageListener} traces listener
+ * containers regardless of the signatures of their listeners.
+ *
  * @author <a href="mailto:ales.justin@jboss.org">Ales Justin</a>
  */
 @Aspect
@@ -18,29 +26,39 @@ public class JmsListenerAspect {
   @Autowired
   Tracer tracer;
 
-  @Around("@annotation(org.springframework.jms.annotation.JmsListener) && args(msg)")
-  public Object aroundListenerMethod(final ProceedingJoinPoint pjp, Message msg) throws Throwable {
-    JoinPointMessageListener pjpListener = new JoinPointMessageListener(pjp);
-    MessageListener listener = new TracingMessageListener(pjpListener, tracer);
-    listener.onMessage(msg);
-    return pjpListener.returnValue;
+  private final MessageListenerTracer listenerTracer;
+
+  public JmsListenerAspect() {
+    this(SpanSampler.always());
   }
 
-  private static class JoinPointMessageListener implements MessageListener {
-    private final ProceedingJoinPoint pjp;
-    private Object returnValue;
+  /**
+   * @param sampler decides which received messages are traced
+   */
+  public JmsListenerAspect(SpanSampler sampler) {
+    this(sampler, InstrumentationMetrics.disabled());
+  }
 
-    public JoinPointMessageListener(ProceedingJoinPoint pjp) {
-      this.pjp = pjp;
-    }
+  JmsListenerAspect(SpanSampler sampler, InstrumentationMetrics metrics) {
+    this(new MessageListenerTracer(sampler, metrics));
+  }
+
+  JmsListenerAspect(MessageListenerTracer listenerTracer) {
+    this.listenerTracer = listenerTracer;
+  }
 
-    @Override
-    public void onMessage(Message message) {
-      try {
-        returnValue = pjp.proceed();
-      } catch (Throwable throwable) {
-        throw new RuntimeException(throwable);
-      }
+  @Around("@annotation(org.springframework.jms.annotation.JmsListener) && args(msg)")
+  public Object aroundListenerMethod(final ProceedingJoinPoint pjp, Message msg) throws Throwable {
+    InstrumentationMetrics metrics = listenerTracer.getMetrics();
+    long start = metrics.nanoTime();
+    ActiveSpan span = listenerTracer.onMessage(tracer, msg);
+    long proceedStart = metrics.nanoTime();
+    try {
+      return pjp.proceed();
+    } finally {
+      long proceedEnd = metrics.nanoTime();
+      listenerTracer.onProcessed(span);
+      metrics.overhead(proceedStart - start + metrics.nanoTime() - proceedEnd);
     }
   }
 }
@@ -0,0 +1,50 @@
+package io.opentracing.contrib.spring.cloud.jms;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import io.opentracing.Tracer;
+import io.opentracing.contrib.spring.cloud.aop.TargetedAspectBeanPostProcessor;
+import org.springframework.jms.annotation.JmsListener;
+
+/**
+ * Applies {@link JmsListenerAspect} to beans declaring {@link JmsListener} methods only, other beans are not matched
+ * against its pointcut. The aspect is created with the {@link Tracer} and {@link MessageListenerTracer} beans when the
+ * first listener bean is post processed.
+ */
+public class JmsListenerAspectBeanPostProcessor extends TargetedAspectBeanPostProcessor {
+
+  private final ConcurrentMap<Class<?>, Boolean> listenerClasses = new ConcurrentHashMap<>();
+
+  JmsListenerAspectBeanPostProcessor() {
+  }
+
+  @Override
+  protected boolean isEligible(Class<?> targetClass) {
+    Boolean listenerClass = listenerClasses.get(targetClass);
+    if (listenerClass == null) {
+      listenerClass = hasListenerMethod(targetClass);
+      listenerClasses.put(targetClass, listenerClass);
+    }
+    return listenerClass;
+  }
+
+  @Override
+  protected Object createAspect() {
+    JmsListenerAspect aspect = new JmsListenerAspect(getBeanFactory().getBean(MessageListenerTracer.class));
+    aspect.tracer = getBeanFactory().getBean(Tracer.class);
+    return aspect;
+  }
+
+  private static boolean hasListenerMethod(Class<?> targetClass) {
+    for (Class<?> type = targetClass; type != null && type != Object.class; type = type.getSuperclass()) {
+      for (Method method : type.getDeclaredMethods()) {
+        if (method.isAnnotationPresent(JmsListener.class)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+}
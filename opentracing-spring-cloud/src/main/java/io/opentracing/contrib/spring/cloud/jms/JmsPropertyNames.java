@@ -0,0 +1,56 @@
+package io.opentracing.contrib.spring.cloud.jms;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Encodes span context keys as JMS property names and decodes them back, the same way as
+ * {@link io.opentracing.contrib.jms.common.JmsTextMapInjectAdapter} and
+ * {@link io.opentracing.contrib.jms.common.JmsTextMapExtractAdapter}. JMS property names cannot contain dashes, which
+ * are replaced by {@link #DASH}.
+ * <p>
+ * Tracers use a small set of keys, so encoded and decoded names are computed once and looked up afterwards, instead of
+ * replacing strings on every message. The lookups are limited to {@link #MAX_CACHED_NAMES} names, e.g. for baggage
+ * with many distinct keys, further names are encoded on every call.
+ */
+final class JmsPropertyNames {
+
+  static final String DASH = "_$dash$_";
+  static final int MAX_CACHED_NAMES = 1024;
+
+  private static final ConcurrentMap<String, String> encoded = new ConcurrentHashMap<>();
+  private static final ConcurrentMap<String, String> decoded = new ConcurrentHashMap<>();
+
+  private JmsPropertyNames() {
+  }
+
+  /**
+   * @return property name of the given key of a span context
+   */
+  static String encode(String key) {
+    String name = encoded.get(key);
+    if (name == null) {
+      name = key.indexOf('-') < 0 ? key : key.replace("-", DASH);
+      cache(encoded, key, name);
+    }
+    return name;
+  }
+
+  /**
+   * @return key of a span context of the given property name
+   */
+  static String decode(String name) {
+    String key = decoded.get(name);
+    if (key == null) {
+      key = name.contains(DASH) ? name.replace(DASH, "-") : name;
+      cache(decoded, name, key);
+    }
+    return key;
+  }
+
+  private static void cache(ConcurrentMap<String, String> names, String name, String value) {
+    if (names.size() < MAX_CACHED_NAMES) {
+      names.putIfAbsent(name, value);
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package io.opentracing.contrib.spring.cloud.jms;
+
+import io.opentracing.contrib.spring.cloud.sampling.SamplingProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the JMS integration.
+ */
+@ConfigurationProperties("opentracing.spring.cloud.jms")
+public class JmsTracingProperties extends SamplingProperties {
+
+  /**
+   * Trace the message listeners of listener containers instead of intercepting @JmsListener methods with a Message
+   * argument by an aspect.
+   */
+  private boolean wrapListenerContainers;
+  /**
+   * Do not trace received messages whose producer did not sample its trace, read from the Jaeger, W3C trace context or
+   * B3 message properties. Their trace id is put into the logging MDC as traceId instead.
+   */
+  private boolean propagatedSampling;
+
+  public boolean isWrapListenerContainers() {
+    return wrapListenerContainers;
+  }
+
+  public void setWrapListenerContainers(boolean wrapListenerContainers) {
+    this.wrapListenerContainers = wrapListenerContainers;
+  }
+
+  public boolean isPropagatedSampling() {
+    return propagatedSampling;
+  }
+
+  public void setPropagatedSampling(boolean propagatedSampling) {
+    this.propagatedSampling = propagatedSampling;
+  }
+}
@@ -0,0 +1,46 @@
+package io.opentracing.contrib.spring.cloud.jms;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.JMSException;
+
+import org.springframework.beans.factory.BeanFactory;
+
+/**
+ * {@link ConnectionFactory} looking up the target bean on first use, to avoid dependency and config order. Once
+ * resolved, calls go straight to the target. The lookup is not guarded, concurrent first calls may resolve the
+ * target more than once, but all of them get the same singleton bean.
+ */
+final class LazyConnectionFactory implements ConnectionFactory {
+
+  private final BeanFactory beanFactory;
+  private volatile ConnectionFactory target;
+
+  LazyConnectionFactory(BeanFactory beanFactory) {
+    this.beanFactory = beanFactory;
+  }
+
+  @Override
+  public Connection createConnection() throws JMSException {
+    return getTarget().createConnection();
+  }
+
+  @Override
+  public Connection createConnection(String userName, String password) throws JMSException {
+    return getTarget().createConnection(userName, password);
+  }
+
+  ConnectionFactory getTarget() {
+    ConnectionFactory target = this.target;
+    if (target == null) {
+      target = beanFactory.getBean(ConnectionFactory.class);
+      this.target = target;
+    }
+    return target;
+  }
+
+  @Override
+  public String toString() {
+    return "LazyConnectionFactory[" + target + "]";
+  }
+}
@@ -0,0 +1,93 @@
+package io.opentracing.contrib.spring.cloud.jms;
+
+import java.util.AbstractMap;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+
+import io.opentracing.propagation.TextMap;
+
+/**
+ * Reusable variant of {@link io.opentracing.contrib.jms.common.JmsTextMapExtractAdapter}. Message properties are read
+ * only when the tracer iterates over the carrier, instead of being copied into a map up front, and their names are
+ * decoded by {@link JmsPropertyNames}.
+ */
+class MessageExtractAdapter implements TextMap {
+
+  private Message message;
+
+  void setMessage(Message message) {
+    this.message = message;
+  }
+
+  @Override
+  public Iterator<Map.Entry<String, String>> iterator() {
+    try {
+      return new PropertyIterator(message, message.getPropertyNames());
+    } catch (JMSException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Override
+  public void put(String key, String value) {
+    throw new UnsupportedOperationException("MessageExtractAdapter should only be used with Tracer.extract()");
+  }
+
+  /**
+   * Iterates over the string properties of a message, with decoded keys
+   */
+  private static class PropertyIterator implements Iterator<Map.Entry<String, String>> {
+    private final Message message;
+    private final Enumeration<?> propertyNames;
+    private Map.Entry<String, String> next;
+
+    PropertyIterator(Message message, Enumeration<?> propertyNames) {
+      this.message = message;
+      this.propertyNames = propertyNames;
+      advance();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public Map.Entry<String, String> next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      Map.Entry<String, String> current = next;
+      advance();
+      return current;
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+
+    private void advance() {
+      next = null;
+      if (propertyNames == null) {
+        return;
+      }
+      try {
+        while (next == null && propertyNames.hasMoreElements()) {
+          String key = (String) propertyNames.nextElement();
+          Object value = message.getObjectProperty(key);
+          if (value instanceof String) {
+            next = new AbstractMap.SimpleImmutableEntry<>(JmsPropertyNames.decode(key), (String) value);
+          }
+        }
+      } catch (JMSException e) {
+        throw new RuntimeException(e);
+      }
+    }
+  }
+}
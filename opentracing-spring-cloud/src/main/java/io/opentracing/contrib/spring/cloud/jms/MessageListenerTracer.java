@@ -0,0 +1,143 @@
+package io.opentracing.contrib.spring.cloud.jms;
+
+import javax.jms.Message;
+
+import io.opentracing.ActiveSpan;
+import io.opentracing.References;
+import io.opentracing.SpanContext;
+import io.opentracing.Tracer;
+import io.opentracing.contrib.jms.common.TracingMessageUtils;
+import io.opentracing.contrib.spring.cloud.concurrent.VirtualThreads;
+import io.opentracing.contrib.spring.cloud.metrics.InstrumentationMetrics;
+import io.opentracing.contrib.spring.cloud.sampling.SpanSampler;
+import io.opentracing.propagation.Format;
+import io.opentracing.tag.Tags;
+import org.slf4j.MDC;
+
+/**
+ * Starts spans of received messages the same way as {@link io.opentracing.contrib.jms.common.TracingMessageListener},
+ * shared by {@link JmsListenerAspect} and {@link TracedMessageListener}.
+ * <p>
+ * Extract adapters are reused per platform thread, listeners running on virtual threads get a new one per message
+ * instead of one per thread, which would not be reused.
+ * <p>
+ * With propagated sampling, messages whose producer did not sample its trace are passed to the listener without
+ * extracting their context or starting a span. Their trace id is put into the logging {@link MDC} as
+ * {@link #TRACE_ID_MDC_KEY} while they are processed, so that logs of the listener can still be correlated. A trace id
+ * put into the MDC before, e.g. by a container of the listener, is restored afterwards.
+ */
+final class MessageListenerTracer {
+
+  static final String TRACE_ID_MDC_KEY = "traceId";
+  private static final String NO_TRACE_ID = "";
+
+  private final ThreadLocal<MessageExtractAdapter> extractAdapters = new ThreadLocal<MessageExtractAdapter>() {
+    @Override
+    protected MessageExtractAdapter initialValue() {
+      return new MessageExtractAdapter();
+    }
+  };
+  /**
+   * Trace id in the MDC before the one of the processed unsampled message was put, {@link #NO_TRACE_ID} if there was
+   * none, null if no trace id was put
+   */
+  private final ThreadLocal<String> previousTraceIds = new ThreadLocal<>();
+  private final SpanSampler sampler;
+  private final InstrumentationMetrics metrics;
+  /**
+   * Whether messages follow the sampling decision propagated by their producers
+   */
+  private final boolean propagatedSampling;
+
+  MessageListenerTracer(SpanSampler sampler, InstrumentationMetrics metrics) {
+    this(sampler, metrics, false);
+  }
+
+  MessageListenerTracer(SpanSampler sampler, InstrumentationMetrics metrics, boolean propagatedSampling) {
+    this.sampler = sampler;
+    this.metrics = metrics;
+    this.propagatedSampling = propagatedSampling;
+  }
+
+  InstrumentationMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * @return active span following the context of the message or the active span, null if the message is not sampled
+   * or there is no context
+   */
+  ActiveSpan onMessage(Tracer tracer, Message message) {
+    String unsampledTraceId = propagatedSampling ? PropagatedSampling.unsampledTraceId(message) : null;
+    if (unsampledTraceId != null) {
+      metrics.spanUnsampled();
+      if (!unsampledTraceId.isEmpty()) {
+        String previousTraceId = MDC.get(TRACE_ID_MDC_KEY);
+        previousTraceIds.set(previousTraceId != null ? previousTraceId : NO_TRACE_ID);
+        MDC.put(TRACE_ID_MDC_KEY, unsampledTraceId);
+      }
+      return null;
+    }
+    if (!sampler.isSampled()) {
+      metrics.spanUnsampled();
+      return null;
+    }
+    SpanContext context = extract(tracer, message);
+    if (context == null) {
+      return null;
+    }
+    ActiveSpan span = tracer.buildSpan(TracingMessageUtils.OPERATION_NAME_RECEIVE)
+        .ignoreActiveSpan()
+        .withTag(Tags.SPAN_KIND.getKey(), Tags.SPAN_KIND_CONSUMER)
+        .addReference(References.FOLLOWS_FROM, context)
+        .startActive();
+    Tags.COMPONENT.set(span, TracingMessageUtils.COMPONENT_NAME);
+    metrics.spanStarted();
+    return span;
+  }
+
+  /**
+   * @param span span returned by {@link #onMessage}, may be null
+   */
+  void onProcessed(ActiveSpan span) {
+    if (span != null) {
+      span.close();
+      metrics.spanFinished();
+    } else if (propagatedSampling) {
+      restoreTraceId();
+    }
+  }
+
+  /**
+   * Restores the MDC trace id, if the one of an unsampled message was put
+   */
+  private void restoreTraceId() {
+    String previousTraceId = previousTraceIds.get();
+    if (previousTraceId == null) {
+      return;
+    }
+    previousTraceIds.remove();
+    if (previousTraceId.equals(NO_TRACE_ID)) {
+      MDC.remove(TRACE_ID_MDC_KEY);
+    } else {
+      MDC.put(TRACE_ID_MDC_KEY, previousTraceId);
+    }
+  }
+
+  private SpanContext extract(Tracer tracer, Message message) {
+    MessageExtractAdapter carrier = VirtualThreads.isCurrentThreadVirtual() ? new MessageExtractAdapter()
+        : extractAdapters.get();
+    SpanContext context;
+    carrier.setMessage(message);
+    try {
+      context = tracer.extract(Format.Builtin.TEXT_MAP, carrier);
+    } finally {
+      carrier.setMessage(null);
+    }
+    if (context != null) {
+      return context;
+    }
+    ActiveSpan activeSpan = tracer.activeSpan();
+    return activeSpan != null ? activeSpan.context() : null;
+  }
+}
@@ -0,0 +1,101 @@
+package io.opentracing.contrib.spring.cloud.jms;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+
+/**
+ * Reads the sampling decision of the producer from the trace context properties of a received message, without
+ * extracting the span context. The properties of Jaeger ({@code uber-trace-id}), W3C trace context
+ * ({@code traceparent}) and B3 ({@code X-B3-Sampled} and {@code b3}) are looked up by name, so that the other
+ * properties of the message are not read, and the trace id is taken from the same property as the sampled flag.
+ */
+final class PropagatedSampling {
+
+  /**
+   * Returned for messages which are not sampled, but do not carry their trace id
+   */
+  static final String UNKNOWN_TRACE_ID = "";
+
+  private static final String UBER_TRACE_ID = JmsPropertyNames.encode("uber-trace-id");
+  private static final String TRACEPARENT = JmsPropertyNames.encode("traceparent");
+  private static final String B3_SAMPLED = JmsPropertyNames.encode("X-B3-Sampled");
+  private static final String B3_TRACE_ID = JmsPropertyNames.encode("X-B3-TraceId");
+  private static final String B3 = JmsPropertyNames.encode("b3");
+
+  /**
+   * Length of {@code version-traceid-spanid-flags}
+   */
+  private static final int TRACEPARENT_LENGTH = 55;
+  private static final int TRACEPARENT_TRACE_ID_START = 3;
+  private static final int TRACEPARENT_TRACE_ID_END = 35;
+
+  private PropagatedSampling() {
+  }
+
+  /**
+   * @return trace id of the propagated context if the producer did not sample it, {@link #UNKNOWN_TRACE_ID} if not
+   * sampled and the trace id is not propagated, null if sampled or if the message carries no known sampling decision
+   */
+  static String unsampledTraceId(Message message) {
+    String uberTraceId = getProperty(message, UBER_TRACE_ID);
+    if (uberTraceId != null) {
+      // traceid:spanid:parentid:flags, the sampled flag is the lowest bit
+      int end = uberTraceId.indexOf(':');
+      return end > 0 && uberTraceId.lastIndexOf(':') > end && isFlagClear(uberTraceId)
+          ? uberTraceId.substring(0, end) : null;
+    }
+    String traceparent = getProperty(message, TRACEPARENT);
+    if (traceparent != null) {
+      return traceparent.length() == TRACEPARENT_LENGTH && isFlagClear(traceparent)
+          ? traceparent.substring(TRACEPARENT_TRACE_ID_START, TRACEPARENT_TRACE_ID_END) : null;
+    }
+    String b3Sampled = getProperty(message, B3_SAMPLED);
+    if (b3Sampled != null) {
+      if (!b3Sampled.equals("0") && !b3Sampled.equalsIgnoreCase("false")) {
+        return null;
+      }
+      String b3TraceId = getProperty(message, B3_TRACE_ID);
+      return b3TraceId != null ? b3TraceId : UNKNOWN_TRACE_ID;
+    }
+    String b3 = getProperty(message, B3);
+    if (b3 != null && isB3NotSampled(b3)) {
+      int end = b3.indexOf('-');
+      return end > 0 ? b3.substring(0, end) : UNKNOWN_TRACE_ID;
+    }
+    return null;
+  }
+
+  /**
+   * @param b3 traceid-spanid-sampling-parentspanid, or only the sampling state
+   */
+  private static boolean isB3NotSampled(String b3) {
+    int start = 0;
+    if (b3.length() > 1) {
+      int spanIdStart = b3.indexOf('-') + 1;
+      start = spanIdStart > 0 ? b3.indexOf('-', spanIdStart) + 1 : 0;
+      if (start == 0 || start >= b3.length()) {
+        return false;
+      }
+    }
+    return b3.charAt(start) == '0';
+  }
+
+  /**
+   * @param value header ending with hex flags, of which the lowest bit is the sampled flag
+   */
+  private static boolean isFlagClear(String value) {
+    int flags = Character.digit(value.charAt(value.length() - 1), 16);
+    return flags >= 0 && (flags & 1) == 0;
+  }
+
+  /**
+   * @return string property of the given name, null if missing or not readable as a string
+   */
+  private static String getProperty(Message message, String name) {
+    try {
+      return message.getStringProperty(name);
+    } catch (JMSException e) {
+      return null;
+    }
+  }
+}
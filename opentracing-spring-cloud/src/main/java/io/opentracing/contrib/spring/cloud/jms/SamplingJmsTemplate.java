@@ -0,0 +1,182 @@
+package io.opentracing.contrib.spring.cloud.jms;
+
+import java.util.Collection;
+
+import javax.jms.ConnectionFactory;
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+
+import io.opentracing.ActiveSpan;
+import io.opentracing.Span;
+import io.opentracing.Tracer;
+import io.opentracing.contrib.jms.common.SpanJmsDecorator;
+import io.opentracing.contrib.jms.spring.TracingJmsTemplate;
+import io.opentracing.contrib.spring.cloud.metrics.InstrumentationMetrics;
+import io.opentracing.contrib.spring.cloud.sampling.SpanSampler;
+import io.opentracing.tag.Tags;
+import org.springframework.jms.JmsException;
+import org.springframework.jms.core.MessageCreator;
+import org.springframework.jms.core.SessionCallback;
+import org.springframework.jms.support.JmsUtils;
+
+/**
+ * {@link TracingJmsTemplate} which traces only sampled operations. Producers and consumers of unsampled operations
+ * are created the same way as by {@link org.springframework.jms.core.JmsTemplate}, sampled producers are
+ * {@link TracedMessageProducer}s. Unsampled producers still propagate the context of the active span, if any.
+ * <p>
+ * Batches of messages sent by {@link #sendBatch} are traced by one span, whose context is injected once and set as
+ * properties of every message of the batch. Unsampled batches carry the context of the active span instead, if any.
+ */
+public class SamplingJmsTemplate extends TracingJmsTemplate {
+
+  static final String OPERATION_NAME_SEND_BATCH = "jms-send-batch";
+  /**
+   * Number of messages of a batch
+   */
+  static final String MESSAGE_BUS_BATCH_SIZE = "message_bus.batch.size";
+
+  private final Tracer tracer;
+  private final SpanSampler sampler;
+  private final InstrumentationMetrics metrics;
+
+  SamplingJmsTemplate(ConnectionFactory connectionFactory, Tracer tracer, SpanSampler sampler) {
+    this(connectionFactory, tracer, sampler, InstrumentationMetrics.disabled());
+  }
+
+  SamplingJmsTemplate(ConnectionFactory connectionFactory, Tracer tracer, SpanSampler sampler,
+      InstrumentationMetrics metrics) {
+    super(connectionFactory, tracer);
+    this.tracer = tracer;
+    this.sampler = sampler;
+    this.metrics = metrics;
+  }
+
+  @Override
+  protected MessageProducer createProducer(Session session, Destination destination) throws JMSException {
+    if (sampler.isSampled()) {
+      metrics.wrapperCreated();
+      return new TracedMessageProducer(createUntracedProducer(session, destination), tracer);
+    }
+    metrics.spanUnsampled();
+    if (tracer.activeSpan() != null) {
+      metrics.wrapperCreated();
+      return new TracedMessageProducer(createUntracedProducer(session, destination), tracer, false);
+    }
+    metrics.wrapperAvoided();
+    return createUntracedProducer(session, destination);
+  }
+
+  private MessageProducer createUntracedProducer(Session session, Destination destination) throws JMSException {
+    MessageProducer producer = doCreateProducer(session, destination);
+    if (!isMessageIdEnabled()) {
+      producer.setDisableMessageID(true);
+    }
+    if (!isMessageTimestampEnabled()) {
+      producer.setDisableMessageTimestamp(true);
+    }
+    return producer;
+  }
+
+  /**
+   * Sends the messages created by the given creators through one session and producer, like
+   * {@link #send(Destination, MessageCreator)} does for a single message. If sampled, the batch is traced by one span,
+   * a child of the active span, otherwise the messages carry the context of the active span.
+   *
+   * @param destination the destination to send the messages to
+   * @param messageCreators callbacks to create the messages, in the order of sending
+   * @throws JmsException checked JMSException converted to unchecked
+   */
+  public void sendBatch(final Destination destination, final Collection<? extends MessageCreator> messageCreators)
+      throws JmsException {
+    execute(new SessionCallback<Object>() {
+      @Override
+      public Object doInJms(Session session) throws JMSException {
+        doSendBatch(session, destination, messageCreators);
+        return null;
+      }
+    }, false);
+  }
+
+  /**
+   * @param destinationName the name of the destination, resolved by the {@link #getDestinationResolver()}
+   * @see #sendBatch(Destination, Collection)
+   */
+  public void sendBatch(final String destinationName, final Collection<? extends MessageCreator> messageCreators)
+      throws JmsException {
+    execute(new SessionCallback<Object>() {
+      @Override
+      public Object doInJms(Session session) throws JMSException {
+        doSendBatch(session, resolveDestinationName(session, destinationName), messageCreators);
+        return null;
+      }
+    }, false);
+  }
+
+  protected void doSendBatch(Session session, Destination destination,
+      Collection<? extends MessageCreator> messageCreators) throws JMSException {
+    Span span = null;
+    ContextHeaders contextHeaders = null;
+    if (sampler.isSampled()) {
+      span = tracer.buildSpan(OPERATION_NAME_SEND_BATCH)
+          .withTag(Tags.SPAN_KIND.getKey(), Tags.SPAN_KIND_PRODUCER)
+          .withTag(MESSAGE_BUS_BATCH_SIZE, messageCreators.size())
+          .startManual();
+      metrics.spanStarted();
+      SpanJmsDecorator.onRequest(destination, span);
+      contextHeaders = ContextHeaders.inject(tracer, span.context());
+    } else {
+      metrics.spanUnsampled();
+      // like unsampled single messages, the batch continues the trace of the active span
+      ActiveSpan activeSpan = tracer.activeSpan();
+      if (activeSpan != null) {
+        contextHeaders = ContextHeaders.inject(tracer, activeSpan.context());
+      }
+    }
+
+    MessageProducer producer = createUntracedProducer(session, destination);
+    try {
+      for (MessageCreator messageCreator : messageCreators) {
+        Message message = messageCreator.createMessage(session);
+        if (contextHeaders != null) {
+          contextHeaders.setProperties(message);
+        }
+        doSend(producer, message);
+      }
+      // like JmsTemplate.doSend, the transaction of a session created for this template is committed
+      if (session.getTransacted() && isSessionLocallyTransacted(session)) {
+        JmsUtils.commitIfNecessary(session);
+      }
+    } catch (JMSException | RuntimeException ex) {
+      if (span != null) {
+        SpanJmsDecorator.onError(ex, span);
+      }
+      throw ex;
+    } finally {
+      JmsUtils.closeMessageProducer(producer);
+      if (span != null) {
+        span.finish();
+        metrics.spanFinished();
+      }
+    }
+  }
+
+  @Override
+  protected MessageConsumer createConsumer(Session session, Destination destination, String messageSelector)
+      throws JMSException {
+    if (sampler.isSampled()) {
+      metrics.wrapperCreated();
+      return super.createConsumer(session, destination, messageSelector);
+    }
+    metrics.spanUnsampled();
+    metrics.wrapperAvoided();
+    // NoLocal flag only for topics, see JmsTemplate
+    if (isPubSubDomain()) {
+      return session.createConsumer(destination, messageSelector, isPubSubNoLocal());
+    }
+    return session.createConsumer(destination, messageSelector);
+  }
+}
@@ -0,0 +1,75 @@
+package io.opentracing.contrib.spring.cloud.jms;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageListener;
+import javax.jms.Session;
+
+import io.opentracing.ActiveSpan;
+import io.opentracing.Tracer;
+import io.opentracing.contrib.spring.cloud.metrics.InstrumentationMetrics;
+import org.springframework.jms.listener.SessionAwareMessageListener;
+
+/**
+ * Message listener of a listener container, tracing every received message before passing it to the listener set
+ * before, whatever the signature of the listener method behind it. Installed once per container by
+ * {@link TracingListenerContainerInitializer}.
+ */
+final class TracedMessageListener implements MessageListener, SessionAwareMessageListener<Message> {
+
+  private final Object delegate;
+  private final Tracer tracer;
+  private final MessageListenerTracer listenerTracer;
+
+  /**
+   * @param delegate {@link MessageListener} or {@link SessionAwareMessageListener}
+   */
+  TracedMessageListener(Object delegate, Tracer tracer, MessageListenerTracer listenerTracer) {
+    this.delegate = delegate;
+    this.tracer = tracer;
+    this.listenerTracer = listenerTracer;
+  }
+
+  Object getDelegate() {
+    return delegate;
+  }
+
+  @Override
+  public void onMessage(Message message) {
+    InstrumentationMetrics metrics = listenerTracer.getMetrics();
+    long start = metrics.nanoTime();
+    ActiveSpan span = listenerTracer.onMessage(tracer, message);
+    long listenerStart = metrics.nanoTime();
+    try {
+      ((MessageListener) delegate).onMessage(message);
+    } finally {
+      long listenerEnd = metrics.nanoTime();
+      listenerTracer.onProcessed(span);
+      metrics.overhead(listenerStart - start + metrics.nanoTime() - listenerEnd);
+    }
+  }
+
+  /**
+   * Called by the containers instead of {@link #onMessage(Message)}, the delegate gets the session only if it is a
+   * {@link SessionAwareMessageListener}
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public void onMessage(Message message, Session session) throws JMSException {
+    if (!(delegate instanceof SessionAwareMessageListener)) {
+      onMessage(message);
+      return;
+    }
+    InstrumentationMetrics metrics = listenerTracer.getMetrics();
+    long start = metrics.nanoTime();
+    ActiveSpan span = listenerTracer.onMessage(tracer, message);
+    long listenerStart = metrics.nanoTime();
+    try {
+      ((SessionAwareMessageListener<Message>) delegate).onMessage(message, session);
+    } finally {
+      long listenerEnd = metrics.nanoTime();
+      listenerTracer.onProcessed(span);
+      metrics.overhead(listenerStart - start + metrics.nanoTime() - listenerEnd);
+    }
+  }
+}
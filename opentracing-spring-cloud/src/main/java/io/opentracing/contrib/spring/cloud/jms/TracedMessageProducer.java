@@ -0,0 +1,217 @@
+package io.opentracing.contrib.spring.cloud.jms;
+
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageProducer;
+
+import io.opentracing.ActiveSpan;
+import io.opentracing.Span;
+import io.opentracing.SpanContext;
+import io.opentracing.Tracer;
+import io.opentracing.contrib.jms.common.SpanJmsDecorator;
+import io.opentracing.contrib.jms.common.TracingMessageUtils;
+import io.opentracing.propagation.Format;
+import io.opentracing.tag.Tags;
+
+/**
+ * Traces sends the same way as {@link io.opentracing.contrib.jms.TracingMessageProducer}, with property names encoded
+ * by {@link JmsPropertyNames} and the parent read from the message by a {@link MessageExtractAdapter}, so that
+ * propagation does not replace strings or copy the properties of every message.
+ * <p>
+ * Producers of unsampled operations do not start spans, they only propagate the context of the active span, so that
+ * consumers continue the trace instead of starting a new one.
+ * <p>
+ * Like producers, it is not thread safe, the extract adapter is reused by all sends.
+ */
+final class TracedMessageProducer implements MessageProducer {
+
+  private final MessageProducer messageProducer;
+  private final Tracer tracer;
+  private final boolean sampled;
+  private final MessageExtractAdapter extractAdapter = new MessageExtractAdapter();
+
+  TracedMessageProducer(MessageProducer messageProducer, Tracer tracer) {
+    this(messageProducer, tracer, true);
+  }
+
+  /**
+   * @param sampled whether sends are traced, otherwise only the context of the active span is propagated
+   */
+  TracedMessageProducer(MessageProducer messageProducer, Tracer tracer, boolean sampled) {
+    this.messageProducer = messageProducer;
+    this.tracer = tracer;
+    this.sampled = sampled;
+  }
+
+  @Override
+  public void send(Message message) throws JMSException {
+    Span span = buildAndInjectSpan(messageProducer.getDestination(), message);
+    try {
+      messageProducer.send(message);
+    } catch (JMSException | RuntimeException ex) {
+      onError(ex, span);
+      throw ex;
+    } finally {
+      finish(span);
+    }
+  }
+
+  @Override
+  public void send(Message message, int deliveryMode, int priority, long timeToLive) throws JMSException {
+    Span span = buildAndInjectSpan(messageProducer.getDestination(), message);
+    try {
+      messageProducer.send(message, deliveryMode, priority, timeToLive);
+    } catch (JMSException | RuntimeException ex) {
+      onError(ex, span);
+      throw ex;
+    } finally {
+      finish(span);
+    }
+  }
+
+  @Override
+  public void send(Destination destination, Message message) throws JMSException {
+    Span span = buildAndInjectSpan(destination, message);
+    try {
+      messageProducer.send(destination, message);
+    } catch (JMSException | RuntimeException ex) {
+      onError(ex, span);
+      throw ex;
+    } finally {
+      finish(span);
+    }
+  }
+
+  @Override
+  public void send(Destination destination, Message message, int deliveryMode, int priority, long timeToLive)
+      throws JMSException {
+    Span span = buildAndInjectSpan(destination, message);
+    try {
+      messageProducer.send(destination, message, deliveryMode, priority, timeToLive);
+    } catch (JMSException | RuntimeException ex) {
+      onError(ex, span);
+      throw ex;
+    } finally {
+      finish(span);
+    }
+  }
+
+  /**
+   * Same span as {@link TracingMessageUtils#buildAndInjectSpan}, the child of the context of a forwarded message or of
+   * the active span. If not sampled, the context of the active span is injected unless the message already carries
+   * one, and no span is started.
+   *
+   * @return the started span, null if not sampled
+   */
+  private Span buildAndInjectSpan(Destination destination, Message message) throws JMSException {
+    if (!sampled) {
+      ActiveSpan activeSpan = tracer.activeSpan();
+      if (activeSpan != null && extractMessageContext(message) == null) {
+        ContextHeaders.inject(tracer, activeSpan.context()).setProperties(message);
+      }
+      return null;
+    }
+    Tracer.SpanBuilder spanBuilder = tracer.buildSpan(TracingMessageUtils.OPERATION_NAME_SEND)
+        .ignoreActiveSpan()
+        .withTag(Tags.SPAN_KIND.getKey(), Tags.SPAN_KIND_PRODUCER);
+    SpanContext parent = extract(message);
+    if (parent != null) {
+      spanBuilder.asChildOf(parent);
+    }
+    Span span = spanBuilder.startManual();
+    SpanJmsDecorator.onRequest(destination, span);
+    ContextHeaders.inject(tracer, span.context()).setProperties(message);
+    return span;
+  }
+
+  private static void onError(Exception ex, Span span) {
+    if (span != null) {
+      SpanJmsDecorator.onError(ex, span);
+    }
+  }
+
+  private static void finish(Span span) {
+    if (span != null) {
+      span.finish();
+    }
+  }
+
+  private SpanContext extract(Message message) {
+    SpanContext context = extractMessageContext(message);
+    if (context != null) {
+      return context;
+    }
+    ActiveSpan activeSpan = tracer.activeSpan();
+    return activeSpan != null ? activeSpan.context() : null;
+  }
+
+  private SpanContext extractMessageContext(Message message) {
+    extractAdapter.setMessage(message);
+    try {
+      return tracer.extract(Format.Builtin.TEXT_MAP, extractAdapter);
+    } finally {
+      extractAdapter.setMessage(null);
+    }
+  }
+
+  @Override
+  public void setDisableMessageID(boolean value) throws JMSException {
+    messageProducer.setDisableMessageID(value);
+  }
+
+  @Override
+  public boolean getDisableMessageID() throws JMSException {
+    return messageProducer.getDisableMessageID();
+  }
+
+  @Override
+  public void setDisableMessageTimestamp(boolean value) throws JMSException {
+    messageProducer.setDisableMessageTimestamp(value);
+  }
+
+  @Override
+  public boolean getDisableMessageTimestamp() throws JMSException {
+    return messageProducer.getDisableMessageTimestamp();
+  }
+
+  @Override
+  public void setDeliveryMode(int deliveryMode) throws JMSException {
+    messageProducer.setDeliveryMode(deliveryMode);
+  }
+
+  @Override
+  public int getDeliveryMode() throws JMSException {
+    return messageProducer.getDeliveryMode();
+  }
+
+  @Override
+  public void setPriority(int defaultPriority) throws JMSException {
+    messageProducer.setPriority(defaultPriority);
+  }
+
+  @Override
+  public int getPriority() throws JMSException {
+    return messageProducer.getPriority();
+  }
+
+  @Override
+  public void setTimeToLive(long timeToLive) throws JMSException {
+    messageProducer.setTimeToLive(timeToLive);
+  }
+
+  @Override
+  public long getTimeToLive() throws JMSException {
+    return messageProducer.getTimeToLive();
+  }
+
+  @Override
+  public Destination getDestination() throws JMSException {
+    return messageProducer.getDestination();
+  }
+
+  @Override
+  public void close() throws JMSException {
+    messageProducer.close();
+  }
+}
@@ -0,0 +1,92 @@
+package io.opentracing.contrib.spring.cloud.jms;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import io.opentracing.Tracer;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jms.config.JmsListenerEndpointRegistry;
+import org.springframework.jms.listener.AbstractMessageListenerContainer;
+import org.springframework.jms.listener.MessageListenerContainer;
+
+/**
+ * Wraps the message listeners of listener containers in {@link TracedMessageListener}s, once before the containers
+ * start. Covers container beans and the containers which {@link JmsListenerEndpointRegistry} created for
+ * {@link org.springframework.jms.annotation.JmsListener} methods through a
+ * {@link org.springframework.jms.config.DefaultJmsListenerContainerFactory}. Containers registered after the context
+ * started are not traced.
+ */
+public class TracingListenerContainerInitializer implements SmartLifecycle {
+
+  /**
+   * Right before the listener containers and the registry, which start in the last phase
+   */
+  static final int PHASE = Integer.MAX_VALUE - 1;
+
+  private final ListableBeanFactory beanFactory;
+  private final Tracer tracer;
+  private final MessageListenerTracer listenerTracer;
+  private volatile boolean running;
+
+  TracingListenerContainerInitializer(ListableBeanFactory beanFactory, Tracer tracer,
+      MessageListenerTracer listenerTracer) {
+    this.beanFactory = beanFactory;
+    this.tracer = tracer;
+    this.listenerTracer = listenerTracer;
+  }
+
+  @Override
+  public void start() {
+    for (MessageListenerContainer container : getListenerContainers()) {
+      if (container instanceof AbstractMessageListenerContainer) {
+        wrapMessageListener((AbstractMessageListenerContainer) container);
+      }
+    }
+    running = true;
+  }
+
+  void wrapMessageListener(AbstractMessageListenerContainer container) {
+    Object messageListener = container.getMessageListener();
+    if (messageListener != null && !(messageListener instanceof TracedMessageListener)) {
+      container.setMessageListener(new TracedMessageListener(messageListener, tracer, listenerTracer));
+    }
+  }
+
+  private Collection<MessageListenerContainer> getListenerContainers() {
+    List<MessageListenerContainer> containers = new ArrayList<>(
+        beanFactory.getBeansOfType(MessageListenerContainer.class, false, false).values());
+    for (JmsListenerEndpointRegistry registry
+        : beanFactory.getBeansOfType(JmsListenerEndpointRegistry.class, false, false).values()) {
+      containers.addAll(registry.getListenerContainers());
+    }
+    return containers;
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+  }
+
+  @Override
+  public void stop(Runnable callback) {
+    stop();
+    callback.run();
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  @Override
+  public boolean isAutoStartup() {
+    return true;
+  }
+
+  @Override
+  public int getPhase() {
+    return PHASE;
+  }
+}
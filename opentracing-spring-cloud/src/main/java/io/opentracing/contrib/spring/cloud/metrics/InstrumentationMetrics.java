@@ -0,0 +1,133 @@
+package io.opentracing.contrib.spring.cloud.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of the work done by an integration: spans it started and finished itself, operations not traced because
+ * of sampling, tracing wrappers created or avoided, and the time spent in its interceptors excluding the intercepted
+ * call. Counters are {@link LongAdder}s, so that recording does not contend between threads.
+ * <p>
+ * A disabled instance records nothing and does not read the clock.
+ */
+public final class InstrumentationMetrics {
+
+  private static final InstrumentationMetrics DISABLED = new InstrumentationMetrics(null);
+
+  private final String integration;
+  private final boolean enabled;
+  private final LongAdder spansStarted = new LongAdder();
+  private final LongAdder spansFinished = new LongAdder();
+  private final LongAdder spansUnsampled = new LongAdder();
+  private final LongAdder wrappersCreated = new LongAdder();
+  private final LongAdder wrappersAvoided = new LongAdder();
+  private final LongAdder overheadCount = new LongAdder();
+  private final LongAdder overheadNanos = new LongAdder();
+
+  private InstrumentationMetrics(String integration) {
+    this.integration = integration;
+    this.enabled = integration != null;
+  }
+
+  /**
+   * @param integration name of the integration, e.g. jdbc
+   */
+  public static InstrumentationMetrics create(String integration) {
+    return new InstrumentationMetrics(integration);
+  }
+
+  public static InstrumentationMetrics disabled() {
+    return DISABLED;
+  }
+
+  public String getIntegration() {
+    return integration;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void spanStarted() {
+    if (enabled) {
+      spansStarted.increment();
+    }
+  }
+
+  public void spanFinished() {
+    if (enabled) {
+      spansFinished.increment();
+    }
+  }
+
+  /**
+   * An operation was not traced because it was not sampled.
+   */
+  public void spanUnsampled() {
+    if (enabled) {
+      spansUnsampled.increment();
+    }
+  }
+
+  public void wrapperCreated() {
+    if (enabled) {
+      wrappersCreated.increment();
+    }
+  }
+
+  /**
+   * A tracing wrapper was reused, or not needed because the operation was not sampled.
+   */
+  public void wrapperAvoided() {
+    if (enabled) {
+      wrappersAvoided.increment();
+    }
+  }
+
+  /**
+   * @return {@link System#nanoTime()}, or 0 if disabled
+   */
+  public long nanoTime() {
+    return enabled ? System.nanoTime() : 0;
+  }
+
+  /**
+   * Records time spent in an interceptor, excluding the intercepted call.
+   */
+  public void overhead(long nanos) {
+    if (enabled) {
+      overheadCount.increment();
+      overheadNanos.add(nanos);
+    }
+  }
+
+  public long getSpansStarted() {
+    return spansStarted.sum();
+  }
+
+  public long getSpansFinished() {
+    return spansFinished.sum();
+  }
+
+  public long getSpansUnsampled() {
+    return spansUnsampled.sum();
+  }
+
+  public long getWrappersCreated() {
+    return wrappersCreated.sum();
+  }
+
+  public long getWrappersAvoided() {
+    return wrappersAvoided.sum();
+  }
+
+  /**
+   * @return number of intercepted calls with recorded overhead
+   */
+  public long getOverheadCount() {
+    return overheadCount.sum();
+  }
+
+  public long getOverheadNanos() {
+    return overheadNanos.sum();
+  }
+}
@@ -0,0 +1,156 @@
+package io.opentracing.contrib.spring.cloud.metrics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Rate, errors and duration of finished spans per component and operation name. Durations are recorded in
+ * microseconds by HdrHistogram {@link Recorder}s, which are wait-free and do not allocate, and are read as the
+ * histogram of the interval since the previous read.
+ * <p>
+ * The number of operations is limited, spans of further operations are recorded as {@link #OTHER}.
+ */
+public final class RedMetrics {
+
+  /**
+   * Component of spans without the component tag
+   */
+  public static final String UNKNOWN = "unknown";
+  /**
+   * Component and operation name of spans above the operation limit
+   */
+  public static final String OTHER = "other";
+
+  private static final int SIGNIFICANT_DIGITS = 2;
+
+  private final int maxOperations;
+  private final long maxDurationMicros;
+  private final ConcurrentMap<String, ConcurrentMap<String, OperationMetrics>> operations = new ConcurrentHashMap<>();
+  private final AtomicInteger operationCount = new AtomicInteger();
+  private final OperationMetrics other;
+
+  /**
+   * @param maxOperations maximum number of recorded component and operation name pairs
+   * @param maxDurationMillis longest recorded duration, longer ones are recorded as this one
+   */
+  public RedMetrics(int maxOperations, long maxDurationMillis) {
+    this.maxOperations = maxOperations;
+    this.maxDurationMicros = TimeUnit.MILLISECONDS.toMicros(maxDurationMillis);
+    this.other = new OperationMetrics(OTHER, OTHER, maxDurationMicros);
+  }
+
+  /**
+   * @param durationNanos duration of the span
+   * @param error whether the span is tagged as an error
+   */
+  public void record(String component, String operationName, long durationNanos, boolean error) {
+    operation(component != null ? component : UNKNOWN, operationName != null ? operationName : UNKNOWN)
+        .record(Math.min(TimeUnit.NANOSECONDS.toMicros(Math.max(durationNanos, 0)), maxDurationMicros), error);
+  }
+
+  /**
+   * @return metrics of all recorded operations
+   */
+  public Collection<OperationMetrics> getOperations() {
+    List<OperationMetrics> result = new ArrayList<>();
+    for (ConcurrentMap<String, OperationMetrics> operationsByName : operations.values()) {
+      result.addAll(operationsByName.values());
+    }
+    if (other.getCount() > 0) {
+      result.add(other);
+    }
+    return result;
+  }
+
+  private OperationMetrics operation(String component, String operationName) {
+    ConcurrentMap<String, OperationMetrics> operationsByName = operations.get(component);
+    OperationMetrics operation = operationsByName != null ? operationsByName.get(operationName) : null;
+    if (operation != null) {
+      return operation;
+    }
+    return addOperation(component, operationName);
+  }
+
+  private OperationMetrics addOperation(String component, String operationName) {
+    if (operationCount.get() >= maxOperations) {
+      return other;
+    }
+    ConcurrentMap<String, OperationMetrics> operationsByName = operations.get(component);
+    if (operationsByName == null) {
+      ConcurrentMap<String, OperationMetrics> newOperationsByName = new ConcurrentHashMap<>();
+      operationsByName = operations.putIfAbsent(component, newOperationsByName);
+      if (operationsByName == null) {
+        operationsByName = newOperationsByName;
+      }
+    }
+    OperationMetrics operation = new OperationMetrics(component, operationName, maxDurationMicros);
+    OperationMetrics existing = operationsByName.putIfAbsent(operationName, operation);
+    if (existing != null) {
+      return existing;
+    }
+    operationCount.incrementAndGet();
+    return operation;
+  }
+
+  /**
+   * Metrics of spans of one component and operation name.
+   */
+  public static final class OperationMetrics {
+
+    private final String component;
+    private final String operationName;
+    private final Recorder durations;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    /**
+     * Recycled by {@link #getIntervalDurations()}
+     */
+    private Histogram intervalDurations;
+
+    OperationMetrics(String component, String operationName, long maxDurationMicros) {
+      this.component = component;
+      this.operationName = operationName;
+      this.durations = new Recorder(maxDurationMicros, SIGNIFICANT_DIGITS);
+    }
+
+    void record(long durationMicros, boolean error) {
+      durations.recordValue(durationMicros);
+      count.increment();
+      if (error) {
+        errors.increment();
+      }
+    }
+
+    public String getComponent() {
+      return component;
+    }
+
+    public String getOperationName() {
+      return operationName;
+    }
+
+    public long getCount() {
+      return count.sum();
+    }
+
+    public long getErrors() {
+      return errors.sum();
+    }
+
+    /**
+     * @return durations in microseconds recorded since the previous call, the histogram is reused by the next call
+     */
+    public synchronized Histogram getIntervalDurations() {
+      intervalDurations = durations.getIntervalHistogram(intervalDurations);
+      return intervalDurations;
+    }
+  }
+}
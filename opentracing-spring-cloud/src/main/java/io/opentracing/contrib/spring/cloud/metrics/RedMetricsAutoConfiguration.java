@@ -0,0 +1,39 @@
+package io.opentracing.contrib.spring.cloud.metrics;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Derives rate, error and duration metrics from finished spans, if enabled and HdrHistogram is included in the
+ * classpath.
+ */
+@Configuration
+@ConditionalOnClass(name = "org.HdrHistogram.Recorder")
+@ConditionalOnProperty(name = "opentracing.spring.cloud.red-metrics.enabled", havingValue = "true")
+@EnableConfigurationProperties(RedMetricsProperties.class)
+public class RedMetricsAutoConfiguration {
+
+  @Bean
+  public static RedMetricsBeanPostProcessor redMetricsBeanPostProcessor(BeanFactory beanFactory) {
+    return new RedMetricsBeanPostProcessor(beanFactory);
+  }
+
+  @Bean
+  public RedMetrics redMetrics(RedMetricsProperties redMetricsProperties) {
+    return new RedMetrics(redMetricsProperties.getMaxOperations(), redMetricsProperties.getMaxDuration());
+  }
+
+  @Configuration
+  @ConditionalOnClass(PublicMetrics.class)
+  public static class Actuator {
+    @Bean
+    public RedPublicMetrics redPublicMetrics(RedMetrics redMetrics) {
+      return new RedPublicMetrics(redMetrics);
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package io.opentracing.contrib.spring.cloud.metrics;
+
+import io.opentracing.Tracer;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+
+/**
+ * Decorates {@link Tracer} beans with {@link RedMetricsTracer}. It runs after other tracer decorators, so that
+ * durations are recorded on the thread finishing the span.
+ */
+public class RedMetricsBeanPostProcessor implements BeanPostProcessor, Ordered {
+
+  private final BeanFactory beanFactory;
+
+  RedMetricsBeanPostProcessor(BeanFactory beanFactory) {
+    this.beanFactory = beanFactory;
+  }
+
+  @Override
+  public Object postProcessBeforeInitialization(Object bean, String name) throws BeansException {
+    return bean;
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String name) throws BeansException {
+    if (bean instanceof Tracer && !(bean instanceof RedMetricsTracer)) {
+      return new RedMetricsTracer((Tracer) bean, beanFactory.getBean(RedMetrics.class));
+    }
+    return bean;
+  }
+
+  @Override
+  public int getOrder() {
+    return Ordered.LOWEST_PRECEDENCE;
+  }
+}
@@ -0,0 +1,37 @@
+package io.opentracing.contrib.spring.cloud.metrics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of metrics derived from finished spans.
+ */
+@ConfigurationProperties("opentracing.spring.cloud.red-metrics")
+public class RedMetricsProperties {
+
+  /**
+   * Maximum number of recorded component and operation name pairs, spans of further operations are recorded as
+   * "other".
+   */
+  private int maxOperations = 500;
+
+  /**
+   * Longest recorded duration in milliseconds, longer spans are recorded with this duration.
+   */
+  private long maxDuration = 60000;
+
+  public int getMaxOperations() {
+    return maxOperations;
+  }
+
+  public void setMaxOperations(int maxOperations) {
+    this.maxOperations = maxOperations;
+  }
+
+  public long getMaxDuration() {
+    return maxDuration;
+  }
+
+  public void setMaxDuration(long maxDuration) {
+    this.maxDuration = maxDuration;
+  }
+}
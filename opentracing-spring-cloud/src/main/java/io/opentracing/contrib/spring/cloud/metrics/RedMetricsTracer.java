@@ -0,0 +1,131 @@
+package io.opentracing.contrib.spring.cloud.metrics;
+
+import io.opentracing.Span;
+import io.opentracing.Tracer;
+import io.opentracing.contrib.spring.cloud.tracer.ForwardingSpan;
+import io.opentracing.contrib.spring.cloud.tracer.ForwardingSpanBuilder;
+import io.opentracing.contrib.spring.cloud.tracer.ForwardingTracer;
+import io.opentracing.tag.Tags;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracer recording every finished span into {@link RedMetrics}, keyed by its component tag and operation name, and
+ * counting spans tagged as errors. Spans are recorded whether or not the decorated tracer samples them for export.
+ * Every span builder and span of the decorated tracer is wrapped, two short-lived objects per span.
+ */
+public class RedMetricsTracer extends ForwardingTracer {
+
+  private final RedMetrics redMetrics;
+
+  public RedMetricsTracer(Tracer delegate, RedMetrics redMetrics) {
+    super(delegate);
+    this.redMetrics = redMetrics;
+  }
+
+  public RedMetrics getRedMetrics() {
+    return redMetrics;
+  }
+
+  @Override
+  public SpanBuilder buildSpan(String operationName) {
+    return new RedSpanBuilder(delegate.buildSpan(operationName), operationName);
+  }
+
+  private static boolean isError(String key, boolean value) {
+    return value && Tags.ERROR.getKey().equals(key);
+  }
+
+  private final class RedSpanBuilder extends ForwardingSpanBuilder {
+
+    private final String operationName;
+    private String component;
+    private boolean error;
+    private long startMicros = -1;
+
+    RedSpanBuilder(SpanBuilder delegate, String operationName) {
+      super(delegate, RedMetricsTracer.this);
+      this.operationName = operationName;
+    }
+
+    @Override
+    public SpanBuilder withTag(String key, String value) {
+      if (Tags.COMPONENT.getKey().equals(key)) {
+        component = value;
+      }
+      return super.withTag(key, value);
+    }
+
+    @Override
+    public SpanBuilder withTag(String key, boolean value) {
+      error |= isError(key, value);
+      return super.withTag(key, value);
+    }
+
+    @Override
+    public SpanBuilder withStartTimestamp(long microseconds) {
+      startMicros = microseconds;
+      return super.withStartTimestamp(microseconds);
+    }
+
+    @Override
+    public Span startManual() {
+      return new RedSpan(delegate.startManual(), operationName, component, error, startMicros);
+    }
+  }
+
+  private final class RedSpan extends ForwardingSpan {
+
+    private String operationName;
+    private String component;
+    private boolean error;
+    private final long startNanos = System.nanoTime();
+    /**
+     * Start timestamp given by the caller, -1 if not given
+     */
+    private final long startMicros;
+
+    RedSpan(Span delegate, String operationName, String component, boolean error, long startMicros) {
+      super(delegate);
+      this.operationName = operationName;
+      this.component = component;
+      this.error = error;
+      this.startMicros = startMicros;
+    }
+
+    @Override
+    public Span setTag(String key, String value) {
+      if (Tags.COMPONENT.getKey().equals(key)) {
+        component = value;
+      }
+      return super.setTag(key, value);
+    }
+
+    @Override
+    public Span setTag(String key, boolean value) {
+      error |= isError(key, value);
+      return super.setTag(key, value);
+    }
+
+    @Override
+    public Span setOperationName(String operationName) {
+      this.operationName = operationName;
+      return super.setOperationName(operationName);
+    }
+
+    @Override
+    public void finish() {
+      redMetrics.record(component, operationName, System.nanoTime() - startNanos, error);
+      super.finish();
+    }
+
+    @Override
+    public void finish(long finishMicros) {
+      // without an explicit start, the start timestamp is approximated by the current time minus the elapsed time
+      long durationNanos = startMicros != -1 ? TimeUnit.MICROSECONDS.toNanos(finishMicros - startMicros)
+          : TimeUnit.MICROSECONDS.toNanos(finishMicros - TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis()))
+              + System.nanoTime() - startNanos;
+      redMetrics.record(component, operationName, durationNanos, error);
+      super.finish(finishMicros);
+    }
+  }
+}
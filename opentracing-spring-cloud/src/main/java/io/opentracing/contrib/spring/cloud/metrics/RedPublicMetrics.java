@@ -0,0 +1,41 @@
+package io.opentracing.contrib.spring.cloud.metrics;
+
+import io.opentracing.contrib.spring.cloud.metrics.RedMetrics.OperationMetrics;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+/**
+ * Exposes {@link RedMetrics} as actuator metrics, e.g. {@code opentracing.red.java-jdbc.Query.p99}. Counts are totals,
+ * durations are in milliseconds and cover the spans finished since the previous read.
+ */
+public class RedPublicMetrics implements PublicMetrics {
+
+  private static final String PREFIX = "opentracing.red.";
+  private static final double MICROS_PER_MILLI = 1000.0;
+
+  private final RedMetrics redMetrics;
+
+  public RedPublicMetrics(RedMetrics redMetrics) {
+    this.redMetrics = redMetrics;
+  }
+
+  @Override
+  public Collection<Metric<?>> metrics() {
+    List<Metric<?>> metrics = new ArrayList<>();
+    for (OperationMetrics operation : redMetrics.getOperations()) {
+      String prefix = PREFIX + operation.getComponent() + "." + operation.getOperationName();
+      metrics.add(new Metric<>(prefix + ".count", operation.getCount()));
+      metrics.add(new Metric<>(prefix + ".errors", operation.getErrors()));
+      Histogram durations = operation.getIntervalDurations();
+      metrics.add(new Metric<>(prefix + ".p50", durations.getValueAtPercentile(50) / MICROS_PER_MILLI));
+      metrics.add(new Metric<>(prefix + ".p95", durations.getValueAtPercentile(95) / MICROS_PER_MILLI));
+      metrics.add(new Metric<>(prefix + ".p99", durations.getValueAtPercentile(99) / MICROS_PER_MILLI));
+      metrics.add(new Metric<>(prefix + ".max", durations.getMaxValue() / MICROS_PER_MILLI));
+    }
+    return metrics;
+  }
+}
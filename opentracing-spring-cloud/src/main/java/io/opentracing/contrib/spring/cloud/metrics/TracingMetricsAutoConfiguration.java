@@ -0,0 +1,21 @@
+package io.opentracing.contrib.spring.cloud.metrics;
+
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Exposes metrics of the integrations through the actuator, if it's included in the classpath. Integrations record
+ * metrics only if enabled by {@code opentracing.spring.cloud.<integration>.metrics-enabled}.
+ */
+@Configuration
+@ConditionalOnClass(PublicMetrics.class)
+public class TracingMetricsAutoConfiguration {
+
+  @Bean
+  public TracingPublicMetrics tracingPublicMetrics(ListableBeanFactory beanFactory) {
+    return new TracingPublicMetrics(beanFactory);
+  }
+}
@@ -0,0 +1,75 @@
+package io.opentracing.contrib.spring.cloud.metrics;
+
+import io.opentracing.Tracer;
+import io.opentracing.contrib.spring.cloud.jdbc.SqlFingerprintCache;
+import io.opentracing.contrib.spring.cloud.reporting.AsyncReportingTracer;
+import io.opentracing.contrib.spring.cloud.sampling.TailSamplingTracer;
+import io.opentracing.contrib.spring.cloud.tracer.ForwardingTracer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+/**
+ * Exposes {@link InstrumentationMetrics} of the enabled integrations, the counters of {@link AsyncReportingTracer} and
+ * {@link TailSamplingTracer} and the usage of the {@link SqlFingerprintCache} as actuator metrics, e.g.
+ * {@code opentracing.jdbc.spans.started}. Beans are looked up on each read, so that the metrics do not force early
+ * initialization of the integrations. Tracer decorators are found in the delegates of {@link ForwardingTracer}s, as
+ * they can be decorated by each other.
+ */
+public class TracingPublicMetrics implements PublicMetrics {
+
+  private static final String PREFIX = "opentracing.";
+
+  private final ListableBeanFactory beanFactory;
+
+  public TracingPublicMetrics(ListableBeanFactory beanFactory) {
+    this.beanFactory = beanFactory;
+  }
+
+  @Override
+  public Collection<Metric<?>> metrics() {
+    List<Metric<?>> metrics = new ArrayList<>();
+    for (InstrumentationMetrics instrumentationMetrics :
+        beanFactory.getBeansOfType(InstrumentationMetrics.class, false, false).values()) {
+      if (instrumentationMetrics.isEnabled()) {
+        String prefix = PREFIX + instrumentationMetrics.getIntegration();
+        metrics.add(new Metric<>(prefix + ".spans.started", instrumentationMetrics.getSpansStarted()));
+        metrics.add(new Metric<>(prefix + ".spans.finished", instrumentationMetrics.getSpansFinished()));
+        metrics.add(new Metric<>(prefix + ".spans.unsampled", instrumentationMetrics.getSpansUnsampled()));
+        metrics.add(new Metric<>(prefix + ".wrappers.created", instrumentationMetrics.getWrappersCreated()));
+        metrics.add(new Metric<>(prefix + ".wrappers.avoided", instrumentationMetrics.getWrappersAvoided()));
+        metrics.add(new Metric<>(prefix + ".overhead.count", instrumentationMetrics.getOverheadCount()));
+        metrics.add(new Metric<>(prefix + ".overhead.nanos", instrumentationMetrics.getOverheadNanos()));
+      }
+    }
+    for (SqlFingerprintCache fingerprintCache :
+        beanFactory.getBeansOfType(SqlFingerprintCache.class, false, false).values()) {
+      metrics.add(new Metric<>(PREFIX + "jdbc.fingerprint-cache.hits", fingerprintCache.getHits()));
+      metrics.add(new Metric<>(PREFIX + "jdbc.fingerprint-cache.misses", fingerprintCache.getMisses()));
+      metrics.add(new Metric<>(PREFIX + "jdbc.fingerprint-cache.size", fingerprintCache.size()));
+    }
+    for (Tracer tracer : beanFactory.getBeansOfType(Tracer.class, false, false).values()) {
+      while (tracer instanceof ForwardingTracer) {
+        addTracerMetrics(tracer, metrics);
+        tracer = ((ForwardingTracer) tracer).getDelegate();
+      }
+    }
+    return metrics;
+  }
+
+  private static void addTracerMetrics(Tracer tracer, List<Metric<?>> metrics) {
+    if (tracer instanceof AsyncReportingTracer) {
+      AsyncReportingTracer asyncReportingTracer = (AsyncReportingTracer) tracer;
+      metrics.add(new Metric<>(PREFIX + "async-reporting.spans.reported", asyncReportingTracer.getReportedSpans()));
+      metrics.add(new Metric<>(PREFIX + "async-reporting.spans.dropped", asyncReportingTracer.getDroppedSpans()));
+    } else if (tracer instanceof TailSamplingTracer) {
+      TailSamplingTracer tailSamplingTracer = (TailSamplingTracer) tracer;
+      metrics.add(new Metric<>(PREFIX + "tail-sampling.traces.kept", tailSamplingTracer.getKeptTraces()));
+      metrics.add(new Metric<>(PREFIX + "tail-sampling.traces.discarded", tailSamplingTracer.getDiscardedTraces()));
+      metrics.add(new Metric<>(PREFIX + "tail-sampling.traces.evicted", tailSamplingTracer.getEvictedTraces()));
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package io.opentracing.contrib.spring.cloud.reporting;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Reports finished spans on a background thread, if enabled.
+ */
+@Configuration
+@ConditionalOnProperty(name = "opentracing.spring.cloud.async-reporting.enabled", havingValue = "true")
+@EnableConfigurationProperties(AsyncReportingProperties.class)
+public class AsyncReportingAutoConfiguration {
+
+  @Bean
+  public static AsyncReportingBeanPostProcessor asyncReportingBeanPostProcessor(BeanFactory beanFactory) {
+    return new AsyncReportingBeanPostProcessor(beanFactory);
+  }
+}
@@ -0,0 +1,57 @@
+package io.opentracing.contrib.spring.cloud.reporting;
+
+import io.opentracing.Tracer;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+
+/**
+ * Decorates {@link Tracer} beans with {@link AsyncReportingTracer}. Settings are looked up when the first tracer is
+ * decorated, a post processor is created before configuration properties can be bound. It runs before other tracer
+ * decorators, so that they see spans before they are queued.
+ */
+public class AsyncReportingBeanPostProcessor implements BeanPostProcessor, DisposableBean, Ordered {
+
+  private final BeanFactory beanFactory;
+  private final List<AsyncReportingTracer> tracers = new CopyOnWriteArrayList<>();
+
+  AsyncReportingBeanPostProcessor(BeanFactory beanFactory) {
+    this.beanFactory = beanFactory;
+  }
+
+  @Override
+  public Object postProcessBeforeInitialization(Object bean, String name) throws BeansException {
+    return bean;
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String name) throws BeansException {
+    if (bean instanceof Tracer && !(bean instanceof AsyncReportingTracer)) {
+      AsyncReportingProperties properties = beanFactory.getBean(AsyncReportingProperties.class);
+      AsyncReportingTracer tracer = new AsyncReportingTracer((Tracer) bean, properties.getQueueCapacity(),
+          properties.getBatchSize(), properties.getOverflowPolicy());
+      tracers.add(tracer);
+      return tracer;
+    }
+    return bean;
+  }
+
+  /**
+   * Reports the remaining spans of the decorated tracers
+   */
+  @Override
+  public void destroy() {
+    for (AsyncReportingTracer tracer : tracers) {
+      tracer.close();
+    }
+  }
+
+  @Override
+  public int getOrder() {
+    return Ordered.LOWEST_PRECEDENCE - 10;
+  }
+}
@@ -0,0 +1,50 @@
+package io.opentracing.contrib.spring.cloud.reporting;
+
+import io.opentracing.contrib.spring.cloud.reporting.AsyncReportingTracer.OverflowPolicy;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of reporting finished spans on a background thread.
+ */
+@ConfigurationProperties("opentracing.spring.cloud.async-reporting")
+public class AsyncReportingProperties {
+
+  /**
+   * Maximum number of finished spans waiting to be reported, rounded up to a power of two.
+   */
+  private int queueCapacity = 8192;
+
+  /**
+   * Maximum number of spans reported at once.
+   */
+  private int batchSize = 512;
+
+  /**
+   * What happens to spans finished when the queue is full: DROP them or BLOCK the finishing thread.
+   */
+  private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+  public int getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  public void setQueueCapacity(int queueCapacity) {
+    this.queueCapacity = queueCapacity;
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  public void setBatchSize(int batchSize) {
+    this.batchSize = batchSize;
+  }
+
+  public OverflowPolicy getOverflowPolicy() {
+    return overflowPolicy;
+  }
+
+  public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+    this.overflowPolicy = overflowPolicy;
+  }
+}
@@ -0,0 +1,238 @@
+package io.opentracing.contrib.spring.cloud.reporting;
+
+import io.opentracing.Span;
+import io.opentracing.Tracer;
+import io.opentracing.contrib.spring.cloud.tracer.ForwardingSpan;
+import io.opentracing.contrib.spring.cloud.tracer.ForwardingSpanBuilder;
+import io.opentracing.contrib.spring.cloud.tracer.ForwardingTracer;
+import java.io.Closeable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Tracer finishing spans of the decorated tracer on a background thread. Finishing a span only records its finish
+ * timestamp and puts it into a lock-free bounded queue, the reporter thread drains the queue in batches and finishes
+ * the spans of the decorated tracer, which is where tracers usually convert tags and hand spans to their reporters.
+ * <p>
+ * Span contexts, tags, logs and baggage are passed to the decorated spans immediately, so that propagation and the
+ * active span work as without the decorator. When the queue is full, spans are dropped or the finishing thread waits,
+ * depending on the {@link OverflowPolicy}.
+ */
+public class AsyncReportingTracer extends ForwardingTracer implements Closeable {
+
+  private static final Log log = LogFactory.getLog(AsyncReportingTracer.class);
+
+  private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+  private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+  private static final long CLOSE_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(5);
+
+  /**
+   * What happens to a finished span when the queue is full
+   */
+  public enum OverflowPolicy {
+    /**
+     * The span is not reported
+     */
+    DROP,
+    /**
+     * The finishing thread waits until the reporter thread makes space
+     */
+    BLOCK
+  }
+
+  private final SpanFinishQueue<AsyncSpan> queue;
+  private final int batchSize;
+  private final OverflowPolicy overflowPolicy;
+  private final LongAdder droppedSpans = new LongAdder();
+  private final LongAdder reportedSpans = new LongAdder();
+  private final Thread reporter;
+  /**
+   * Whether the reporter thread is parked or about to park because the queue is empty
+   */
+  private volatile boolean idle;
+  private volatile boolean closed;
+
+  /**
+   * @param delegate tracer creating and reporting the spans
+   * @param queueCapacity maximum number of finished spans waiting to be reported, rounded up to a power of two
+   * @param batchSize maximum number of spans reported at once before checking whether the reporter was closed
+   * @param overflowPolicy what to do with spans finished when the queue is full
+   */
+  public AsyncReportingTracer(Tracer delegate, int queueCapacity, int batchSize, OverflowPolicy overflowPolicy) {
+    super(delegate);
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+    }
+    this.queue = new SpanFinishQueue<>(queueCapacity);
+    this.batchSize = batchSize;
+    this.overflowPolicy = overflowPolicy;
+    this.reporter = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        reportSpans();
+      }
+    }, "opentracing-async-reporter");
+    this.reporter.setDaemon(true);
+    this.reporter.start();
+  }
+
+  public int getQueueCapacity() {
+    return queue.capacity();
+  }
+
+  /**
+   * @return number of spans dropped because the queue was full
+   */
+  public long getDroppedSpans() {
+    return droppedSpans.sum();
+  }
+
+  /**
+   * @return number of spans finished in the decorated tracer
+   */
+  public long getReportedSpans() {
+    return reportedSpans.sum();
+  }
+
+  @Override
+  public SpanBuilder buildSpan(String operationName) {
+    return new AsyncSpanBuilder(delegate.buildSpan(operationName));
+  }
+
+  /**
+   * Stops the reporter thread after reporting the queued spans. Spans finished afterwards are reported on the
+   * finishing thread.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    LockSupport.unpark(reporter);
+    try {
+      reporter.join(CLOSE_TIMEOUT_MILLIS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  void finished(AsyncSpan span) {
+    if (closed) {
+      report(span);
+      return;
+    }
+    if (!queue.offer(span)) {
+      if (overflowPolicy == OverflowPolicy.DROP) {
+        droppedSpans.increment();
+        return;
+      }
+      do {
+        if (closed) {
+          report(span);
+          return;
+        }
+        LockSupport.unpark(reporter);
+        LockSupport.parkNanos(this, FULL_PARK_NANOS);
+      } while (!queue.offer(span));
+    }
+    if (idle) {
+      LockSupport.unpark(reporter);
+    }
+  }
+
+  private void reportSpans() {
+    while (!closed) {
+      if (reportBatch() == 0) {
+        idle = true;
+        if (queue.isEmpty() && !closed) {
+          LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+        }
+        idle = false;
+      }
+    }
+    while (reportBatch() > 0) {
+      // spans queued before closing
+    }
+  }
+
+  private int reportBatch() {
+    int reported = 0;
+    AsyncSpan span;
+    while (reported < batchSize && (span = queue.poll()) != null) {
+      report(span);
+      reported++;
+    }
+    return reported;
+  }
+
+  private void report(AsyncSpan span) {
+    try {
+      span.getDelegate().finish(span.finishMicros);
+      reportedSpans.increment();
+    } catch (RuntimeException ex) {
+      log.warn("Failed to report span " + span.getDelegate(), ex);
+    }
+  }
+
+  private static long nowMicros() {
+    return TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+  }
+
+  private final class AsyncSpanBuilder extends ForwardingSpanBuilder {
+
+    private boolean startTimestamp;
+
+    AsyncSpanBuilder(SpanBuilder delegate) {
+      super(delegate, AsyncReportingTracer.this);
+    }
+
+    @Override
+    public SpanBuilder withStartTimestamp(long microseconds) {
+      startTimestamp = true;
+      return super.withStartTimestamp(microseconds);
+    }
+
+    @Override
+    public Span startManual() {
+      if (startTimestamp) {
+        return new AsyncSpan(delegate.startManual(), 0, -1);
+      }
+      // the start is set explicitly, so that the finish timestamp can be derived from the elapsed time
+      long startMicros = nowMicros();
+      long startNanos = System.nanoTime();
+      return new AsyncSpan(delegate.withStartTimestamp(startMicros).startManual(), startMicros, startNanos);
+    }
+  }
+
+  private final class AsyncSpan extends ForwardingSpan {
+
+    private final long startMicros;
+    /**
+     * {@link System#nanoTime()} at the start, -1 if the start timestamp was given by the caller
+     */
+    private final long startNanos;
+    /**
+     * Set before the span is queued, read by the reporter thread
+     */
+    private long finishMicros;
+
+    AsyncSpan(Span delegate, long startMicros, long startNanos) {
+      super(delegate);
+      this.startMicros = startMicros;
+      this.startNanos = startNanos;
+    }
+
+    @Override
+    public void finish() {
+      finish(startNanos == -1 ? nowMicros()
+          : startMicros + TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
+    }
+
+    @Override
+    public void finish(long finishMicros) {
+      this.finishMicros = finishMicros;
+      finished(this);
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package io.opentracing.contrib.spring.cloud.reporting;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free bounded ring buffer with multiple producers and a single consumer. Each slot carries a sequence number
+ * telling whether it is free for the producer of a given position or filled for the consumer, see Dmitry Vyukov's
+ * bounded MPMC queue.
+ */
+final class SpanFinishQueue<E> {
+
+  private final int mask;
+  private final AtomicReferenceArray<E> elements;
+  private final AtomicLongArray sequences;
+  private final AtomicLong tail = new AtomicLong();
+  /**
+   * Only accessed by the consumer thread
+   */
+  private long head;
+
+  /**
+   * @param capacity rounded up to a power of two, at least 2 so that free and filled slots have distinct sequences
+   */
+  SpanFinishQueue(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+    }
+    int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+    this.mask = size - 1;
+    this.elements = new AtomicReferenceArray<>(size);
+    this.sequences = new AtomicLongArray(size);
+    for (int i = 0; i < size; i++) {
+      sequences.set(i, i);
+    }
+  }
+
+  int capacity() {
+    return mask + 1;
+  }
+
+  /**
+   * @return false if the queue is full
+   */
+  boolean offer(E element) {
+    long position = tail.get();
+    while (true) {
+      int index = (int) (position & mask);
+      long available = sequences.get(index) - position;
+      if (available == 0) {
+        if (tail.compareAndSet(position, position + 1)) {
+          elements.lazySet(index, element);
+          // volatile store, so that the consumer's wake-up check cannot be reordered before it
+          sequences.set(index, position + 1);
+          return true;
+        }
+        position = tail.get();
+      } else if (available < 0) {
+        return false;
+      } else {
+        position = tail.get();
+      }
+    }
+  }
+
+  /**
+   * Consumer only.
+   *
+   * @return next element, null if the queue is empty or the next element is still being published
+   */
+  E poll() {
+    int index = (int) (head & mask);
+    if (sequences.get(index) != head + 1) {
+      return null;
+    }
+    E element = elements.get(index);
+    elements.lazySet(index, null);
+    sequences.lazySet(index, head + mask + 1);
+    head++;
+    return element;
+  }
+
+  /**
+   * Consumer only.
+   */
+  boolean isEmpty() {
+    return sequences.get((int) (head & mask)) != head + 1;
+  }
+}
@@ -0,0 +1,65 @@
+package io.opentracing.contrib.spring.cloud.sampling;
+
+import io.opentracing.contrib.spring.cloud.metrics.InstrumentationMetrics;
+
+/**
+ * Sampling and metrics settings of an integration.
+ */
+public class SamplingProperties {
+
+  /**
+   * Probability of tracing an operation, between 0 and 1. Operations are JDBC connections, Feign requests and JMS
+   * messages.
+   */
+  private double sampleRate = 1.0;
+
+  /**
+   * Maximum number of traced operations per second, 0 for no limit. Operations are sampled as a whole, JDBC limits
+   * the traced connections, a sampled connection traces all of its statements.
+   */
+  private int maxSpansPerSecond;
+
+  /**
+   * Record metrics of the instrumentation itself, exposed by the actuator.
+   */
+  private boolean metricsEnabled;
+
+  public double getSampleRate() {
+    return sampleRate;
+  }
+
+  public void setSampleRate(double sampleRate) {
+    this.sampleRate = sampleRate;
+  }
+
+  public int getMaxSpansPerSecond() {
+    return maxSpansPerSecond;
+  }
+
+  public void setMaxSpansPerSecond(int maxSpansPerSecond) {
+    this.maxSpansPerSecond = maxSpansPerSecond;
+  }
+
+  public boolean isMetricsEnabled() {
+    return metricsEnabled;
+  }
+
+  public void setMetricsEnabled(boolean metricsEnabled) {
+    this.metricsEnabled = metricsEnabled;
+  }
+
+  /**
+   * @param integration name of the integration
+   * @return metrics of the integration, disabled unless enabled in the settings
+   */
+  public InstrumentationMetrics createMetrics(String integration) {
+    return metricsEnabled ? InstrumentationMetrics.create(integration) : InstrumentationMetrics.disabled();
+  }
+
+  /**
+   * @return sampler with the current settings
+   */
+  public SpanSampler createSampler() {
+    return SpanSampler.create(sampleRate, maxSpansPerSecond);
+  }
+}
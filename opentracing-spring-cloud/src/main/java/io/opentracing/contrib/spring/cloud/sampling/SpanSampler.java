@@ -0,0 +1,109 @@
+package io.opentracing.contrib.spring.cloud.sampling;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides whether an instrumented operation is traced, before any span or wrapper is created. Operations are sampled
+ * with a fixed probability, and the sampled ones are additionally limited to a maximum rate. The rate limit allows
+ * bursts of up to one second worth of spans.
+ * <p>
+ * The sampler is lock-free and can be shared by all threads.
+ */
+public final class SpanSampler {
+
+  private static final SpanSampler ALWAYS = new SpanSampler(1, 0, null);
+  private static final long BURST_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  /**
+   * Source of {@link System#nanoTime()}, replaceable in tests
+   */
+  interface Clock {
+    long nanoTime();
+  }
+
+  private static final Clock SYSTEM_CLOCK = new Clock() {
+    @Override
+    public long nanoTime() {
+      return System.nanoTime();
+    }
+  };
+
+  private final double sampleRate;
+  private final long emissionIntervalNanos;
+  private final Clock clock;
+  /**
+   * Theoretical arrival time of the next span, see generic cell rate algorithm
+   */
+  private final AtomicLong theoreticalArrivalTime;
+
+  private SpanSampler(double sampleRate, long emissionIntervalNanos, Clock clock) {
+    this.sampleRate = sampleRate;
+    this.emissionIntervalNanos = emissionIntervalNanos;
+    this.clock = clock;
+    this.theoreticalArrivalTime = clock != null ? new AtomicLong(clock.nanoTime()) : null;
+  }
+
+  /**
+   * @return sampler which samples everything
+   */
+  public static SpanSampler always() {
+    return ALWAYS;
+  }
+
+  /**
+   * @param sampleRate probability of sampling an operation, between 0 and 1
+   * @param maxSpansPerSecond maximum number of sampled operations per second, 0 for no limit
+   * @return sampler
+   */
+  public static SpanSampler create(double sampleRate, int maxSpansPerSecond) {
+    return create(sampleRate, maxSpansPerSecond, SYSTEM_CLOCK);
+  }
+
+  static SpanSampler create(double sampleRate, int maxSpansPerSecond, Clock clock) {
+    if (sampleRate < 0 || sampleRate > 1) {
+      throw new IllegalArgumentException("Sample rate must be between 0 and 1, was " + sampleRate);
+    }
+    if (maxSpansPerSecond < 0) {
+      throw new IllegalArgumentException("Max spans per second must not be negative, was " + maxSpansPerSecond);
+    }
+    if (sampleRate == 1 && maxSpansPerSecond == 0) {
+      return ALWAYS;
+    }
+    // limits above one span per nanosecond are rounded down, an interval of 0 would disable the limit
+    return new SpanSampler(sampleRate, maxSpansPerSecond == 0 ? 0 : Math.max(1, BURST_NANOS / maxSpansPerSecond),
+        maxSpansPerSecond == 0 ? null : clock);
+  }
+
+  /**
+   * @return whether every operation is sampled
+   */
+  public boolean isAlwaysSampled() {
+    return this == ALWAYS;
+  }
+
+  /**
+   * @return whether the next operation should be traced
+   */
+  public boolean isSampled() {
+    if (sampleRate < 1 && (sampleRate == 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+      return false;
+    }
+    return emissionIntervalNanos == 0 || tryAcquire();
+  }
+
+  private boolean tryAcquire() {
+    long now = clock.nanoTime();
+    while (true) {
+      long arrivalTime = theoreticalArrivalTime.get();
+      long nextArrivalTime = (arrivalTime - now > 0 ? arrivalTime : now) + emissionIntervalNanos;
+      if (nextArrivalTime - now > BURST_NANOS) {
+        return false;
+      }
+      if (theoreticalArrivalTime.compareAndSet(arrivalTime, nextArrivalTime)) {
+        return true;
+      }
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package io.opentracing.contrib.spring.cloud.sampling;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Reports only local traces with errors or high latency, if enabled.
+ */
+@Configuration
+@ConditionalOnProperty(name = "opentracing.spring.cloud.tail-sampling.enabled", havingValue = "true")
+@EnableConfigurationProperties(TailSamplingProperties.class)
+public class TailSamplingAutoConfiguration {
+
+  @Bean
+  public static TailSamplingBeanPostProcessor tailSamplingBeanPostProcessor(BeanFactory beanFactory) {
+    return new TailSamplingBeanPostProcessor(beanFactory);
+  }
+}
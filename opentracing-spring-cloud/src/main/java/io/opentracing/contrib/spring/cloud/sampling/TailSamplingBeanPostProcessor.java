@@ -0,0 +1,40 @@
+package io.opentracing.contrib.spring.cloud.sampling;
+
+import io.opentracing.Tracer;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+
+/**
+ * Decorates {@link Tracer} beans with {@link TailSamplingTracer}. It runs after asynchronous reporting, so that
+ * discarded spans are never queued, and before metrics, so that they still count all spans.
+ */
+public class TailSamplingBeanPostProcessor implements BeanPostProcessor, Ordered {
+
+  private final BeanFactory beanFactory;
+
+  TailSamplingBeanPostProcessor(BeanFactory beanFactory) {
+    this.beanFactory = beanFactory;
+  }
+
+  @Override
+  public Object postProcessBeforeInitialization(Object bean, String name) throws BeansException {
+    return bean;
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String name) throws BeansException {
+    if (bean instanceof Tracer && !(bean instanceof TailSamplingTracer)) {
+      TailSamplingProperties properties = beanFactory.getBean(TailSamplingProperties.class);
+      return new TailSamplingTracer((Tracer) bean, properties.getLatencyThreshold(), properties.getSampleRate(),
+          properties.getWindow(), properties.getMaxBufferedSpans());
+    }
+    return bean;
+  }
+
+  @Override
+  public int getOrder() {
+    return Ordered.LOWEST_PRECEDENCE - 5;
+  }
+}
@@ -0,0 +1,62 @@
+package io.opentracing.contrib.spring.cloud.sampling;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of deciding which local traces are reported after they finished.
+ */
+@ConfigurationProperties("opentracing.spring.cloud.tail-sampling")
+public class TailSamplingProperties {
+
+  /**
+   * Minimum duration of a local root span in milliseconds to report its local trace.
+   */
+  private long latencyThreshold = 1000;
+
+  /**
+   * Probability of reporting a local trace without errors or high latency, between 0 and 1.
+   */
+  private double sampleRate = 0;
+
+  /**
+   * Maximum time in milliseconds a local trace is buffered before it is decided.
+   */
+  private long window = 30000;
+
+  /**
+   * Maximum number of buffered finished spans.
+   */
+  private int maxBufferedSpans = 10000;
+
+  public long getLatencyThreshold() {
+    return latencyThreshold;
+  }
+
+  public void setLatencyThreshold(long latencyThreshold) {
+    this.latencyThreshold = latencyThreshold;
+  }
+
+  public double getSampleRate() {
+    return sampleRate;
+  }
+
+  public void setSampleRate(double sampleRate) {
+    this.sampleRate = sampleRate;
+  }
+
+  public long getWindow() {
+    return window;
+  }
+
+  public void setWindow(long window) {
+    this.window = window;
+  }
+
+  public int getMaxBufferedSpans() {
+    return maxBufferedSpans;
+  }
+
+  public void setMaxBufferedSpans(int maxBufferedSpans) {
+    this.maxBufferedSpans = maxBufferedSpans;
+  }
+}
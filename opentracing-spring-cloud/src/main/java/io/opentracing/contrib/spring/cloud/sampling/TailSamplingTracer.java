@@ -0,0 +1,489 @@
+package io.opentracing.contrib.spring.cloud.sampling;
+
+import io.opentracing.ActiveSpan;
+import io.opentracing.BaseSpan;
+import io.opentracing.Span;
+import io.opentracing.SpanContext;
+import io.opentracing.Tracer;
+import io.opentracing.contrib.spring.cloud.tracer.ForwardingSpan;
+import io.opentracing.contrib.spring.cloud.tracer.ForwardingSpanBuilder;
+import io.opentracing.contrib.spring.cloud.tracer.ForwardingTracer;
+import io.opentracing.tag.Tags;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tracer deciding which local traces are reported after they finished. Finished spans of a local trace, the spans of
+ * this process below a span without a local parent, are buffered until its root span finishes. The whole local trace
+ * is then reported if any of its spans is tagged as an error or has an HTTP status code of at least 500, or if the root
+ * span took at least the latency threshold. Other local traces are reported with the sample rate, the rest is
+ * discarded without finishing the spans of the decorated tracer.
+ * <p>
+ * Buffered spans are limited, when the limit is exceeded or a local trace is older than the window, the oldest local
+ * traces are decided early, only by the spans finished so far and by the time elapsed since the local trace started. A
+ * root span of a local trace discarded early is still reported if it took at least the latency threshold, together
+ * with the spans of the local trace finishing after it. Spans of a decided local trace which did not finish yet are
+ * no longer registered, spans started as their children are in local traces of their own.
+ * <p>
+ * Local traces are guarded by {@link ReentrantLock}s instead of monitors, so that spans finishing concurrently on
+ * virtual threads do not pin their carriers.
+ */
+public class TailSamplingTracer extends ForwardingTracer {
+
+  private static final int HTTP_SERVER_ERROR = 500;
+
+  private final long latencyThresholdMicros;
+  private final long latencyThresholdNanos;
+  private final double sampleRate;
+  private final long windowNanos;
+  private final int maxBufferedSpans;
+
+  /**
+   * Local traces of started and not yet finished spans, by their contexts
+   */
+  private final ConcurrentMap<SpanContext, LocalTrace> localTraces = new ConcurrentHashMap<>();
+  /**
+   * Undecided local traces, oldest first. Removed when their root span finishes or when evicted, so that only local
+   * traces in progress are kept regardless of how long the oldest one stays open.
+   */
+  private final Queue<LocalTrace> pendingTraces = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger bufferedSpans = new AtomicInteger();
+  private final LongAdder keptTraces = new LongAdder();
+  private final LongAdder discardedTraces = new LongAdder();
+  private final LongAdder evictedTraces = new LongAdder();
+
+  /**
+   * @param delegate tracer creating and reporting the spans
+   * @param latencyThresholdMillis minimum duration of a root span to report its local trace
+   * @param sampleRate probability of reporting a local trace without errors or high latency
+   * @param windowMillis maximum time a local trace is buffered
+   * @param maxBufferedSpans maximum number of buffered spans of all local traces
+   */
+  public TailSamplingTracer(Tracer delegate, long latencyThresholdMillis, double sampleRate, long windowMillis,
+      int maxBufferedSpans) {
+    super(delegate);
+    this.latencyThresholdMicros = TimeUnit.MILLISECONDS.toMicros(latencyThresholdMillis);
+    this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+    this.sampleRate = sampleRate;
+    this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+    this.maxBufferedSpans = maxBufferedSpans;
+  }
+
+  /**
+   * @return number of reported local traces
+   */
+  public long getKeptTraces() {
+    return keptTraces.sum();
+  }
+
+  /**
+   * @return number of discarded local traces
+   */
+  public long getDiscardedTraces() {
+    return discardedTraces.sum();
+  }
+
+  /**
+   * @return number of local traces decided before their root span finished
+   */
+  public long getEvictedTraces() {
+    return evictedTraces.sum();
+  }
+
+  /**
+   * @return number of started and not yet finished spans of undecided local traces
+   */
+  int getOpenSpans() {
+    return localTraces.size();
+  }
+
+  /**
+   * @return number of local traces waiting for a decision
+   */
+  int getPendingTraces() {
+    return pendingTraces.size();
+  }
+
+  @Override
+  public SpanBuilder buildSpan(String operationName) {
+    return new TailSpanBuilder(delegate.buildSpan(operationName));
+  }
+
+  private static boolean isError(String key, boolean value) {
+    return value && Tags.ERROR.getKey().equals(key);
+  }
+
+  private static boolean isError(String key, Number value) {
+    return value != null && value.intValue() >= HTTP_SERVER_ERROR && Tags.HTTP_STATUS.getKey().equals(key);
+  }
+
+  private static long nowMicros() {
+    return TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+  }
+
+  /**
+   * Decides the oldest local traces which exceeded the window or the buffer limit, and removes decided ones from the
+   * head of the pending traces
+   */
+  private void evict() {
+    long now = System.nanoTime();
+    LocalTrace oldest;
+    while ((oldest = pendingTraces.peek()) != null) {
+      if (!oldest.isDecided() && now - oldest.startNanos < windowNanos && bufferedSpans.get() <= maxBufferedSpans) {
+        return;
+      }
+      if (pendingTraces.remove(oldest) && oldest.decide(null)) {
+        evictedTraces.increment();
+      }
+    }
+  }
+
+  /**
+   * Extends the lock guarding it to avoid allocating one per local trace
+   */
+  private final class LocalTrace extends ReentrantLock {
+
+    private final long startNanos = System.nanoTime();
+    private List<TailSpan> finishedSpans = new ArrayList<>();
+    /**
+     * Contexts of the spans registered in the local traces, null once decided
+     */
+    private Set<SpanContext> openContexts = new HashSet<>();
+    private boolean error;
+    /**
+     * Null until decided
+     */
+    private Boolean keep;
+
+    boolean isDecided() {
+      lock();
+      try {
+        return keep != null;
+      } finally {
+        unlock();
+      }
+    }
+
+    void error() {
+      lock();
+      try {
+        error = true;
+      } finally {
+        unlock();
+      }
+    }
+
+    /**
+     * Registers the context of a started span, unless already decided
+     */
+    void opened(SpanContext context) {
+      lock();
+      try {
+        if (openContexts != null) {
+          openContexts.add(context);
+          localTraces.put(context, this);
+        }
+      } finally {
+        unlock();
+      }
+    }
+
+    void closed(SpanContext context) {
+      lock();
+      try {
+        if (openContexts != null) {
+          openContexts.remove(context);
+        }
+      } finally {
+        unlock();
+      }
+      localTraces.remove(context, this);
+    }
+
+    /**
+     * Buffers the span or reports it, if the local trace is decided to be kept
+     */
+    void finished(TailSpan span) {
+      boolean kept;
+      lock();
+      try {
+        if (keep == null) {
+          finishedSpans.add(span);
+          kept = false;
+        } else if (keep) {
+          kept = true;
+        } else {
+          return;
+        }
+      } finally {
+        unlock();
+      }
+      if (kept) {
+        span.report();
+      } else if (bufferedSpans.incrementAndGet() > maxBufferedSpans) {
+        evict();
+      }
+    }
+
+    /**
+     * @param root finished root span, null if decided early
+     * @return false if already decided
+     */
+    boolean decide(TailSpan root) {
+      List<TailSpan> spans;
+      Set<SpanContext> contexts;
+      boolean kept;
+      lock();
+      try {
+        if (keep != null) {
+          return false;
+        }
+        boolean slow = root != null ? isSlow(root) : System.nanoTime() - startNanos >= latencyThresholdNanos;
+        kept = error || slow || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+        keep = kept;
+        spans = finishedSpans;
+        finishedSpans = null;
+        contexts = openContexts;
+        openContexts = null;
+      } finally {
+        unlock();
+      }
+      if (root != null) {
+        pendingTraces.remove(this);
+      }
+      bufferedSpans.addAndGet(-spans.size());
+      for (SpanContext context : contexts) {
+        localTraces.remove(context, this);
+      }
+      if (kept) {
+        keptTraces.increment();
+        for (TailSpan span : spans) {
+          span.report();
+        }
+        if (root != null) {
+          root.report();
+        }
+      } else {
+        discardedTraces.increment();
+      }
+      return true;
+    }
+
+    /**
+     * Keeps a local trace discarded early if its root span took at least the latency threshold
+     *
+     * @param root finished root span
+     * @return true if kept
+     */
+    boolean keepIfSlow(TailSpan root) {
+      lock();
+      try {
+        if (Boolean.TRUE.equals(keep)) {
+          return true;
+        }
+        if (!isSlow(root)) {
+          return false;
+        }
+        keep = true;
+      } finally {
+        unlock();
+      }
+      discardedTraces.decrement();
+      keptTraces.increment();
+      return true;
+    }
+
+    private boolean isSlow(TailSpan root) {
+      return root.finishMicros - root.startMicros >= latencyThresholdMicros;
+    }
+  }
+
+  private final class TailSpanBuilder extends ForwardingSpanBuilder {
+
+    private SpanContext parent;
+    private boolean ignoreActiveSpan;
+    /**
+     * Start timestamp given by the caller, -1 if not given
+     */
+    private long startTimestampMicros = -1;
+    private boolean error;
+
+    TailSpanBuilder(SpanBuilder delegate) {
+      super(delegate, TailSamplingTracer.this);
+    }
+
+    @Override
+    public SpanBuilder asChildOf(SpanContext parent) {
+      setParent(parent);
+      return super.asChildOf(parent);
+    }
+
+    @Override
+    public SpanBuilder asChildOf(BaseSpan<?> parent) {
+      setParent(parent != null ? parent.context() : null);
+      return super.asChildOf(parent);
+    }
+
+    @Override
+    public SpanBuilder addReference(String referenceType, SpanContext referencedContext) {
+      setParent(referencedContext);
+      return super.addReference(referenceType, referencedContext);
+    }
+
+    @Override
+    public SpanBuilder ignoreActiveSpan() {
+      ignoreActiveSpan = true;
+      return super.ignoreActiveSpan();
+    }
+
+    @Override
+    public SpanBuilder withTag(String key, boolean value) {
+      error |= isError(key, value);
+      return super.withTag(key, value);
+    }
+
+    @Override
+    public SpanBuilder withTag(String key, Number value) {
+      error |= isError(key, value);
+      return super.withTag(key, value);
+    }
+
+    @Override
+    public SpanBuilder withStartTimestamp(long microseconds) {
+      startTimestampMicros = microseconds;
+      return super.withStartTimestamp(microseconds);
+    }
+
+    /**
+     * The first local reference decides the local trace
+     */
+    private void setParent(SpanContext context) {
+      if (context != null && (parent == null || !localTraces.containsKey(parent))) {
+        parent = context;
+      }
+    }
+
+    @Override
+    public Span startManual() {
+      SpanContext parentContext = parent;
+      if (parentContext == null && !ignoreActiveSpan) {
+        ActiveSpan activeSpan = activeSpan();
+        parentContext = activeSpan != null ? activeSpan.context() : null;
+      }
+      LocalTrace localTrace = parentContext != null ? localTraces.get(parentContext) : null;
+      boolean root = localTrace == null;
+      if (root) {
+        localTrace = new LocalTrace();
+        pendingTraces.add(localTrace);
+        evict();
+      }
+      if (error) {
+        localTrace.error();
+      }
+
+      Span span;
+      long startMicros;
+      long startNanos;
+      if (startTimestampMicros != -1) {
+        span = delegate.startManual();
+        startMicros = startTimestampMicros;
+        startNanos = -1;
+      } else {
+        // the start is set explicitly, so that the duration is known when the span finishes
+        startMicros = nowMicros();
+        startNanos = System.nanoTime();
+        span = delegate.withStartTimestamp(startMicros).startManual();
+      }
+      return new TailSpan(span, localTrace, root, startMicros, startNanos);
+    }
+  }
+
+  private final class TailSpan extends ForwardingSpan {
+
+    private final LocalTrace localTrace;
+    private final boolean root;
+    private final long startMicros;
+    /**
+     * {@link System#nanoTime()} at the start, -1 if the start timestamp was given by the caller
+     */
+    private final long startNanos;
+    /**
+     * Context registered in the local traces, replaced when baggage changes the context
+     */
+    private SpanContext context;
+    private long finishMicros;
+
+    TailSpan(Span delegate, LocalTrace localTrace, boolean root, long startMicros, long startNanos) {
+      super(delegate);
+      this.localTrace = localTrace;
+      this.root = root;
+      this.startMicros = startMicros;
+      this.startNanos = startNanos;
+      this.context = delegate.context();
+      localTrace.opened(context);
+    }
+
+    @Override
+    public Span setBaggageItem(String key, String value) {
+      super.setBaggageItem(key, value);
+      SpanContext newContext = delegate.context();
+      if (newContext != context) {
+        localTrace.closed(context);
+        localTrace.opened(newContext);
+        context = newContext;
+      }
+      return this;
+    }
+
+    @Override
+    public Span setTag(String key, boolean value) {
+      if (isError(key, value)) {
+        localTrace.error();
+      }
+      return super.setTag(key, value);
+    }
+
+    @Override
+    public Span setTag(String key, Number value) {
+      if (isError(key, value)) {
+        localTrace.error();
+      }
+      return super.setTag(key, value);
+    }
+
+    @Override
+    public void finish() {
+      finish(startNanos == -1 ? nowMicros()
+          : startMicros + TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
+    }
+
+    @Override
+    public void finish(long finishMicros) {
+      this.finishMicros = finishMicros;
+      localTrace.closed(context);
+      if (root) {
+        if (!localTrace.decide(this) && localTrace.keepIfSlow(this)) {
+          // decided early and kept
+          report();
+        }
+      } else {
+        localTrace.finished(this);
+      }
+    }
+
+    void report() {
+      delegate.finish(finishMicros);
+    }
+  }
+}
@@ -0,0 +1,114 @@
+package io.opentracing.contrib.spring.cloud.tracer;
+
+import io.opentracing.Span;
+import io.opentracing.SpanContext;
+import java.util.Map;
+
+/**
+ * Span forwarding all calls to another span, base of spans of {@link io.opentracing.Tracer} decorators.
+ */
+public abstract class ForwardingSpan implements Span {
+
+  protected final Span delegate;
+
+  protected ForwardingSpan(Span delegate) {
+    this.delegate = delegate;
+  }
+
+  public Span getDelegate() {
+    return delegate;
+  }
+
+  @Override
+  public SpanContext context() {
+    return delegate.context();
+  }
+
+  @Override
+  public Span setTag(String key, String value) {
+    delegate.setTag(key, value);
+    return this;
+  }
+
+  @Override
+  public Span setTag(String key, boolean value) {
+    delegate.setTag(key, value);
+    return this;
+  }
+
+  @Override
+  public Span setTag(String key, Number value) {
+    delegate.setTag(key, value);
+    return this;
+  }
+
+  @Override
+  public Span log(Map<String, ?> fields) {
+    delegate.log(fields);
+    return this;
+  }
+
+  @Override
+  public Span log(long timestampMicroseconds, Map<String, ?> fields) {
+    delegate.log(timestampMicroseconds, fields);
+    return this;
+  }
+
+  @Override
+  public Span log(String event) {
+    delegate.log(event);
+    return this;
+  }
+
+  @Override
+  public Span log(long timestampMicroseconds, String event) {
+    delegate.log(timestampMicroseconds, event);
+    return this;
+  }
+
+  @Override
+  public Span setBaggageItem(String key, String value) {
+    delegate.setBaggageItem(key, value);
+    return this;
+  }
+
+  @Override
+  public String getBaggageItem(String key) {
+    return delegate.getBaggageItem(key);
+  }
+
+  @Override
+  public Span setOperationName(String operationName) {
+    delegate.setOperationName(operationName);
+    return this;
+  }
+
+  @Override
+  @Deprecated
+  public Span log(String eventName, Object payload) {
+    delegate.log(eventName, payload);
+    return this;
+  }
+
+  @Override
+  @Deprecated
+  public Span log(long timestampMicroseconds, String eventName, Object payload) {
+    delegate.log(timestampMicroseconds, eventName, payload);
+    return this;
+  }
+
+  @Override
+  public void finish() {
+    delegate.finish();
+  }
+
+  @Override
+  public void finish(long finishMicros) {
+    delegate.finish(finishMicros);
+  }
+
+  @Override
+  public String toString() {
+    return delegate.toString();
+  }
+}
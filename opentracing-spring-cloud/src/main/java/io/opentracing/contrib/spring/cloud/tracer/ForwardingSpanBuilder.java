@@ -0,0 +1,88 @@
+package io.opentracing.contrib.spring.cloud.tracer;
+
+import io.opentracing.ActiveSpan;
+import io.opentracing.ActiveSpanSource;
+import io.opentracing.BaseSpan;
+import io.opentracing.Span;
+import io.opentracing.SpanContext;
+import io.opentracing.Tracer.SpanBuilder;
+
+/**
+ * Span builder forwarding all calls to another builder, base of builders of {@link io.opentracing.Tracer} decorators.
+ * Active spans are started by activating the result of {@link #startManual()}, so that they are the decorated spans.
+ */
+public abstract class ForwardingSpanBuilder implements SpanBuilder {
+
+  protected final SpanBuilder delegate;
+  private final ActiveSpanSource activeSpanSource;
+
+  /**
+   * @param activeSpanSource activates spans started by {@link #startActive()}, usually the decorating tracer
+   */
+  protected ForwardingSpanBuilder(SpanBuilder delegate, ActiveSpanSource activeSpanSource) {
+    this.delegate = delegate;
+    this.activeSpanSource = activeSpanSource;
+  }
+
+  @Override
+  public SpanBuilder asChildOf(SpanContext parent) {
+    delegate.asChildOf(parent);
+    return this;
+  }
+
+  @Override
+  public SpanBuilder asChildOf(BaseSpan<?> parent) {
+    delegate.asChildOf(parent);
+    return this;
+  }
+
+  @Override
+  public SpanBuilder addReference(String referenceType, SpanContext referencedContext) {
+    delegate.addReference(referenceType, referencedContext);
+    return this;
+  }
+
+  @Override
+  public SpanBuilder ignoreActiveSpan() {
+    delegate.ignoreActiveSpan();
+    return this;
+  }
+
+  @Override
+  public SpanBuilder withTag(String key, String value) {
+    delegate.withTag(key, value);
+    return this;
+  }
+
+  @Override
+  public SpanBuilder withTag(String key, boolean value) {
+    delegate.withTag(key, value);
+    return this;
+  }
+
+  @Override
+  public SpanBuilder withTag(String key, Number value) {
+    delegate.withTag(key, value);
+    return this;
+  }
+
+  @Override
+  public SpanBuilder withStartTimestamp(long microseconds) {
+    delegate.withStartTimestamp(microseconds);
+    return this;
+  }
+
+  @Override
+  public ActiveSpan startActive() {
+    return activeSpanSource.makeActive(startManual());
+  }
+
+  @Override
+  public abstract Span startManual();
+
+  @Override
+  @Deprecated
+  public Span start() {
+    return startManual();
+  }
+}
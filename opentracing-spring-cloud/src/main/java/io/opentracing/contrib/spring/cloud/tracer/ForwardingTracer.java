@@ -0,0 +1,44 @@
+package io.opentracing.contrib.spring.cloud.tracer;
+
+import io.opentracing.ActiveSpan;
+import io.opentracing.Span;
+import io.opentracing.SpanContext;
+import io.opentracing.Tracer;
+import io.opentracing.propagation.Format;
+
+/**
+ * Tracer forwarding all calls to another tracer, base of tracer decorators which wrap the spans in
+ * {@link ForwardingSpan}s built by a {@link ForwardingSpanBuilder}.
+ */
+public abstract class ForwardingTracer implements Tracer {
+
+  protected final Tracer delegate;
+
+  protected ForwardingTracer(Tracer delegate) {
+    this.delegate = delegate;
+  }
+
+  public Tracer getDelegate() {
+    return delegate;
+  }
+
+  @Override
+  public <C> void inject(SpanContext spanContext, Format<C> format, C carrier) {
+    delegate.inject(spanContext, format, carrier);
+  }
+
+  @Override
+  public <C> SpanContext extract(Format<C> format, C carrier) {
+    return delegate.extract(format, carrier);
+  }
+
+  @Override
+  public ActiveSpan activeSpan() {
+    return delegate.activeSpan();
+  }
+
+  @Override
+  public ActiveSpan makeActive(Span span) {
+    return delegate.makeActive(span);
+  }
+}
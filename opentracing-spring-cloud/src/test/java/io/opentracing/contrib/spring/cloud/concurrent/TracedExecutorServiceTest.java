@@ -0,0 +1,182 @@
+package io.opentracing.contrib.spring.cloud.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import io.opentracing.ActiveSpan;
+import io.opentracing.mock.MockSpan;
+import io.opentracing.mock.MockTracer;
+import io.opentracing.util.ThreadLocalActiveSpanSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Test;
+
+public class TracedExecutorServiceTest {
+
+  private final MockTracer mockTracer = new MockTracer(new ThreadLocalActiveSpanSource(),
+      MockTracer.Propagator.TEXT_MAP);
+  private final ExecutorService executor = new TracedExecutorService(Executors.newFixedThreadPool(4), mockTracer);
+
+  @After
+  public void after() throws InterruptedException {
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testActiveSpanIsContinued() throws Exception {
+    Future<?> future;
+    try (ActiveSpan parent = mockTracer.buildSpan("parent").startActive()) {
+      future = executor.submit(new Runnable() {
+        @Override
+        public void run() {
+          mockTracer.buildSpan("child").startManual().finish();
+        }
+      });
+    }
+    future.get(10, TimeUnit.SECONDS);
+
+    List<MockSpan> mockSpans = mockTracer.finishedSpans();
+    assertEquals(2, mockSpans.size());
+    assertEquals("parent", mockSpans.get(1).operationName());
+    assertEquals(mockSpans.get(1).context().spanId(), mockSpans.get(0).parentId());
+  }
+
+  @Test
+  public void testTaskWithoutActiveSpan() throws Exception {
+    Future<Boolean> future = executor.submit(new Callable<Boolean>() {
+      @Override
+      public Boolean call() {
+        return mockTracer.activeSpan() == null;
+      }
+    });
+    assertTrue(future.get(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testInvokeAnyFinishesParent() throws Exception {
+    Callable<String> task = new Callable<String>() {
+      @Override
+      public String call() {
+        return "foo";
+      }
+    };
+    try (ActiveSpan parent = mockTracer.buildSpan("parent").startActive()) {
+      assertEquals("foo", executor.invokeAny(Arrays.asList(task, task, task)));
+    }
+
+    // tasks cancelled before running release their continuations
+    assertEquals(1, mockTracer.finishedSpans().size());
+  }
+
+  @Test
+  public void testCancelledTaskFinishesParent() throws Exception {
+    ExecutorService singleThreadExecutor = new TracedExecutorService(Executors.newSingleThreadExecutor(), mockTracer);
+    CountDownLatch blocked = new CountDownLatch(1);
+    try {
+      singleThreadExecutor.execute(new BlockingTask(blocked));
+      Future<?> future;
+      try (ActiveSpan parent = mockTracer.buildSpan("parent").startActive()) {
+        future = singleThreadExecutor.submit(new Runnable() {
+          @Override
+          public void run() {
+            mockTracer.buildSpan("child").startManual().finish();
+          }
+        });
+      }
+      assertTrue(mockTracer.finishedSpans().isEmpty());
+
+      assertTrue(future.cancel(false));
+      assertEquals(1, mockTracer.finishedSpans().size());
+      assertEquals("parent", mockTracer.finishedSpans().get(0).operationName());
+    } finally {
+      blocked.countDown();
+      singleThreadExecutor.shutdown();
+    }
+  }
+
+  @Test
+  public void testShutdownNowFinishesParent() throws Exception {
+    ExecutorService singleThreadExecutor = new TracedExecutorService(Executors.newSingleThreadExecutor(), mockTracer);
+    singleThreadExecutor.execute(new BlockingTask(new CountDownLatch(1)));
+    try (ActiveSpan parent = mockTracer.buildSpan("parent").startActive()) {
+      Runnable child = new Runnable() {
+        @Override
+        public void run() {
+          mockTracer.buildSpan("child").startManual().finish();
+        }
+      };
+      singleThreadExecutor.execute(child);
+      singleThreadExecutor.submit(child);
+    }
+    assertTrue(mockTracer.finishedSpans().isEmpty());
+
+    assertEquals(2, singleThreadExecutor.shutdownNow().size());
+    assertTrue(singleThreadExecutor.awaitTermination(10, TimeUnit.SECONDS));
+    assertEquals(1, mockTracer.finishedSpans().size());
+    assertEquals("parent", mockTracer.finishedSpans().get(0).operationName());
+  }
+
+  @Test
+  public void testConcurrentSubmissions() throws Exception {
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      Thread thread = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          for (int j = 0; j < 250; j++) {
+            try (ActiveSpan parent = mockTracer.buildSpan("parent").startActive()) {
+              executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                  mockTracer.buildSpan("child").startManual().finish();
+                }
+              });
+            }
+          }
+        }
+      });
+      thread.start();
+      threads.add(thread);
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+    List<MockSpan> mockSpans = mockTracer.finishedSpans();
+    assertEquals(4000, mockSpans.size());
+    for (MockSpan mockSpan : mockSpans) {
+      if ("child".equals(mockSpan.operationName())) {
+        assertTrue(mockSpan.parentId() != 0);
+      }
+    }
+  }
+
+  private static final class BlockingTask implements Runnable {
+
+    private final CountDownLatch latch;
+
+    BlockingTask(CountDownLatch latch) {
+      this.latch = latch;
+    }
+
+    @Override
+    public void run() {
+      try {
+        latch.await(10, TimeUnit.SECONDS);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
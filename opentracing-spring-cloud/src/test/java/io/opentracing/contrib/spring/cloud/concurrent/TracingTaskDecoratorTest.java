@@ -0,0 +1,136 @@
+package io.opentracing.contrib.spring.cloud.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import io.opentracing.ActiveSpan;
+import io.opentracing.mock.MockSpan;
+import io.opentracing.mock.MockTracer;
+import io.opentracing.util.ThreadLocalActiveSpanSource;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+public class TracingTaskDecoratorTest {
+
+  private final MockTracer mockTracer = new MockTracer(new ThreadLocalActiveSpanSource(),
+      MockTracer.Propagator.TEXT_MAP);
+  private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+  @After
+  public void after() {
+    executor.shutdown();
+  }
+
+  private void postProcess() {
+    StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+    beanFactory.addBean("tracer", mockTracer);
+    TracedExecutorBeanPostProcessor postProcessor = new TracedExecutorBeanPostProcessor(beanFactory);
+    postProcessor.postProcessBeforeInitialization(executor, "taskExecutor");
+    if (!isInitialized()) {
+      executor.afterPropertiesSet();
+    }
+    postProcessor.postProcessAfterInitialization(executor, "taskExecutor");
+  }
+
+  private boolean isInitialized() {
+    try {
+      return executor.getThreadPoolExecutor() != null;
+    } catch (IllegalStateException ex) {
+      return false;
+    }
+  }
+
+  @Test
+  public void testCompletableFutureChain() throws Exception {
+    postProcess();
+    CompletableFuture<String> future;
+    try (ActiveSpan parent = mockTracer.buildSpan("parent").startActive()) {
+      future = CompletableFuture.supplyAsync(new Supplier<String>() {
+        @Override
+        public String get() {
+          mockTracer.buildSpan("supply").startManual().finish();
+          return "foo";
+        }
+      }, executor).thenApplyAsync(new Function<String, String>() {
+        @Override
+        public String apply(String value) {
+          mockTracer.buildSpan("apply").startManual().finish();
+          return value + "bar";
+        }
+      }, executor);
+    }
+    assertEquals("foobar", future.get(10, TimeUnit.SECONDS));
+
+    List<MockSpan> mockSpans = mockTracer.finishedSpans();
+    assertEquals(3, mockSpans.size());
+    MockSpan parent = mockSpans.get(2);
+    assertEquals("parent", parent.operationName());
+    assertEquals(parent.context().spanId(), mockSpans.get(0).parentId());
+    assertEquals(parent.context().spanId(), mockSpans.get(1).parentId());
+  }
+
+  @Test
+  public void testInitializedExecutorIsNotInitializedAgain() throws Exception {
+    executor.initialize();
+    ThreadPoolExecutor threadPool = executor.getThreadPoolExecutor();
+    postProcess();
+    assertSame(threadPool, executor.getThreadPoolExecutor());
+
+    try (ActiveSpan parent = mockTracer.buildSpan("parent").startActive()) {
+      executor.submit(new Runnable() {
+        @Override
+        public void run() {
+          mockTracer.buildSpan("child").startManual().finish();
+        }
+      }).get(10, TimeUnit.SECONDS);
+    }
+
+    List<MockSpan> mockSpans = mockTracer.finishedSpans();
+    assertEquals(2, mockSpans.size());
+    assertEquals(0, mockSpans.get(0).parentId());
+  }
+
+  @Test
+  public void testRejectedTaskReleasesSpan() throws Exception {
+    executor.setCorePoolSize(1);
+    executor.setMaxPoolSize(1);
+    executor.setQueueCapacity(0);
+    postProcess();
+    final CountDownLatch release = new CountDownLatch(1);
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    });
+    try (ActiveSpan parent = mockTracer.buildSpan("parent").startActive()) {
+      executor.execute(new Runnable() {
+        @Override
+        public void run() {
+        }
+      });
+      fail();
+    } catch (TaskRejectedException ex) {
+    } finally {
+      release.countDown();
+    }
+
+    assertEquals(1, mockTracer.finishedSpans().size());
+  }
+}
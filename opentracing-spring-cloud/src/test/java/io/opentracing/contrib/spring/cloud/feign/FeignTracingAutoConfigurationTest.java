@@ -1,6 +1,15 @@
 package io.opentracing.contrib.spring.cloud.feign;
 
+import feign.Client;
+import feign.Request;
+import feign.opentracing.TracingClient;
 import io.opentracing.Tracer;
+import io.opentracing.contrib.spring.cloud.metrics.InstrumentationMetrics;
+import io.opentracing.mock.MockTracer;
+import io.opentracing.util.ThreadLocalActiveSpanSource;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
 import org.junit.Test;
 
 import org.springframework.boot.test.util.EnvironmentTestUtils;
@@ -9,8 +18,10 @@ import org.springframework.context.annotation.AnnotationConfigApplicationContext
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
 
@@ -38,6 +49,32 @@ public class FeignTracingAutoConfigurationTest {
     assertThat(feignContextBeans.length, is(0));
   }
 
+  @Test
+  public void clientBeanIsTraced() {
+    AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+    context.register(ClientConfig.class, TracerConfig.class, FeignTracingAutoConfiguration.class);
+    context.refresh();
+    assertThat(context.getBean(Client.class), instanceOf(TracingClient.class));
+  }
+
+  @Test
+  public void clientBeanIsWrappedOnce() throws IOException {
+    AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+    context.register(ClientConfig.class, MockTracerConfig.class, FeignTracingAutoConfiguration.class);
+    EnvironmentTestUtils.addEnvironment(context, "opentracing.spring.cloud.feign.metrics-enabled:true");
+    context.refresh();
+    Client client = context.getBean(Client.class);
+    Request request = Request.create("GET", "http://localhost/hello", new HashMap<String, Collection<String>>(), null,
+        null);
+    client.execute(request, new Request.Options());
+    client.execute(request, new Request.Options());
+
+    assertSame(client, context.getBean(Client.class));
+    assertThat(context.getBean(MockTracer.class).finishedSpans().size(), is(2));
+    InstrumentationMetrics metrics = context.getBean("feignInstrumentationMetrics", InstrumentationMetrics.class);
+    assertThat(metrics.getWrappersCreated(), is(1L));
+  }
+
   @Configuration
   static class TracerConfig {
 
@@ -47,6 +84,15 @@ public class FeignTracingAutoConfigurationTest {
     }
   }
 
+  @Configuration
+  static class MockTracerConfig {
+
+    @Bean
+    public MockTracer tracer() {
+      return new MockTracer(new ThreadLocalActiveSpanSource(), MockTracer.Propagator.TEXT_MAP);
+    }
+  }
+
   @Configuration
   static class FeignContextConfig {
 
@@ -55,4 +101,13 @@ public class FeignTracingAutoConfigurationTest {
       return mock(TraceFeignContext.class);
     }
   }
+
+  @Configuration
+  static class ClientConfig {
+
+    @Bean
+    public Client client() {
+      return mock(Client.class);
+    }
+  }
 }
@@ -0,0 +1,108 @@
+package io.opentracing.contrib.spring.cloud.feign;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import feign.Client;
+import feign.Feign;
+import feign.Request;
+import feign.opentracing.TracingClient;
+import io.opentracing.ActiveSpan;
+import io.opentracing.Tracer;
+import io.opentracing.contrib.spring.cloud.sampling.SpanSampler;
+import io.opentracing.mock.MockSpan;
+import io.opentracing.mock.MockTracer;
+import io.opentracing.util.ThreadLocalActiveSpanSource;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.cloud.netflix.feign.FeignContext;
+
+public class TraceFeignContextTest {
+
+  private FeignContext delegate;
+  private TraceFeignContext traceFeignContext;
+
+  @Before
+  public void before() {
+    delegate = mock(FeignContext.class);
+    traceFeignContext = new TraceFeignContext(mock(Tracer.class), delegate, mock(BeanFactory.class));
+    Client client = mock(Client.class);
+    when(delegate.getInstance("foo", Client.class)).thenReturn(client);
+    when(delegate.getInstances("foo", Client.class)).thenReturn(Collections.singletonMap("client", client));
+  }
+
+  @Test
+  public void testClientIsWrappedOnce() {
+    Client client = traceFeignContext.getInstance("foo", Client.class);
+    assertTrue(client instanceof TracingClient);
+    assertSame(client, traceFeignContext.getInstance("foo", Client.class));
+    verify(delegate, times(1)).getInstance("foo", Client.class);
+  }
+
+  @Test
+  public void testClientMapIsBuiltOnce() {
+    Map<String, Client> clients = traceFeignContext.getInstances("foo", Client.class);
+    assertTrue(clients.get("client") instanceof TracingClient);
+    assertSame(clients, traceFeignContext.getInstances("foo", Client.class));
+    verify(delegate, times(1)).getInstances("foo", Client.class);
+  }
+
+  @Test
+  public void testNonClientIsNotMemoized() {
+    when(delegate.getInstance("foo", Feign.Builder.class)).thenReturn(Feign.builder(), Feign.builder());
+    assertNotSame(traceFeignContext.getInstance("foo", Feign.Builder.class),
+        traceFeignContext.getInstance("foo", Feign.Builder.class));
+  }
+
+  @Test
+  public void testUnsampledClient() throws Exception {
+    traceFeignContext = new TraceFeignContext(mock(Tracer.class), delegate, mock(BeanFactory.class),
+        SpanSampler.create(0, 0));
+    Client client = traceFeignContext.getInstance("foo", Client.class);
+    assertTrue(client instanceof SamplingClient);
+    client.execute(null, null);
+    verify(delegate.getInstance("foo", Client.class)).execute(null, null);
+  }
+
+  @Test
+  public void testUnsampledClientPropagatesActiveContext() throws Exception {
+    MockTracer tracer = new MockTracer(new ThreadLocalActiveSpanSource(), MockTracer.Propagator.TEXT_MAP);
+    traceFeignContext = new TraceFeignContext(tracer, delegate, mock(BeanFactory.class), SpanSampler.create(0, 0));
+    Client client = traceFeignContext.getInstance("foo", Client.class);
+    Request request = Request.create("GET", "http://localhost/hello",
+        Collections.<String, Collection<String>>singletonMap("Accept", Collections.singletonList("text/plain")), null,
+        null);
+    try (ActiveSpan parent = tracer.buildSpan("parent").startActive()) {
+      client.execute(request, null);
+
+      ArgumentCaptor<Request> sent = ArgumentCaptor.forClass(Request.class);
+      verify(delegate.getInstance("foo", Client.class)).execute(sent.capture(), isNull(Request.Options.class));
+      MockSpan.MockContext context = (MockSpan.MockContext) parent.context();
+      assertEquals(Collections.singletonList(String.valueOf(context.traceId())),
+          sent.getValue().headers().get("traceid"));
+      assertEquals(Collections.singletonList("text/plain"), sent.getValue().headers().get("Accept"));
+    }
+    // no local span
+    assertEquals(1, tracer.finishedSpans().size());
+  }
+
+  @Test
+  public void testDestroyInvalidates() {
+    Client client = traceFeignContext.getInstance("foo", Client.class);
+    traceFeignContext.destroy();
+    verify(delegate).destroy();
+    assertNotSame(client, traceFeignContext.getInstance("foo", Client.class));
+  }
+}
@@ -0,0 +1,58 @@
+package io.opentracing.contrib.spring.cloud.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.tomcat.jdbc.pool.DataSource;
+import org.junit.Test;
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.actuate.metrics.Metric;
+
+public class ConnectionPoolPublicMetricsTest {
+
+  @Test
+  public void testTomcatPoolMetrics() throws Exception {
+    DataSource dataSource = new DataSource();
+    dataSource.setUrl("jdbc:h2:mem:pool");
+    dataSource.setMaxActive(2);
+    ConnectionPoolMetrics poolMetrics = new ConnectionPoolMetrics(60000);
+    poolMetrics.record(dataSource, 2000000, false);
+    StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+    beanFactory.addBean("dataSource", dataSource);
+
+    try (Connection connection = dataSource.getConnection()) {
+      Map<String, Number> metrics = new HashMap<>();
+      for (Metric<?> metric : new ConnectionPoolPublicMetrics(beanFactory, poolMetrics).metrics()) {
+        metrics.put(metric.getName(), metric.getValue());
+      }
+      assertEquals(1, metrics.get("opentracing.jdbc.pool.dataSource.active"));
+      assertEquals(0, metrics.get("opentracing.jdbc.pool.dataSource.waiting"));
+      assertEquals(1L, metrics.get("opentracing.jdbc.pool.dataSource.wait.count"));
+      assertTrue(metrics.get("opentracing.jdbc.pool.dataSource.wait.max").doubleValue() >= 1.9);
+    } finally {
+      dataSource.close();
+    }
+  }
+
+  @Test
+  public void testUninitializedTomcatPoolIsNotCreated() {
+    DataSource dataSource = new DataSource();
+    dataSource.setUrl("jdbc:h2:mem:uninitialized");
+    StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+    beanFactory.addBean("dataSource", dataSource);
+
+    Map<String, Number> metrics = new HashMap<>();
+    for (Metric<?> metric : new ConnectionPoolPublicMetrics(beanFactory, new ConnectionPoolMetrics(60000)).metrics()) {
+      metrics.put(metric.getName(), metric.getValue());
+    }
+    assertEquals(0, metrics.get("opentracing.jdbc.pool.dataSource.active"));
+    assertEquals(0, metrics.get("opentracing.jdbc.pool.dataSource.idle"));
+    assertEquals(0, metrics.get("opentracing.jdbc.pool.dataSource.waiting"));
+    assertNull(new DirectFieldAccessor(dataSource).getPropertyValue("pool"));
+  }
+}
@@ -0,0 +1,192 @@
+package io.opentracing.contrib.spring.cloud.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import io.opentracing.contrib.jdbc.TracingConnection;
+import io.opentracing.contrib.spring.cloud.metrics.InstrumentationMetrics;
+import io.opentracing.contrib.spring.cloud.sampling.SpanSampler;
+import io.opentracing.mock.MockSpan;
+import io.opentracing.mock.MockTracer;
+import io.opentracing.tag.Tags;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.List;
+import javax.sql.DataSource;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class JdbcAspectTest {
+
+  private JdbcAspect jdbcAspect;
+  private DataSource dataSource;
+  private Connection connection;
+  private DatabaseMetaData metaData;
+  private ProceedingJoinPoint pjp;
+
+  @Before
+  public void before() throws Throwable {
+    jdbcAspect = new JdbcAspect();
+    dataSource = mock(DataSource.class);
+    connection = mock(Connection.class);
+    metaData = mock(DatabaseMetaData.class);
+    pjp = mock(ProceedingJoinPoint.class);
+    when(metaData.getURL()).thenReturn("jdbc:mysql://localhost:3306/orders?useSSL=false");
+    when(metaData.getUserName()).thenReturn("app");
+    when(connection.getMetaData()).thenReturn(metaData);
+    when(pjp.proceed()).thenReturn(connection);
+    when(pjp.getTarget()).thenReturn(dataSource);
+  }
+
+  @Test
+  public void metadataIsReadOncePerDataSource() throws Throwable {
+    assertTrue(jdbcAspect.getConnection(pjp) instanceof TracingConnection);
+    assertTrue(jdbcAspect.getConnection(pjp) instanceof TracingConnection);
+    verify(connection, times(1)).getMetaData();
+  }
+
+  @Test
+  public void equalDataSourcesAreCachedSeparately() throws Throwable {
+    DataSource first = new EqualDataSource();
+    DataSource second = new EqualDataSource();
+    Connection secondConnection = mock(Connection.class);
+    DatabaseMetaData secondMetaData = mock(DatabaseMetaData.class);
+    when(secondMetaData.getURL()).thenReturn("jdbc:h2:mem:invoices");
+    when(secondConnection.getMetaData()).thenReturn(secondMetaData);
+
+    assertEquals("orders", jdbcAspect.getConnectionInfo(first, connection).getDbInstance());
+    assertEquals("invoices", jdbcAspect.getConnectionInfo(second, secondConnection).getDbInstance());
+    assertEquals("orders", jdbcAspect.getConnectionInfo(first, connection).getDbInstance());
+  }
+
+  @Test
+  public void metadataIsReadAgainAfterInvalidation() throws Throwable {
+    jdbcAspect.getConnection(pjp);
+    jdbcAspect.invalidate(dataSource);
+    jdbcAspect.getConnection(pjp);
+    verify(connection, times(2)).getMetaData();
+  }
+
+  @Test
+  public void unsampledConnectionIsNotWrapped() throws Throwable {
+    jdbcAspect = new JdbcAspect(SpanSampler.create(0, 0));
+    assertSame(connection, jdbcAspect.getConnection(pjp));
+    verifyZeroInteractions(connection);
+  }
+
+  @Test
+  public void metricsAreRecorded() throws Throwable {
+    InstrumentationMetrics metrics = InstrumentationMetrics.create("jdbc");
+    jdbcAspect = new JdbcAspect(SpanSampler.create(0, 0), null, metrics);
+    jdbcAspect.getConnection(pjp);
+    assertEquals(1, metrics.getSpansUnsampled());
+    assertEquals(1, metrics.getWrappersAvoided());
+    assertEquals(1, metrics.getOverheadCount());
+  }
+
+  @Test
+  public void slowAcquisitionIsReported() throws Throwable {
+    MockTracer mockTracer = new MockTracer();
+    ConnectionPoolMetrics poolMetrics = new ConnectionPoolMetrics(60000);
+    jdbcAspect = new JdbcAspect(SpanSampler.always(), null, InstrumentationMetrics.disabled(),
+        new PoolWaitTracer(mockTracer, 10, poolMetrics));
+    jdbcAspect.getConnection(pjp);
+    assertTrue(mockTracer.finishedSpans().isEmpty());
+
+    when(pjp.proceed()).thenAnswer(new Answer<Connection>() {
+      @Override
+      public Connection answer(InvocationOnMock invocation) throws InterruptedException {
+        Thread.sleep(20);
+        return connection;
+      }
+    });
+    jdbcAspect.getConnection(pjp);
+
+    List<MockSpan> mockSpans = mockTracer.finishedSpans();
+    assertEquals(1, mockSpans.size());
+    assertEquals(PoolWaitTracer.OPERATION_NAME, mockSpans.get(0).operationName());
+    assertTrue(mockSpans.get(0).finishMicros() - mockSpans.get(0).startMicros() >= 10000);
+    assertEquals(2, poolMetrics.getWaits(dataSource).getCount());
+    assertTrue(poolMetrics.getWaits(dataSource).getIntervalWaits().getMaxValue() >= 20000);
+  }
+
+  @Test
+  public void failedAcquisitionIsReported() throws Throwable {
+    MockTracer mockTracer = new MockTracer();
+    ConnectionPoolMetrics poolMetrics = new ConnectionPoolMetrics(60000);
+    jdbcAspect = new JdbcAspect(SpanSampler.always(), null, InstrumentationMetrics.disabled(),
+        new PoolWaitTracer(mockTracer, 1000, poolMetrics));
+    when(pjp.proceed()).thenThrow(new SQLTransientConnectionException("timeout"));
+    try {
+      jdbcAspect.getConnection(pjp);
+      fail();
+    } catch (SQLTransientConnectionException ex) {
+      // expected
+    }
+
+    List<MockSpan> mockSpans = mockTracer.finishedSpans();
+    assertEquals(1, mockSpans.size());
+    assertEquals(Boolean.TRUE, mockSpans.get(0).tags().get(Tags.ERROR.getKey()));
+    assertEquals(1, poolMetrics.getWaits(dataSource).getFailures());
+  }
+
+  @Test
+  public void unsampledAcquisitionIsNotReported() throws Throwable {
+    MockTracer mockTracer = new MockTracer();
+    ConnectionPoolMetrics poolMetrics = new ConnectionPoolMetrics(60000);
+    jdbcAspect = new JdbcAspect(SpanSampler.create(0, 0), null, InstrumentationMetrics.disabled(),
+        new PoolWaitTracer(mockTracer, 1000, poolMetrics));
+    when(pjp.proceed()).thenThrow(new SQLTransientConnectionException("timeout"));
+    try {
+      jdbcAspect.getConnection(pjp);
+      fail();
+    } catch (SQLTransientConnectionException ex) {
+      // expected
+    }
+
+    assertTrue(mockTracer.finishedSpans().isEmpty());
+    assertEquals(1, poolMetrics.getWaits(dataSource).getFailures());
+  }
+
+  @Test
+  public void connectionInfoIsParsedFromUrl() throws SQLException {
+    ConnectionInfo connectionInfo = jdbcAspect.getConnectionInfo(dataSource, connection);
+    assertEquals("mysql", connectionInfo.getDbType());
+    assertEquals("app", connectionInfo.getDbUser());
+    assertEquals("orders", connectionInfo.getDbInstance());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidUrl() throws Throwable {
+    when(metaData.getURL()).thenReturn("jdbc");
+    jdbcAspect.getConnection(pjp);
+  }
+
+  /**
+   * Data source comparing equal to any other instance, as those comparing their configuration
+   */
+  private static class EqualDataSource extends JdbcDataSource {
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof EqualDataSource;
+    }
+
+    @Override
+    public int hashCode() {
+      return 1;
+    }
+  }
+}
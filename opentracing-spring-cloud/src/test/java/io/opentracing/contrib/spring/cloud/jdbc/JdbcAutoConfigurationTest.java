@@ -0,0 +1,92 @@
+package io.opentracing.contrib.spring.cloud.jdbc;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import io.opentracing.Tracer;
+import io.opentracing.contrib.jdbc.TracingConnection;
+import io.opentracing.contrib.spring.cloud.metrics.RedMetrics;
+import io.opentracing.contrib.spring.cloud.metrics.RedMetrics.OperationMetrics;
+import io.opentracing.contrib.spring.cloud.metrics.RedMetricsAutoConfiguration;
+import io.opentracing.mock.MockTracer;
+import io.opentracing.util.ThreadLocalActiveSpanSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.Test;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.boot.test.util.EnvironmentTestUtils;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+public class JdbcAutoConfigurationTest {
+
+  @Test
+  public void notLoadedWithoutDataSource() {
+    AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+    context.register(JdbcAutoConfiguration.class);
+    context.refresh();
+    assertThat(context.getBeanNamesForType(ConnectionTracer.class).length, is(0));
+    assertThat(context.getBeanNamesForType(JdbcAspectBeanPostProcessor.class).length, is(0));
+    context.close();
+  }
+
+  @Test
+  public void dataSourceBeanIsProxied() throws Exception {
+    AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+    context.register(DataSourceConfig.class, JdbcAutoConfiguration.class);
+    context.refresh();
+    DataSource dataSource = context.getBean(DataSource.class);
+    assertTrue(AopUtils.isAopProxy(dataSource));
+    try (Connection connection = dataSource.getConnection()) {
+      assertTrue(connection instanceof TracingConnection);
+    }
+    assertThat(context.getBeanNamesForType(JdbcAspect.class).length, is(0));
+    context.close();
+  }
+
+  @Test
+  public void statementSpansAreRecordedByDecoratedTracer() throws Exception {
+    AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+    EnvironmentTestUtils.addEnvironment(context, "opentracing.spring.cloud.red-metrics.enabled:true",
+        "opentracing.spring.cloud.jdbc.normalize-statements:true");
+    context.register(DataSourceConfig.class, TracerConfig.class, RedMetricsAutoConfiguration.class,
+        JdbcAutoConfiguration.class);
+    context.refresh();
+    try (Connection connection = context.getBean(DataSource.class).getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.execute("SELECT 1");
+    }
+    long count = 0;
+    for (OperationMetrics operation : context.getBean(RedMetrics.class).getOperations()) {
+      if (StatementTracer.COMPONENT_NAME.equals(operation.getComponent())) {
+        count += operation.getCount();
+      }
+    }
+    assertThat(count, is(1L));
+    context.close();
+  }
+
+  @Configuration
+  static class TracerConfig {
+
+    @Bean
+    public Tracer tracer() {
+      return new MockTracer(new ThreadLocalActiveSpanSource(), MockTracer.Propagator.TEXT_MAP);
+    }
+  }
+
+  @Configuration
+  static class DataSourceConfig {
+
+    @Bean
+    public DataSource dataSource() {
+      JdbcDataSource dataSource = new JdbcDataSource();
+      dataSource.setURL("jdbc:h2:mem:autoconfiguration");
+      return dataSource;
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package io.opentracing.contrib.spring.cloud.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class SqlFingerprintCacheTest {
+
+  @Test
+  public void testStatementIsNormalizedOnce() {
+    SqlFingerprintCache cache = new SqlFingerprintCache(10, 0);
+    String fingerprint = cache.fingerprint("select * from orders where id = 1");
+    assertEquals("select * from orders where id = ?", fingerprint);
+    assertSame(fingerprint, cache.fingerprint("select * from orders where id = 1"));
+    assertEquals(1, cache.getHits());
+    assertEquals(1, cache.getMisses());
+  }
+
+  @Test
+  public void testLeastRecentlyUsedIsEvicted() {
+    SqlFingerprintCache cache = new SqlFingerprintCache(2, 0);
+    cache.fingerprint("select 1");
+    cache.fingerprint("select 2");
+    cache.fingerprint("select 1");
+    cache.fingerprint("select 3");
+    assertEquals(2, cache.size());
+
+    cache.fingerprint("select 1");
+    assertEquals(2, cache.getHits());
+    cache.fingerprint("select 2");
+    assertEquals(4, cache.getMisses());
+  }
+
+  @Test
+  public void testFingerprintIsTruncated() {
+    SqlFingerprintCache cache = new SqlFingerprintCache(10, 10);
+    assertEquals("select nam" + SqlFingerprintCache.TRUNCATED, cache.fingerprint("select name from orders"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidSize() {
+    new SqlFingerprintCache(0, 0);
+  }
+}
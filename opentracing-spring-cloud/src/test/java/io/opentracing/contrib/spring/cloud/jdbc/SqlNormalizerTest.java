@@ -0,0 +1,37 @@
+package io.opentracing.contrib.spring.cloud.jdbc;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class SqlNormalizerTest {
+
+  @Test
+  public void testLiterals() {
+    assertEquals("select * from orders where id = ? and name = ?",
+        SqlNormalizer.normalize("select * from orders where id = 42 and name = 'O''Brien'"));
+    assertEquals("select a - ?, b-? from t1 where c = ?",
+        SqlNormalizer.normalize("select a - 1, b-2 from t1 where c = -3.5e+2"));
+  }
+
+  @Test
+  public void testInLists() {
+    assertEquals("select * from orders where id in (?)",
+        SqlNormalizer.normalize("select * from orders where id in (1,2,3)"));
+    assertEquals("select * from orders where id NOT IN ( ? ) and a in(?)",
+        SqlNormalizer.normalize("select * from orders where id NOT IN ( ?, ?, ? ) and a in(4, 5)"));
+  }
+
+  @Test
+  public void testOtherListsKeepArity() {
+    assertEquals("insert into orders values (?, ?, ?)",
+        SqlNormalizer.normalize("insert into orders values (1, 'a', ?)"));
+    assertEquals("select coalesce(a, ?, ?) from t1 where b = ? or join_in(?,?)",
+        SqlNormalizer.normalize("select coalesce(a, 1, 2) from t1 where b = 3 or join_in(?,?)"));
+  }
+
+  @Test
+  public void testWhitespace() {
+    assertEquals("select col1 from t2", SqlNormalizer.normalize("  select\n\tcol1   from t2 \n"));
+  }
+}
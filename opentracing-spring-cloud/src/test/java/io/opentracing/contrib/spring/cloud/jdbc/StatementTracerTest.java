@@ -0,0 +1,230 @@
+package io.opentracing.contrib.spring.cloud.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import io.opentracing.ActiveSpan;
+import io.opentracing.contrib.spring.cloud.metrics.InstrumentationMetrics;
+import io.opentracing.mock.MockSpan;
+import io.opentracing.mock.MockTracer;
+import io.opentracing.tag.Tags;
+import io.opentracing.util.ThreadLocalActiveSpanSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StatementTracerTest {
+
+  private MockTracer mockTracer;
+  private Connection rawConnection;
+  private ConnectionInfo connectionInfo;
+
+  @Before
+  public void before() throws SQLException {
+    mockTracer = new MockTracer(new ThreadLocalActiveSpanSource(), MockTracer.Propagator.TEXT_MAP);
+    rawConnection = DriverManager.getConnection("jdbc:h2:mem:statementTracer");
+    connectionInfo = ConnectionInfo.of(rawConnection.getMetaData());
+    try (Statement statement = rawConnection.createStatement()) {
+      statement.execute("CREATE ALIAS IF NOT EXISTS SLEEP FOR \"java.lang.Thread.sleep\"");
+    }
+  }
+
+  @After
+  public void after() throws SQLException {
+    rawConnection.close();
+  }
+
+  @Test
+  public void testAllStatementsWithoutThreshold() throws SQLException {
+    Connection connection = TracingConnectionHandler.wrap(rawConnection, connectionInfo,
+        new StatementTracer(mockTracer, 0));
+    try (PreparedStatement statement = connection.prepareStatement("select 1")) {
+      assertTrue(statement.execute());
+      assertTrue(statement.getConnection() == connection);
+    }
+
+    List<MockSpan> mockSpans = mockTracer.finishedSpans();
+    assertEquals(1, mockSpans.size());
+    MockSpan mockSpan = mockSpans.get(0);
+    assertEquals("Execute", mockSpan.operationName());
+    assertEquals("select 1", mockSpan.tags().get(Tags.DB_STATEMENT.getKey()));
+    assertEquals("h2", mockSpan.tags().get(Tags.DB_TYPE.getKey()));
+    assertEquals(StatementTracer.COMPONENT_NAME, mockSpan.tags().get(Tags.COMPONENT.getKey()));
+  }
+
+  @Test
+  public void testFastStatementIsNotTraced() throws SQLException {
+    Connection connection = TracingConnectionHandler.wrap(rawConnection, connectionInfo,
+        new StatementTracer(mockTracer, 1000));
+    try (Statement statement = connection.createStatement()) {
+      statement.executeQuery("select 1");
+    }
+    assertEquals(0, mockTracer.finishedSpans().size());
+  }
+
+  @Test
+  public void testFastStatementIsNotFingerprinted() throws SQLException {
+    try (Statement statement = rawConnection.createStatement()) {
+      statement.execute("create table if not exists batch_test (id int, name varchar(16))");
+    }
+    SqlFingerprintCache fingerprintCache = new SqlFingerprintCache(10, 0);
+    Connection connection = TracingConnectionHandler.wrap(rawConnection, connectionInfo,
+        new StatementTracer(mockTracer, 1000, true, fingerprintCache));
+    try (Statement statement = connection.createStatement()) {
+      statement.executeQuery("select 1");
+      statement.addBatch("insert into batch_test values (1, 'foo')");
+      statement.executeBatch();
+    }
+    assertEquals(0, mockTracer.finishedSpans().size());
+    assertEquals(0, fingerprintCache.getHits() + fingerprintCache.getMisses());
+  }
+
+  @Test
+  public void testSlowStatementIsBackDated() throws SQLException {
+    Connection connection = TracingConnectionHandler.wrap(rawConnection, connectionInfo,
+        new StatementTracer(mockTracer, 50));
+    try (Statement statement = connection.createStatement()) {
+      statement.executeQuery("call SLEEP(100)");
+    }
+
+    List<MockSpan> mockSpans = mockTracer.finishedSpans();
+    assertEquals(1, mockSpans.size());
+    MockSpan mockSpan = mockSpans.get(0);
+    assertEquals("Query", mockSpan.operationName());
+    assertTrue(mockSpan.finishMicros() - mockSpan.startMicros() >= 100_000);
+  }
+
+  @Test
+  public void testAggregatedBatch() throws SQLException {
+    try (Statement statement = rawConnection.createStatement()) {
+      statement.execute("create table if not exists batch_test (id int, name varchar(16))");
+    }
+    Connection connection = TracingConnectionHandler.wrap(rawConnection, connectionInfo,
+        new StatementTracer(mockTracer, 0, true));
+    try (PreparedStatement statement = connection.prepareStatement("insert into batch_test values (?, ?)")) {
+      for (int i = 0; i < 100; i++) {
+        statement.setInt(1, i);
+        statement.setString(2, "name" + i);
+        statement.addBatch();
+      }
+      statement.executeBatch();
+    }
+    try (Statement statement = connection.createStatement()) {
+      for (int i = 0; i < 100; i++) {
+        statement.addBatch("update batch_test set name = 'foo' where id = " + i);
+      }
+      statement.executeBatch();
+    }
+
+    List<MockSpan> mockSpans = mockTracer.finishedSpans();
+    assertEquals(2, mockSpans.size());
+    assertEquals("Batch", mockSpans.get(0).operationName());
+    assertEquals("insert into batch_test values (?, ?)", mockSpans.get(0).tags().get(Tags.DB_STATEMENT.getKey()));
+    assertEquals(100, mockSpans.get(0).tags().get(StatementTracer.DB_BATCH_SIZE));
+    assertEquals(100L, mockSpans.get(0).tags().get(StatementTracer.DB_ROWS_AFFECTED));
+    // later statements are not fingerprinted
+    assertEquals("update batch_test set name = ? where id = ?" + TracingStatementHandler.BATCH_TRUNCATED,
+        mockSpans.get(1).tags().get(Tags.DB_STATEMENT.getKey()));
+    assertEquals(100, mockSpans.get(1).tags().get(StatementTracer.DB_BATCH_SIZE));
+    assertEquals(100L, mockSpans.get(1).tags().get(StatementTracer.DB_ROWS_AFFECTED));
+  }
+
+  @Test
+  public void testRepeatedLastBatchStatementIsNotTruncated() throws SQLException {
+    try (Statement statement = rawConnection.createStatement()) {
+      statement.execute("create table if not exists repeat_test (id int)");
+    }
+    Connection connection = TracingConnectionHandler.wrap(rawConnection, connectionInfo,
+        new StatementTracer(mockTracer, 0, true));
+    try (Statement statement = connection.createStatement()) {
+      for (int i = 0; i < TracingStatementHandler.MAX_BATCH_SAMPLES; i++) {
+        statement.addBatch("insert into repeat_test values (" + i + ")");
+      }
+      for (int i = 0; i < 10; i++) {
+        statement.addBatch("insert into repeat_test values (7)");
+      }
+      statement.executeBatch();
+    }
+
+    List<MockSpan> mockSpans = mockTracer.finishedSpans();
+    assertEquals(1, mockSpans.size());
+    assertEquals("insert into repeat_test values (?)", mockSpans.get(0).tags().get(Tags.DB_STATEMENT.getKey()));
+    assertEquals(18, mockSpans.get(0).tags().get(StatementTracer.DB_BATCH_SIZE));
+  }
+
+  @Test
+  public void testNormalizedStatement() throws SQLException {
+    SqlFingerprintCache fingerprintCache = new SqlFingerprintCache(10, 0);
+    Connection connection = TracingConnectionHandler.wrap(rawConnection, connectionInfo,
+        new StatementTracer(mockTracer, 0, false, fingerprintCache));
+    try (Statement statement = connection.createStatement()) {
+      statement.executeQuery("select 1, 'foo'");
+      statement.executeQuery("select 1, 'foo'");
+    }
+
+    List<MockSpan> mockSpans = mockTracer.finishedSpans();
+    assertEquals(2, mockSpans.size());
+    assertEquals("select ?, ?", mockSpans.get(0).tags().get(Tags.DB_STATEMENT.getKey()));
+    assertEquals("select ?, ?", mockSpans.get(1).tags().get(Tags.DB_STATEMENT.getKey()));
+    assertEquals(1, fingerprintCache.getHits());
+  }
+
+  @Test
+  public void testFailedStatementIsTraced() throws SQLException {
+    Connection connection = TracingConnectionHandler.wrap(rawConnection, connectionInfo,
+        new StatementTracer(mockTracer, 1000));
+    try (Statement statement = connection.createStatement()) {
+      statement.executeQuery("select * from missing_table");
+      fail();
+    } catch (SQLException ex) {
+      // expected, not wrapped by the proxy
+    }
+
+    List<MockSpan> mockSpans = mockTracer.finishedSpans();
+    assertEquals(1, mockSpans.size());
+    assertEquals(Boolean.TRUE, mockSpans.get(0).tags().get(Tags.ERROR.getKey()));
+  }
+
+  @Test
+  public void testStatementWithoutActiveSpanIsNotTracedWithoutRootSpans() throws SQLException {
+    Connection connection = TracingConnectionHandler.wrap(rawConnection, connectionInfo,
+        new StatementTracer(mockTracer, 0, true, null, InstrumentationMetrics.disabled(), false));
+    try (Statement statement = connection.createStatement()) {
+      statement.executeQuery("select 1");
+      statement.addBatch("create table if not exists lazy_test (id int)");
+      statement.executeBatch();
+    }
+    assertEquals(0, mockTracer.finishedSpans().size());
+
+    try (ActiveSpan parent = mockTracer.buildSpan("parent").startActive();
+        Statement statement = connection.createStatement()) {
+      statement.executeQuery("select 1");
+    }
+    List<MockSpan> mockSpans = mockTracer.finishedSpans();
+    assertEquals(2, mockSpans.size());
+    assertEquals(mockSpans.get(1).context().spanId(), mockSpans.get(0).parentId());
+  }
+
+  @Test
+  public void testBatchIsTracedAsDecidedByItsFirstStatement() throws SQLException {
+    Connection connection = TracingConnectionHandler.wrap(rawConnection, connectionInfo,
+        new StatementTracer(mockTracer, 0, true, null, InstrumentationMetrics.disabled(), false));
+    try (Statement statement = connection.createStatement()) {
+      statement.addBatch("create table if not exists decided_test (id int)");
+      try (ActiveSpan parent = mockTracer.buildSpan("parent").startActive()) {
+        statement.executeBatch();
+      }
+    }
+
+    List<MockSpan> mockSpans = mockTracer.finishedSpans();
+    assertEquals(1, mockSpans.size());
+    assertEquals("parent", mockSpans.get(0).operationName());
+  }
+}
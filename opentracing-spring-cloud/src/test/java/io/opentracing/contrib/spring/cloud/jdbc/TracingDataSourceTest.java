@@ -0,0 +1,122 @@
+package io.opentracing.contrib.spring.cloud.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import io.opentracing.contrib.spring.cloud.metrics.InstrumentationMetrics;
+import io.opentracing.contrib.spring.cloud.sampling.SpanSampler;
+import io.opentracing.mock.MockTracer;
+import io.opentracing.util.ThreadLocalActiveSpanSource;
+import java.sql.Connection;
+import java.util.Collections;
+import javax.sql.DataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+public class TracingDataSourceTest {
+
+  private MockTracer tracer;
+  private JdbcTracingProperties jdbcTracingProperties;
+  private TracingDataSourceBeanPostProcessor postProcessor;
+
+  @Before
+  public void before() {
+    tracer = new MockTracer(new ThreadLocalActiveSpanSource(), MockTracer.Propagator.TEXT_MAP);
+    jdbcTracingProperties = new JdbcTracingProperties();
+    StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+    beanFactory.addBean("jdbcTracingProperties", jdbcTracingProperties);
+    beanFactory.addBean("connectionTracer", new ConnectionTracer(SpanSampler.always(),
+        new StatementTracer(tracer, 0, true), InstrumentationMetrics.disabled(), null));
+    postProcessor = new TracingDataSourceBeanPostProcessor(beanFactory);
+  }
+
+  @Test
+  public void delegatingDataSourceIsTracedOnce() throws Exception {
+    DataSource inner = (DataSource) postProcessor.postProcessAfterInitialization(h2DataSource(), "inner");
+    DataSource outer = (DataSource) postProcessor.postProcessAfterInitialization(new DelegatingDataSource(inner),
+        "outer");
+    assertTrue(TracingDataSourceBeanPostProcessor.isTraced(inner));
+    assertTrue(TracingDataSourceBeanPostProcessor.isTraced(outer));
+    assertSame(outer, postProcessor.postProcessAfterInitialization(outer, "outer"));
+
+    try (Connection connection = outer.getConnection()) {
+      assertTrue(TracingConnectionHandler.isTraced(connection));
+      assertTrue(connection.prepareStatement("select 1").execute());
+    }
+    assertEquals(1, tracer.finishedSpans().size());
+  }
+
+  @Test
+  public void excludedDataSourceIsNotWrapped() throws Exception {
+    jdbcTracingProperties.setExcludeDataSources(Collections.singletonList("routing"));
+    DataSource routing = new DelegatingDataSource(h2DataSource());
+    assertSame(routing, postProcessor.postProcessAfterInitialization(routing, "routing"));
+    assertTrue(TracingDataSourceBeanPostProcessor.isTraced(
+        postProcessor.postProcessAfterInitialization(h2DataSource(), "other")));
+  }
+
+  @Test
+  public void onlyIncludedDataSourcesAreWrapped() throws Exception {
+    jdbcTracingProperties.setIncludeDataSources(Collections.singletonList("orders"));
+    DataSource other = h2DataSource();
+    assertSame(other, postProcessor.postProcessAfterInitialization(other, "other"));
+    assertTrue(TracingDataSourceBeanPostProcessor.isTraced(
+        postProcessor.postProcessAfterInitialization(h2DataSource(), "orders")));
+  }
+
+  @Test
+  public void proxyKeepsConcreteType() throws Exception {
+    JdbcDataSource h2DataSource = h2DataSource();
+    Object bean = postProcessor.postProcessAfterInitialization(h2DataSource, "dataSource");
+    assertTrue(bean instanceof JdbcDataSource);
+    JdbcDataSource dataSource = (JdbcDataSource) bean;
+    assertEquals("jdbc:h2:mem:tracingDataSource", dataSource.getURL());
+
+    try (Connection connection = dataSource.getConnection()) {
+      assertTrue(TracingConnectionHandler.isTraced(connection));
+    }
+  }
+
+  @Test
+  public void finalDataSourceIsWrapped() throws Exception {
+    FinalDataSource finalDataSource = new FinalDataSource(h2DataSource());
+    DataSource dataSource = (DataSource) postProcessor.postProcessAfterInitialization(finalDataSource, "dataSource");
+    assertTrue(dataSource instanceof TracingDataSource);
+    assertSame(finalDataSource, dataSource.unwrap(FinalDataSource.class));
+    try (Connection connection = dataSource.getConnection()) {
+      assertTrue(TracingConnectionHandler.isTraced(connection));
+    }
+  }
+
+  @Test
+  public void waitsAreRecordedForProxiedPool() throws Exception {
+    ConnectionPoolMetrics poolMetrics = new ConnectionPoolMetrics(60000);
+    StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+    beanFactory.addBean("jdbcTracingProperties", jdbcTracingProperties);
+    beanFactory.addBean("connectionTracer", new ConnectionTracer(SpanSampler.always(), null,
+        InstrumentationMetrics.disabled(), new PoolWaitTracer(tracer, -1, poolMetrics)));
+    JdbcDataSource h2DataSource = h2DataSource();
+    DataSource dataSource = (DataSource) new TracingDataSourceBeanPostProcessor(beanFactory)
+        .postProcessAfterInitialization(h2DataSource, "dataSource");
+    dataSource.getConnection().close();
+
+    assertEquals(1, poolMetrics.getWaits(h2DataSource).getCount());
+  }
+
+  private static final class FinalDataSource extends DelegatingDataSource {
+
+    FinalDataSource(DataSource targetDataSource) {
+      super(targetDataSource);
+    }
+  }
+
+  private static JdbcDataSource h2DataSource() {
+    JdbcDataSource dataSource = new JdbcDataSource();
+    dataSource.setURL("jdbc:h2:mem:tracingDataSource");
+    return dataSource;
+  }
+}
@@ -2,8 +2,10 @@ package io.opentracing.contrib.spring.cloud.jms;
 
 import static org.awaitility.Awaitility.await;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.logging.Logger;
@@ -28,8 +30,10 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.ResponseEntity;
 import org.springframework.jms.annotation.JmsListener;
+import org.springframework.jms.core.MessageCreator;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
+import io.opentracing.ActiveSpan;
 import io.opentracing.contrib.spring.cloud.MockTracingConfiguration;
 import io.opentracing.contrib.spring.cloud.TestUtils;
 import io.opentracing.mock.MockSpan;
@@ -116,6 +120,9 @@ public class JmsArtemisManualServerTest {
   @Autowired
   private TestRestTemplate restTemplate;
 
+  @Autowired
+  private SamplingJmsTemplate jmsTemplate;
+
   @Before
   public void before() {
     tracer.reset();
@@ -138,4 +145,42 @@ public class JmsArtemisManualServerTest {
     assertEquals(3, spans.size());
     TestUtils.assertSameTraceId(spans);
   }
+
+  @Test
+  public void testBatchSpans() {
+    List<MessageCreator> messageCreators = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      final String text = "batch" + i;
+      messageCreators.add(session -> session.createTextMessage(text));
+    }
+    try (ActiveSpan parent = tracer.buildSpan("parent").startActive()) {
+      jmsTemplate.sendBatch("fooQueue", messageCreators);
+    }
+
+    await().until(() -> tracer.finishedSpans().size() == 5);
+
+    List<MockSpan> spans = tracer.finishedSpans();
+    // consumers may finish before the batch send and parent spans
+    MockSpan parentSpan = null;
+    MockSpan batchSpan = null;
+    List<MockSpan> receiveSpans = new ArrayList<>();
+    for (MockSpan span : spans) {
+      if ("parent".equals(span.operationName())) {
+        parentSpan = span;
+      } else if (SamplingJmsTemplate.OPERATION_NAME_SEND_BATCH.equals(span.operationName())) {
+        batchSpan = span;
+      } else {
+        receiveSpans.add(span);
+      }
+    }
+    assertNotNull(parentSpan);
+    assertNotNull(batchSpan);
+    assertEquals(3, batchSpan.tags().get(SamplingJmsTemplate.MESSAGE_BUS_BATCH_SIZE));
+    assertEquals(parentSpan.context().spanId(), batchSpan.parentId());
+    assertEquals(3, receiveSpans.size());
+    for (MockSpan receiveSpan : receiveSpans) {
+      assertEquals(batchSpan.context().spanId(), receiveSpan.parentId());
+    }
+    TestUtils.assertSameTraceId(spans);
+  }
 }
@@ -0,0 +1,75 @@
+package io.opentracing.contrib.spring.cloud.jms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import javax.jms.Message;
+
+import io.opentracing.ActiveSpan;
+import io.opentracing.mock.MockSpan;
+import io.opentracing.mock.MockTracer;
+import io.opentracing.tag.Tags;
+import io.opentracing.util.ThreadLocalActiveSpanSource;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JmsListenerAspectTest {
+
+  private MockTracer mockTracer;
+  private JmsListenerAspect jmsListenerAspect;
+  private ProceedingJoinPoint pjp;
+  private Message message;
+
+  @Before
+  public void before() throws Exception {
+    mockTracer = new MockTracer(new ThreadLocalActiveSpanSource(), MockTracer.Propagator.TEXT_MAP);
+    jmsListenerAspect = new JmsListenerAspect();
+    jmsListenerAspect.tracer = mockTracer;
+    pjp = mock(ProceedingJoinPoint.class);
+    message = mock(Message.class);
+    when(message.getPropertyNames()).thenReturn(Collections.enumeration(Collections.emptyList()));
+  }
+
+  @Test
+  public void testReturnValue() throws Throwable {
+    when(pjp.proceed()).thenReturn("foo");
+    try (ActiveSpan parent = mockTracer.buildSpan("parent").startActive()) {
+      assertEquals("foo", jmsListenerAspect.aroundListenerMethod(pjp, message));
+    }
+
+    List<MockSpan> mockSpans = mockTracer.finishedSpans();
+    assertEquals(2, mockSpans.size());
+    MockSpan receiveSpan = mockSpans.get(0);
+    assertEquals("jms-receive", receiveSpan.operationName());
+    assertEquals(Tags.SPAN_KIND_CONSUMER, receiveSpan.tags().get(Tags.SPAN_KIND.getKey()));
+    assertEquals(mockSpans.get(1).context().spanId(), receiveSpan.parentId());
+  }
+
+  @Test
+  public void testExceptionIsNotWrapped() throws Throwable {
+    IOException exception = new IOException();
+    when(pjp.proceed()).thenThrow(exception);
+    try (ActiveSpan parent = mockTracer.buildSpan("parent").startActive()) {
+      jmsListenerAspect.aroundListenerMethod(pjp, message);
+      fail();
+    } catch (IOException ex) {
+      assertSame(exception, ex);
+    }
+    assertEquals(2, mockTracer.finishedSpans().size());
+  }
+
+  @Test
+  public void testNoContext() throws Throwable {
+    when(pjp.proceed()).thenReturn("foo");
+    assertEquals("foo", jmsListenerAspect.aroundListenerMethod(pjp, message));
+    assertEquals(0, mockTracer.finishedSpans().size());
+  }
+}
@@ -0,0 +1,30 @@
+package io.opentracing.contrib.spring.cloud.jms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class JmsPropertyNamesTest {
+
+  @Test
+  public void testEncodeDecode() {
+    String encoded = JmsPropertyNames.encode("uber-trace-id");
+    assertEquals("uber_$dash$_trace_$dash$_id", encoded);
+    assertEquals("uber-trace-id", JmsPropertyNames.decode(encoded));
+  }
+
+  @Test
+  public void testNamesAreCached() {
+    assertSame(JmsPropertyNames.encode("x-b3-traceid"), JmsPropertyNames.encode("x-b3-traceid"));
+    assertSame(JmsPropertyNames.decode("x_$dash$_b3_$dash$_spanid"),
+        JmsPropertyNames.decode("x_$dash$_b3_$dash$_spanid"));
+  }
+
+  @Test
+  public void testNamesWithoutDashes() {
+    String key = new String("nodashes");
+    assertSame(key, JmsPropertyNames.encode(key));
+    assertSame(key, JmsPropertyNames.decode(key));
+  }
+}
@@ -1,18 +1,25 @@
 package io.opentracing.contrib.spring.cloud.jms;
 
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+
 import io.opentracing.Tracer;
 import io.opentracing.contrib.jms.spring.TracingJmsTemplate;
+import io.opentracing.contrib.spring.cloud.sampling.SpanSampler;
 import org.junit.Test;
 
 import org.springframework.boot.test.util.EnvironmentTestUtils;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 /**
  * @author Eddú Meléndez
@@ -38,6 +45,35 @@ public class JmsTracingAutoConfigurationTest {
     assertThat(tracingJmsTemplateBeans.length, is(0));
   }
 
+  @Test
+  public void connectionFactoryIsResolvedOnFirstUse() throws Exception {
+    AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+    context.register(TracerConfig.class, JmsAutoConfiguration.class);
+    context.refresh();
+    TracingJmsTemplate tracingJmsTemplate = context.getBean(TracingJmsTemplate.class);
+
+    ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+    Connection connection = mock(Connection.class);
+    when(connectionFactory.createConnection()).thenReturn(connection);
+    context.getBeanFactory().registerSingleton("connectionFactory", connectionFactory);
+    assertSame(connection, tracingJmsTemplate.getConnectionFactory().createConnection());
+  }
+
+  @Test
+  public void samplingProperties() {
+    AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+    context.register(TracerConfig.class, JmsAutoConfiguration.class);
+    EnvironmentTestUtils.addEnvironment(context, "opentracing.spring.cloud.jms.sample-rate:0.5",
+        "opentracing.spring.cloud.jms.max-spans-per-second:100");
+    context.refresh();
+    JmsTracingProperties jmsTracingProperties = context.getBean(JmsTracingProperties.class);
+    assertThat(jmsTracingProperties.getSampleRate(), is(0.5));
+    assertThat(jmsTracingProperties.getMaxSpansPerSecond(), is(100));
+    SpanSampler sampler = context.getBean("jmsSpanSampler", SpanSampler.class);
+    assertSame(sampler, ReflectionTestUtils.getField(context.getBean(SamplingJmsTemplate.class), "sampler"));
+    assertSame(sampler, ReflectionTestUtils.getField(context.getBean(MessageListenerTracer.class), "sampler"));
+  }
+
   @Configuration
   static class TracerConfig {
 
@@ -0,0 +1,116 @@
+package io.opentracing.contrib.spring.cloud.jms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import javax.jms.Message;
+import javax.jms.MessageListener;
+
+import io.opentracing.ActiveSpan;
+import io.opentracing.contrib.spring.cloud.metrics.InstrumentationMetrics;
+import io.opentracing.contrib.spring.cloud.sampling.SpanSampler;
+import io.opentracing.mock.MockTracer;
+import io.opentracing.util.ThreadLocalActiveSpanSource;
+import org.junit.Test;
+import org.slf4j.MDC;
+
+public class PropagatedSamplingTest {
+
+  @Test
+  public void testJaeger() throws Exception {
+    assertEquals("4bf92f3577b34da6",
+        PropagatedSampling.unsampledTraceId(message("uber-trace-id", "4bf92f3577b34da6:a3ce929d0e0e4736:0:0")));
+    assertNull(PropagatedSampling.unsampledTraceId(message("uber-trace-id", "4bf92f3577b34da6:a3ce929d0e0e4736:0:3")));
+    assertNull(PropagatedSampling.unsampledTraceId(message("uber-trace-id", "4bf92f3577b34da6")));
+  }
+
+  @Test
+  public void testTraceparent() throws Exception {
+    assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", PropagatedSampling.unsampledTraceId(
+        message("traceparent", "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-00")));
+    assertNull(PropagatedSampling.unsampledTraceId(
+        message("traceparent", "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01")));
+  }
+
+  @Test
+  public void testB3() throws Exception {
+    Message message = message("X-B3-Sampled", "0");
+    assertSame(PropagatedSampling.UNKNOWN_TRACE_ID, PropagatedSampling.unsampledTraceId(message));
+    when(message.getStringProperty(JmsPropertyNames.encode("X-B3-TraceId"))).thenReturn("a3ce929d0e0e4736");
+    assertEquals("a3ce929d0e0e4736", PropagatedSampling.unsampledTraceId(message));
+    assertNull(PropagatedSampling.unsampledTraceId(message("X-B3-Sampled", "1")));
+
+    assertEquals("a3ce929d0e0e4736",
+        PropagatedSampling.unsampledTraceId(message("b3", "a3ce929d0e0e4736-00f067aa0ba902b7-0")));
+    assertSame(PropagatedSampling.UNKNOWN_TRACE_ID, PropagatedSampling.unsampledTraceId(message("b3", "0")));
+    assertNull(PropagatedSampling.unsampledTraceId(message("b3", "a3ce929d0e0e4736-00f067aa0ba902b7-d")));
+    assertNull(PropagatedSampling.unsampledTraceId(message("b3", "a3ce929d0e0e4736-00f067aa0ba902b7")));
+  }
+
+  @Test
+  public void testUnknown() throws Exception {
+    Message message = mock(Message.class);
+    assertNull(PropagatedSampling.unsampledTraceId(message));
+    verify(message, never()).getPropertyNames();
+  }
+
+  @Test
+  public void testUnsampledMessageIsNotTraced() throws Exception {
+    MockTracer mockTracer = new MockTracer(new ThreadLocalActiveSpanSource(), MockTracer.Propagator.TEXT_MAP);
+    Message message = message("uber-trace-id", "4bf92f3577b34da6:a3ce929d0e0e4736:0:0");
+    final String[] traceId = new String[1];
+    TracedMessageListener listener = new TracedMessageListener(new MessageListener() {
+      @Override
+      public void onMessage(Message message) {
+        traceId[0] = MDC.get(MessageListenerTracer.TRACE_ID_MDC_KEY);
+      }
+    }, mockTracer, new MessageListenerTracer(SpanSampler.always(), InstrumentationMetrics.disabled(), true));
+
+    try (ActiveSpan parent = mockTracer.buildSpan("parent").startActive()) {
+      listener.onMessage(message);
+    }
+    assertEquals("4bf92f3577b34da6", traceId[0]);
+    assertNull(MDC.get(MessageListenerTracer.TRACE_ID_MDC_KEY));
+    assertEquals(1, mockTracer.finishedSpans().size());
+    verify(message, never()).getPropertyNames();
+  }
+
+  @Test
+  public void testPreviousTraceIdIsRestored() throws Exception {
+    MockTracer mockTracer = new MockTracer(new ThreadLocalActiveSpanSource(), MockTracer.Propagator.TEXT_MAP);
+    final String[] traceId = new String[1];
+    TracedMessageListener listener = new TracedMessageListener(new MessageListener() {
+      @Override
+      public void onMessage(Message message) {
+        traceId[0] = MDC.get(MessageListenerTracer.TRACE_ID_MDC_KEY);
+      }
+    }, mockTracer, new MessageListenerTracer(SpanSampler.create(0, 0), InstrumentationMetrics.disabled(), true));
+
+    MDC.put(MessageListenerTracer.TRACE_ID_MDC_KEY, "outer");
+    try {
+      listener.onMessage(message("uber-trace-id", "4bf92f3577b34da6:a3ce929d0e0e4736:0:0"));
+      assertEquals("4bf92f3577b34da6", traceId[0]);
+      assertEquals("outer", MDC.get(MessageListenerTracer.TRACE_ID_MDC_KEY));
+
+      // not put by the listener, so not removed either
+      listener.onMessage(message("uber-trace-id", "4bf92f3577b34da6:a3ce929d0e0e4736:0:1"));
+      assertEquals("outer", traceId[0]);
+      assertEquals("outer", MDC.get(MessageListenerTracer.TRACE_ID_MDC_KEY));
+    } finally {
+      MDC.remove(MessageListenerTracer.TRACE_ID_MDC_KEY);
+    }
+  }
+
+  private static Message message(String key, String value) throws Exception {
+    Message message = mock(Message.class);
+    when(message.getStringProperty(anyString())).thenReturn(null);
+    when(message.getStringProperty(JmsPropertyNames.encode(key))).thenReturn(value);
+    return message;
+  }
+}
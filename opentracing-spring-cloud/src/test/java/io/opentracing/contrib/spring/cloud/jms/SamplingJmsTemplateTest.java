@@ -0,0 +1,84 @@
+package io.opentracing.contrib.spring.cloud.jms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+
+import javax.jms.ConnectionFactory;
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+
+import io.opentracing.ActiveSpan;
+import io.opentracing.contrib.spring.cloud.sampling.SpanSampler;
+import io.opentracing.mock.MockSpan;
+import io.opentracing.mock.MockTracer;
+import io.opentracing.util.ThreadLocalActiveSpanSource;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jms.core.MessageCreator;
+
+public class SamplingJmsTemplateTest {
+
+  private MockTracer tracer;
+  private Session session;
+  private Destination destination;
+  private MessageProducer producer;
+  private Message first;
+  private Message second;
+  private SamplingJmsTemplate jmsTemplate;
+
+  @Before
+  public void before() throws Exception {
+    tracer = new MockTracer(new ThreadLocalActiveSpanSource(), MockTracer.Propagator.TEXT_MAP);
+    session = mock(Session.class);
+    destination = mock(Destination.class);
+    producer = mock(MessageProducer.class);
+    first = mock(Message.class);
+    second = mock(Message.class);
+    when(session.createProducer(destination)).thenReturn(producer);
+    jmsTemplate = new SamplingJmsTemplate(mock(ConnectionFactory.class), tracer, SpanSampler.create(0, 0));
+  }
+
+  @Test
+  public void unsampledBatchPropagatesActiveContext() throws Exception {
+    try (ActiveSpan parent = tracer.buildSpan("parent").startActive()) {
+      jmsTemplate.doSendBatch(session, destination, Arrays.asList(creator(first), creator(second)));
+
+      MockSpan.MockContext context = (MockSpan.MockContext) parent.context();
+      for (Message message : Arrays.asList(first, second)) {
+        verify(message).setStringProperty("traceid", String.valueOf(context.traceId()));
+        verify(message).setStringProperty("spanid", String.valueOf(context.spanId()));
+        verify(producer).send(message);
+      }
+    }
+    // only the parent span, the batch is not traced
+    assertEquals(1, tracer.finishedSpans().size());
+  }
+
+  @Test
+  public void unsampledBatchWithoutActiveSpan() throws Exception {
+    jmsTemplate.doSendBatch(session, destination, Arrays.asList(creator(first)));
+
+    verify(first, never()).setStringProperty(anyString(), anyString());
+    verify(producer).send(first);
+    assertTrue(tracer.finishedSpans().isEmpty());
+  }
+
+  private static MessageCreator creator(final Message message) {
+    return new MessageCreator() {
+      @Override
+      public Message createMessage(Session session) throws JMSException {
+        return message;
+      }
+    };
+  }
+}
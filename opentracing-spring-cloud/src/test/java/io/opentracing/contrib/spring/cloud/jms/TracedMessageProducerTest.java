@@ -0,0 +1,60 @@
+package io.opentracing.contrib.spring.cloud.jms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+
+import javax.jms.Message;
+import javax.jms.MessageProducer;
+
+import io.opentracing.ActiveSpan;
+import io.opentracing.mock.MockSpan;
+import io.opentracing.mock.MockTracer;
+import io.opentracing.util.ThreadLocalActiveSpanSource;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TracedMessageProducerTest {
+
+  private MockTracer tracer;
+  private MessageProducer producer;
+  private Message message;
+
+  @Before
+  public void before() throws Exception {
+    tracer = new MockTracer(new ThreadLocalActiveSpanSource(), MockTracer.Propagator.TEXT_MAP);
+    producer = mock(MessageProducer.class);
+    message = mock(Message.class);
+    when(message.getPropertyNames()).thenReturn(Collections.emptyEnumeration());
+  }
+
+  @Test
+  public void unsampledSendPropagatesActiveContext() throws Exception {
+    TracedMessageProducer tracedProducer = new TracedMessageProducer(producer, tracer, false);
+    try (ActiveSpan parent = tracer.buildSpan("parent").startActive()) {
+      tracedProducer.send(message);
+
+      MockSpan.MockContext context = (MockSpan.MockContext) parent.context();
+      verify(message).setStringProperty("traceid", String.valueOf(context.traceId()));
+      verify(message).setStringProperty("spanid", String.valueOf(context.spanId()));
+      verify(producer).send(message);
+    }
+    // only the parent span, sends are not traced
+    assertEquals(1, tracer.finishedSpans().size());
+  }
+
+  @Test
+  public void unsampledSendWithoutActiveSpan() throws Exception {
+    new TracedMessageProducer(producer, tracer, false).send(message);
+
+    verify(message, never()).setStringProperty(anyString(), anyString());
+    verify(producer).send(message);
+    assertTrue(tracer.finishedSpans().isEmpty());
+  }
+}
@@ -0,0 +1,114 @@
+package io.opentracing.contrib.spring.cloud.jms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.List;
+
+import javax.jms.ConnectionFactory;
+import javax.jms.Message;
+import javax.jms.MessageListener;
+import javax.jms.Session;
+
+import io.opentracing.ActiveSpan;
+import io.opentracing.contrib.spring.cloud.metrics.InstrumentationMetrics;
+import io.opentracing.contrib.spring.cloud.sampling.SpanSampler;
+import io.opentracing.mock.MockSpan;
+import io.opentracing.mock.MockTracer;
+import io.opentracing.util.ThreadLocalActiveSpanSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jms.config.DefaultJmsListenerContainerFactory;
+import org.springframework.jms.config.JmsListenerEndpointRegistry;
+import org.springframework.jms.config.SimpleJmsListenerEndpoint;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+import org.springframework.jms.listener.adapter.MessageListenerAdapter;
+
+public class TracingListenerContainerInitializerTest {
+
+  private MockTracer mockTracer;
+  private StaticListableBeanFactory beanFactory;
+  private TracingListenerContainerInitializer initializer;
+  private JmsListenerEndpointRegistry registry;
+  private Message message;
+  private Message received;
+
+  @Before
+  public void before() throws Exception {
+    mockTracer = new MockTracer(new ThreadLocalActiveSpanSource(), MockTracer.Propagator.TEXT_MAP);
+    beanFactory = new StaticListableBeanFactory();
+    initializer = new TracingListenerContainerInitializer(beanFactory, mockTracer,
+        new MessageListenerTracer(SpanSampler.always(), InstrumentationMetrics.disabled()));
+    registry = new JmsListenerEndpointRegistry();
+    message = mock(Message.class);
+    when(message.getPropertyNames()).thenReturn(Collections.enumeration(Collections.emptyList()));
+  }
+
+  @After
+  public void after() throws Exception {
+    registry.destroy();
+  }
+
+  @Test
+  public void testContainerBeanIsWrappedOnce() throws Exception {
+    DefaultMessageListenerContainer container = new DefaultMessageListenerContainer();
+    MessageListener listener = new MessageListener() {
+      @Override
+      public void onMessage(Message message) {
+        received = message;
+      }
+    };
+    container.setMessageListener(listener);
+    beanFactory.addBean("container", container);
+
+    initializer.start();
+    initializer.start();
+    assertTrue(initializer.isRunning());
+    TracedMessageListener tracedListener = (TracedMessageListener) container.getMessageListener();
+    assertSame(listener, tracedListener.getDelegate());
+
+    try (ActiveSpan parent = mockTracer.buildSpan("parent").startActive()) {
+      tracedListener.onMessage(message, mock(Session.class));
+    }
+    assertSame(message, received);
+    List<MockSpan> mockSpans = mockTracer.finishedSpans();
+    assertEquals(2, mockSpans.size());
+    assertEquals("jms-receive", mockSpans.get(0).operationName());
+    assertEquals(mockSpans.get(1).context().spanId(), mockSpans.get(0).parentId());
+  }
+
+  @Test
+  public void testRegistryContainerIsWrapped() throws Exception {
+    DefaultJmsListenerContainerFactory factory = new DefaultJmsListenerContainerFactory();
+    factory.setConnectionFactory(mock(ConnectionFactory.class));
+    factory.setAutoStartup(false);
+    SimpleJmsListenerEndpoint endpoint = new SimpleJmsListenerEndpoint();
+    endpoint.setId("listener");
+    endpoint.setDestination("queue");
+    // session aware listener invoking a method without a Message argument
+    endpoint.setMessageListener(new MessageListenerAdapter(new Object() {
+      @SuppressWarnings("unused")
+      public void handleMessage(Object payload) {
+        received = (Message) payload;
+      }
+    }));
+    registry.registerListenerContainer(endpoint, factory);
+    beanFactory.addBean("registry", registry);
+
+    initializer.start();
+    DefaultMessageListenerContainer container =
+        (DefaultMessageListenerContainer) registry.getListenerContainer("listener");
+    TracedMessageListener tracedListener = (TracedMessageListener) container.getMessageListener();
+    try (ActiveSpan parent = mockTracer.buildSpan("parent").startActive()) {
+      tracedListener.onMessage(message, mock(Session.class));
+    }
+    assertSame(message, received);
+    assertEquals(2, mockTracer.finishedSpans().size());
+  }
+}
@@ -0,0 +1,74 @@
+package io.opentracing.contrib.spring.cloud.metrics;
+
+import static org.junit.Assert.assertEquals;
+
+import io.opentracing.ActiveSpan;
+import io.opentracing.Span;
+import io.opentracing.contrib.spring.cloud.metrics.RedMetrics.OperationMetrics;
+import io.opentracing.mock.MockTracer;
+import io.opentracing.tag.Tags;
+import io.opentracing.util.ThreadLocalActiveSpanSource;
+import java.util.HashMap;
+import java.util.Map;
+import org.HdrHistogram.Histogram;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RedMetricsTracerTest {
+
+  private MockTracer mockTracer;
+  private RedMetrics redMetrics;
+  private RedMetricsTracer tracer;
+
+  @Before
+  public void before() {
+    mockTracer = new MockTracer(new ThreadLocalActiveSpanSource(), MockTracer.Propagator.TEXT_MAP);
+    redMetrics = new RedMetrics(2, 60000);
+    tracer = new RedMetricsTracer(mockTracer, redMetrics);
+  }
+
+  @Test
+  public void testSpansAreRecordedPerComponentAndOperation() {
+    tracer.buildSpan("Query").withTag(Tags.COMPONENT.getKey(), "java-jdbc")
+        .withStartTimestamp(1000).startManual().finish(3000);
+    Span span = tracer.buildSpan("Query").withStartTimestamp(1000).startManual();
+    Tags.COMPONENT.set(span, "java-jdbc");
+    Tags.ERROR.set(span, true);
+    span.finish(5000);
+    try (ActiveSpan activeSpan = tracer.buildSpan("jms-receive").startActive()) {
+      Tags.COMPONENT.set(activeSpan, "java-jms");
+    }
+
+    Map<String, OperationMetrics> operations = operations();
+    OperationMetrics query = operations.get("java-jdbc.Query");
+    assertEquals(2, query.getCount());
+    assertEquals(1, query.getErrors());
+    Histogram durations = query.getIntervalDurations();
+    assertEquals(2000, durations.getMinValue(), 20);
+    assertEquals(4000, durations.getMaxValue(), 40);
+    assertEquals(0, query.getIntervalDurations().getTotalCount());
+    assertEquals(1, operations.get("java-jms.jms-receive").getCount());
+    assertEquals(3, mockTracer.finishedSpans().size());
+  }
+
+  @Test
+  public void testOperationsAboveLimitAreRecordedAsOther() {
+    tracer.buildSpan("foo").startManual().finish();
+    tracer.buildSpan("bar").startManual().finish();
+    tracer.buildSpan("baz").startManual().finish();
+    tracer.buildSpan("foo").startManual().finish();
+
+    Map<String, OperationMetrics> operations = operations();
+    assertEquals(3, operations.size());
+    assertEquals(2, operations.get(RedMetrics.UNKNOWN + ".foo").getCount());
+    assertEquals(1, operations.get(RedMetrics.OTHER + "." + RedMetrics.OTHER).getCount());
+  }
+
+  private Map<String, OperationMetrics> operations() {
+    Map<String, OperationMetrics> operations = new HashMap<>();
+    for (OperationMetrics operation : redMetrics.getOperations()) {
+      operations.put(operation.getComponent() + "." + operation.getOperationName(), operation);
+    }
+    return operations;
+  }
+}
@@ -0,0 +1,75 @@
+package io.opentracing.contrib.spring.cloud.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import io.opentracing.contrib.spring.cloud.jdbc.SqlFingerprintCache;
+import io.opentracing.contrib.spring.cloud.reporting.AsyncReportingTracer;
+import io.opentracing.contrib.spring.cloud.reporting.AsyncReportingTracer.OverflowPolicy;
+import io.opentracing.contrib.spring.cloud.sampling.TailSamplingTracer;
+import io.opentracing.mock.MockTracer;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.actuate.metrics.Metric;
+
+public class TracingPublicMetricsTest {
+
+  @Test
+  public void testEnabledMetricsAreExposed() {
+    InstrumentationMetrics jdbcMetrics = InstrumentationMetrics.create("jdbc");
+    jdbcMetrics.spanStarted();
+    jdbcMetrics.spanUnsampled();
+    jdbcMetrics.overhead(100);
+    jdbcMetrics.overhead(50);
+    AsyncReportingTracer tracer = new AsyncReportingTracer(new MockTracer(), 16, 4, OverflowPolicy.DROP);
+    tracer.close();
+
+    StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+    beanFactory.addBean("jdbcInstrumentationMetrics", jdbcMetrics);
+    beanFactory.addBean("feignInstrumentationMetrics", InstrumentationMetrics.disabled());
+    beanFactory.addBean("tracer", new TailSamplingTracer(tracer, 1000, 0, 30000, 100));
+
+    Map<String, Number> metrics = new HashMap<>();
+    for (Metric<?> metric : new TracingPublicMetrics(beanFactory).metrics()) {
+      metrics.put(metric.getName(), metric.getValue());
+    }
+    assertEquals(1L, metrics.get("opentracing.jdbc.spans.started"));
+    assertEquals(1L, metrics.get("opentracing.jdbc.spans.unsampled"));
+    assertEquals(2L, metrics.get("opentracing.jdbc.overhead.count"));
+    assertEquals(150L, metrics.get("opentracing.jdbc.overhead.nanos"));
+    assertEquals(0L, metrics.get("opentracing.async-reporting.spans.dropped"));
+    assertEquals(0L, metrics.get("opentracing.tail-sampling.traces.kept"));
+    for (String name : metrics.keySet()) {
+      assertTrue(name, !name.startsWith("opentracing.feign"));
+    }
+  }
+
+  @Test
+  public void testFingerprintCacheMetricsAreExposed() {
+    SqlFingerprintCache fingerprintCache = new SqlFingerprintCache(10, 1024);
+    fingerprintCache.fingerprint("select * from orders where id = 1");
+    fingerprintCache.fingerprint("select * from orders where id = 1");
+    fingerprintCache.fingerprint("select * from users where id = 1");
+    StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+    beanFactory.addBean("sqlFingerprintCache", fingerprintCache);
+
+    Map<String, Number> metrics = new HashMap<>();
+    for (Metric<?> metric : new TracingPublicMetrics(beanFactory).metrics()) {
+      metrics.put(metric.getName(), metric.getValue());
+    }
+    assertEquals(1L, metrics.get("opentracing.jdbc.fingerprint-cache.hits"));
+    assertEquals(2L, metrics.get("opentracing.jdbc.fingerprint-cache.misses"));
+    assertEquals(2, metrics.get("opentracing.jdbc.fingerprint-cache.size"));
+  }
+
+  @Test
+  public void testDisabledMetricsDoNotRecord() {
+    InstrumentationMetrics metrics = InstrumentationMetrics.disabled();
+    metrics.spanStarted();
+    metrics.overhead(metrics.nanoTime());
+    assertEquals(0, metrics.getSpansStarted());
+    assertEquals(0, metrics.getOverheadCount());
+  }
+}
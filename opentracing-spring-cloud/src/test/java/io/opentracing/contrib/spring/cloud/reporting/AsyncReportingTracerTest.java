@@ -0,0 +1,114 @@
+package io.opentracing.contrib.spring.cloud.reporting;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import io.opentracing.ActiveSpan;
+import io.opentracing.Span;
+import io.opentracing.contrib.spring.cloud.reporting.AsyncReportingTracer.OverflowPolicy;
+import io.opentracing.mock.MockSpan;
+import io.opentracing.mock.MockTracer;
+import io.opentracing.util.ThreadLocalActiveSpanSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class AsyncReportingTracerTest {
+
+  private final CountDownLatch reporting = new CountDownLatch(1);
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  /**
+   * Blocks the reporter thread in the first reported span until released
+   */
+  private final MockTracer blockingTracer = new MockTracer(new ThreadLocalActiveSpanSource(),
+      MockTracer.Propagator.TEXT_MAP) {
+    @Override
+    protected void onSpanFinished(MockSpan mockSpan) {
+      reporting.countDown();
+      try {
+        release.await(10, TimeUnit.SECONDS);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  };
+
+  @Test
+  public void testSpansAreReportedWithFinishTimestamp() {
+    MockTracer mockTracer = new MockTracer(new ThreadLocalActiveSpanSource(), MockTracer.Propagator.TEXT_MAP);
+    AsyncReportingTracer tracer = new AsyncReportingTracer(mockTracer, 16, 4, OverflowPolicy.DROP);
+    Span span = tracer.buildSpan("foo").withStartTimestamp(1000).startManual();
+    span.setTag("bar", "baz");
+    span.finish(2000);
+    tracer.close();
+
+    List<MockSpan> mockSpans = mockTracer.finishedSpans();
+    assertEquals(1, mockSpans.size());
+    assertEquals(1000, mockSpans.get(0).startMicros());
+    assertEquals(2000, mockSpans.get(0).finishMicros());
+    assertEquals("baz", mockSpans.get(0).tags().get("bar"));
+    assertEquals(1, tracer.getReportedSpans());
+  }
+
+  @Test
+  public void testActiveSpanIsParent() {
+    MockTracer mockTracer = new MockTracer(new ThreadLocalActiveSpanSource(), MockTracer.Propagator.TEXT_MAP);
+    AsyncReportingTracer tracer = new AsyncReportingTracer(mockTracer, 16, 4, OverflowPolicy.DROP);
+    try (ActiveSpan parent = tracer.buildSpan("parent").startActive()) {
+      tracer.buildSpan("child").startManual().finish();
+    }
+    tracer.close();
+
+    List<MockSpan> mockSpans = mockTracer.finishedSpans();
+    assertEquals(2, mockSpans.size());
+    assertEquals("child", mockSpans.get(0).operationName());
+    assertEquals(mockSpans.get(1).context().spanId(), mockSpans.get(0).parentId());
+    assertTrue(mockSpans.get(0).finishMicros() >= mockSpans.get(0).startMicros());
+  }
+
+  @Test
+  public void testSpansAreDroppedWhenQueueIsFull() throws InterruptedException {
+    AsyncReportingTracer tracer = new AsyncReportingTracer(blockingTracer, 2, 4, OverflowPolicy.DROP);
+    tracer.buildSpan("reported").startManual().finish();
+    assertTrue(reporting.await(10, TimeUnit.SECONDS));
+    tracer.buildSpan("queued").startManual().finish();
+    tracer.buildSpan("queued").startManual().finish();
+    tracer.buildSpan("dropped").startManual().finish();
+    assertEquals(1, tracer.getDroppedSpans());
+
+    release.countDown();
+    tracer.close();
+    assertEquals(3, blockingTracer.finishedSpans().size());
+    assertEquals("queued", blockingTracer.finishedSpans().get(2).operationName());
+  }
+
+  @Test
+  public void testNoSpansAreLostWhenBlocking() throws InterruptedException {
+    MockTracer mockTracer = new MockTracer(new ThreadLocalActiveSpanSource(), MockTracer.Propagator.TEXT_MAP);
+    final AsyncReportingTracer tracer = new AsyncReportingTracer(mockTracer, 8, 4, OverflowPolicy.BLOCK);
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      Thread thread = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          for (int j = 0; j < 1000; j++) {
+            tracer.buildSpan("foo").startManual().finish();
+          }
+        }
+      });
+      thread.start();
+      threads.add(thread);
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    tracer.close();
+
+    assertEquals(0, tracer.getDroppedSpans());
+    assertEquals(4000, tracer.getReportedSpans());
+    assertEquals(4000, mockTracer.finishedSpans().size());
+  }
+}
@@ -0,0 +1,77 @@
+package io.opentracing.contrib.spring.cloud.sampling;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class SpanSamplerTest {
+
+  private static class TestClock implements SpanSampler.Clock {
+    private long nanoTime;
+
+    @Override
+    public long nanoTime() {
+      return nanoTime;
+    }
+  }
+
+  @Test
+  public void testDefaultsSampleEverything() {
+    SpanSampler sampler = new SamplingProperties().createSampler();
+    assertSame(SpanSampler.always(), sampler);
+    assertTrue(sampler.isAlwaysSampled());
+    assertTrue(sampler.isSampled());
+  }
+
+  @Test
+  public void testZeroSampleRate() {
+    SpanSampler sampler = SpanSampler.create(0, 0);
+    assertFalse(sampler.isAlwaysSampled());
+    for (int i = 0; i < 100; i++) {
+      assertFalse(sampler.isSampled());
+    }
+  }
+
+  @Test
+  public void testRateLimit() {
+    TestClock clock = new TestClock();
+    SpanSampler sampler = SpanSampler.create(1, 10, clock);
+    // burst of one second
+    for (int i = 0; i < 10; i++) {
+      assertTrue(sampler.isSampled());
+    }
+    assertFalse(sampler.isSampled());
+
+    clock.nanoTime += TimeUnit.MILLISECONDS.toNanos(100);
+    assertTrue(sampler.isSampled());
+    assertFalse(sampler.isSampled());
+
+    clock.nanoTime += TimeUnit.SECONDS.toNanos(10);
+    for (int i = 0; i < 10; i++) {
+      assertTrue(sampler.isSampled());
+    }
+    assertFalse(sampler.isSampled());
+  }
+
+  @Test
+  public void testRateLimitAboveOneSpanPerNanosecond() {
+    TestClock clock = new TestClock();
+    SpanSampler sampler = SpanSampler.create(1, Integer.MAX_VALUE, clock);
+    // the limit still applies, a burst one second ahead of the clock is used up
+    clock.nanoTime -= TimeUnit.SECONDS.toNanos(1);
+    assertFalse(sampler.isSampled());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidSampleRate() {
+    SpanSampler.create(1.5, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidMaxSpansPerSecond() {
+    SpanSampler.create(1, -1);
+  }
+}
@@ -0,0 +1,176 @@
+package io.opentracing.contrib.spring.cloud.sampling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import io.opentracing.ActiveSpan;
+import io.opentracing.Span;
+import io.opentracing.mock.MockSpan;
+import io.opentracing.mock.MockTracer;
+import io.opentracing.tag.Tags;
+import io.opentracing.util.ThreadLocalActiveSpanSource;
+import java.util.List;
+import org.junit.Test;
+
+public class TailSamplingTracerTest {
+
+  private final MockTracer mockTracer = new MockTracer(new ThreadLocalActiveSpanSource(),
+      MockTracer.Propagator.TEXT_MAP);
+
+  @Test
+  public void testTraceWithErrorIsKept() {
+    TailSamplingTracer tracer = new TailSamplingTracer(mockTracer, 1000, 0, 30000, 100);
+    try (ActiveSpan parent = tracer.buildSpan("parent").startActive()) {
+      tracer.buildSpan("ok").startManual().finish();
+      Span failed = tracer.buildSpan("failed").startManual();
+      Tags.ERROR.set(failed, true);
+      failed.finish();
+      assertTrue(mockTracer.finishedSpans().isEmpty());
+    }
+
+    List<MockSpan> mockSpans = mockTracer.finishedSpans();
+    assertEquals(3, mockSpans.size());
+    assertEquals("parent", mockSpans.get(2).operationName());
+    assertEquals(mockSpans.get(2).context().spanId(), mockSpans.get(0).parentId());
+    assertEquals(1, tracer.getKeptTraces());
+    assertEquals(0, tracer.getDiscardedTraces());
+  }
+
+  @Test
+  public void testServerErrorIsKept() {
+    TailSamplingTracer tracer = new TailSamplingTracer(mockTracer, 1000, 0, 30000, 100);
+    Span parent = tracer.buildSpan("parent").startManual();
+    tracer.buildSpan("feign").asChildOf(parent).withTag(Tags.HTTP_STATUS.getKey(), 503).startManual().finish();
+    parent.finish();
+
+    assertEquals(2, mockTracer.finishedSpans().size());
+  }
+
+  @Test
+  public void testFastTraceIsDiscarded() {
+    TailSamplingTracer tracer = new TailSamplingTracer(mockTracer, 1000, 0, 30000, 100);
+    try (ActiveSpan parent = tracer.buildSpan("parent").startActive()) {
+      tracer.buildSpan("child").startManual().finish();
+    }
+
+    assertTrue(mockTracer.finishedSpans().isEmpty());
+    assertEquals(0, tracer.getKeptTraces());
+    assertEquals(1, tracer.getDiscardedTraces());
+  }
+
+  @Test
+  public void testSlowTraceIsKept() {
+    TailSamplingTracer tracer = new TailSamplingTracer(mockTracer, 1000, 0, 30000, 100);
+    Span parent = tracer.buildSpan("parent").withStartTimestamp(1000).startManual();
+    tracer.buildSpan("child").asChildOf(parent).withStartTimestamp(2000).startManual().finish(3000);
+    parent.finish(1000 + 1000 * 1000);
+
+    List<MockSpan> mockSpans = mockTracer.finishedSpans();
+    assertEquals(2, mockSpans.size());
+    assertEquals(3000, mockSpans.get(0).finishMicros());
+  }
+
+  @Test
+  public void testSampledTraceIsKept() {
+    TailSamplingTracer tracer = new TailSamplingTracer(mockTracer, 1000, 1, 30000, 100);
+    tracer.buildSpan("parent").startManual().finish();
+
+    assertEquals(1, mockTracer.finishedSpans().size());
+  }
+
+  @Test
+  public void testOldestTraceIsEvictedWhenBufferIsFull() {
+    TailSamplingTracer tracer = new TailSamplingTracer(mockTracer, 1000, 0, 30000, 2);
+    Span first = tracer.buildSpan("first").startManual();
+    Span failed = tracer.buildSpan("failed").asChildOf(first).startManual();
+    Tags.ERROR.set(failed, true);
+    failed.finish();
+    tracer.buildSpan("child").asChildOf(first).startManual().finish();
+
+    Span second = tracer.buildSpan("second").startManual();
+    tracer.buildSpan("child").asChildOf(second).startManual().finish();
+    assertEquals(1, tracer.getEvictedTraces());
+    assertEquals(2, mockTracer.finishedSpans().size());
+
+    // spans of the evicted trace finishing later follow its decision
+    first.finish();
+    second.finish();
+    assertEquals(3, mockTracer.finishedSpans().size());
+    assertEquals("first", mockTracer.finishedSpans().get(2).operationName());
+    assertEquals(1, tracer.getKeptTraces());
+    assertEquals(1, tracer.getDiscardedTraces());
+  }
+
+  @Test
+  public void testSlowTraceIsKeptWhenEvicted() throws InterruptedException {
+    TailSamplingTracer tracer = new TailSamplingTracer(mockTracer, 10, 0, 30000, 1);
+    Span first = tracer.buildSpan("first").startManual();
+    tracer.buildSpan("child").asChildOf(first).startManual().finish();
+    Thread.sleep(20);
+
+    Span second = tracer.buildSpan("second").startManual();
+    tracer.buildSpan("child").asChildOf(second).startManual().finish();
+    assertEquals(1, tracer.getEvictedTraces());
+    assertEquals(1, tracer.getKeptTraces());
+    assertEquals(1, mockTracer.finishedSpans().size());
+
+    first.finish();
+    assertEquals(2, mockTracer.finishedSpans().size());
+    assertEquals("first", mockTracer.finishedSpans().get(1).operationName());
+  }
+
+  @Test
+  public void testSlowRootOfDiscardedTraceIsKept() {
+    TailSamplingTracer tracer = new TailSamplingTracer(mockTracer, 1000, 0, 30000, 1);
+    Span first = tracer.buildSpan("first").withStartTimestamp(1000).startManual();
+    Span open = tracer.buildSpan("open").asChildOf(first).startManual();
+    tracer.buildSpan("child").asChildOf(first).startManual().finish();
+
+    Span second = tracer.buildSpan("second").startManual();
+    tracer.buildSpan("child").asChildOf(second).startManual().finish();
+    assertEquals(1, tracer.getDiscardedTraces());
+    assertTrue(mockTracer.finishedSpans().isEmpty());
+
+    first.finish(1000 + 1000 * 1000);
+    open.finish();
+    assertEquals(2, mockTracer.finishedSpans().size());
+    assertEquals(1, tracer.getKeptTraces());
+    assertEquals(0, tracer.getDiscardedTraces());
+  }
+
+  @Test
+  public void testOpenSpansOfEvictedTraceAreReleased() {
+    TailSamplingTracer tracer = new TailSamplingTracer(mockTracer, 1000, 0, 30000, 1);
+    Span first = tracer.buildSpan("first").startManual();
+    Span leaked = tracer.buildSpan("leaked").asChildOf(first).startManual();
+    tracer.buildSpan("child").asChildOf(first).startManual().finish();
+    assertEquals(2, tracer.getOpenSpans());
+
+    Span second = tracer.buildSpan("second").startManual();
+    tracer.buildSpan("child").asChildOf(second).startManual().finish();
+    assertEquals(1, tracer.getEvictedTraces());
+    assertEquals(1, tracer.getOpenSpans());
+
+    // a child of a span of the decided trace starts a new local trace
+    tracer.buildSpan("late").asChildOf(leaked).startManual().finish();
+    assertEquals(2, tracer.getDiscardedTraces());
+    second.finish();
+    assertEquals(0, tracer.getOpenSpans());
+  }
+
+  @Test
+  public void testDecidedTracesAreNotPendingBehindLongLivedTrace() {
+    TailSamplingTracer tracer = new TailSamplingTracer(mockTracer, 1000, 0, 30000, 100);
+    Span longLived = tracer.buildSpan("long-lived").startManual();
+    for (int i = 0; i < 1000; i++) {
+      try (ActiveSpan parent = tracer.buildSpan("parent").startActive()) {
+        tracer.buildSpan("child").startManual().finish();
+      }
+    }
+
+    assertEquals(1, tracer.getPendingTraces());
+    assertEquals(1000, tracer.getDiscardedTraces());
+    longLived.finish();
+    assertEquals(0, tracer.getPendingTraces());
+  }
+}